@@ -1,6 +1,7 @@
 package com.example.fiberflow_backup.controller;
 
 import com.example.fiberflow_backup.dto.AssetRequest;
+import com.example.fiberflow_backup.dto.AssetStatisticsDTO;
 import com.example.fiberflow_backup.dto.AssetUpdateRequest;
 import com.example.fiberflow_backup.model.Asset;
 import com.example.fiberflow_backup.serviceimpl.AssetServiceImpl;
@@ -15,7 +16,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -28,10 +28,26 @@ public class AssetController {
     private final AssetServiceImpl assetServiceImpl;
 
     @GetMapping
-    @Operation(summary = "Get all assets", description = "Retrieve a list of all network assets")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved assets")
-    public ResponseEntity<List<Asset>> getAllAssets() {
-        return ResponseEntity.ok(assetServiceImpl.getAllAssets());
+    @Operation(summary = "Get assets",
+            description = "Retrieve one page of network assets in id order, optionally filtered by type, status, location and serial number prefix. Pass the returned nextCursor as 'after' to read the next page. A serial number prefix search is ordered by serial number instead; pass the returned nextSerialCursor as 'afterSerial' to continue it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved assets"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or page size")
+    })
+    public ResponseEntity<?> getAssets(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String serialPrefix,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) String afterSerial,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(assetServiceImpl.getAssets(type, status, location, serialPrefix, after,
+                    afterSerial, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -57,6 +73,14 @@ public class AssetController {
         return ResponseEntity.ok(assetServiceImpl.getAssetStatistics());
     }
 
+    @GetMapping("/stats/breakdown")
+    @Operation(summary = "Get asset breakdown",
+            description = "Get asset counts by type, status and location, refreshed every few seconds")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved breakdown")
+    public ResponseEntity<AssetStatisticsDTO> getAssetBreakdown() {
+        return ResponseEntity.ok(assetServiceImpl.getAssetBreakdown());
+    }
+
     @PostMapping
     @Operation(summary = "Create new asset", description = "Add a new asset to the inventory")
     @ApiResponses(value = {
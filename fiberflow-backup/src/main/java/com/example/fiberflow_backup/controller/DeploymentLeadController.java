@@ -1,7 +1,10 @@
 package com.example.fiberflow_backup.controller;
 
 import com.example.fiberflow_backup.dto.*;
+import com.example.fiberflow_backup.serviceimpl.AssignmentOptimizerServiceImpl;
+import com.example.fiberflow_backup.serviceimpl.DefragServiceImpl;
 import com.example.fiberflow_backup.serviceimpl.DeploymentLeadServiceImpl;
+import com.example.fiberflow_backup.serviceimpl.PortAllocationServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -19,12 +22,25 @@ import java.util.List;
 public class DeploymentLeadController {
 
     private final DeploymentLeadServiceImpl deploymentLeadServiceImpl;
+    private final PortAllocationServiceImpl portAllocationServiceImpl;
+    private final AssignmentOptimizerServiceImpl assignmentOptimizerServiceImpl;
+    private final DefragServiceImpl defragServiceImpl;
 
     @GetMapping("/dashboard")
-    @Operation(summary = "Get deployment lead dashboard", description = "Retrieve dashboard with customers and asset allocation data")
-    public ResponseEntity<DeploymentLeadDashboardResponse> getDashboard() {
-        DeploymentLeadDashboardResponse dashboard = deploymentLeadServiceImpl.getDashboardData();
-        return ResponseEntity.ok(dashboard);
+    @Operation(summary = "Get deployment lead dashboard",
+            description = "Retrieve allocation stats and one page of customers with their allocated assets, optionally filtered by neighborhood and status")
+    public ResponseEntity<?> getDashboard(
+            @RequestParam(required = false) String neighborhood,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            DeploymentLeadDashboardResponse dashboard =
+                    deploymentLeadServiceImpl.getDashboardData(neighborhood, status, page, size);
+            return ResponseEntity.ok(dashboard);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/available-assets")
@@ -61,6 +77,141 @@ public class DeploymentLeadController {
         }
     }
 
+    @PostMapping("/allocate-next-asset")
+    @Operation(summary = "Allocate next available asset",
+            description = "Allocate the next available asset of a type, optionally from one location, claimed from the in-memory pool of available assets")
+    public ResponseEntity<?> allocateNextAsset(@Valid @RequestBody AllocateNextAssetRequest request) {
+        try {
+            return ResponseEntity.ok(deploymentLeadServiceImpl.allocateNextAsset(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/allocate-kits")
+    @Operation(summary = "Bulk allocate asset kits",
+            description = "Allocate a kit of asset types (e.g. ONT, Router, CPE) to each customer of a deployment wave in one transaction; each kit is all or nothing and results are reported per customer")
+    public ResponseEntity<?> allocateKits(@Valid @RequestBody BulkAllocateKitsRequest request) {
+        try {
+            return ResponseEntity.ok(deploymentLeadServiceImpl.allocateKits(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/assign-port")
+    @Operation(summary = "Assign splitter port", description = "Attach a customer to a splitter port, picking the lowest free port unless one is given")
+    public ResponseEntity<?> assignPort(@Valid @RequestBody AssignPortRequest request) {
+        try {
+            return ResponseEntity.ok(portAllocationServiceImpl.assignPort(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/assign-ports")
+    @Operation(summary = "Bulk assign splitter ports", description = "Attach several customers to the lowest free ports of one splitter, all or nothing")
+    public ResponseEntity<?> assignPorts(@Valid @RequestBody BulkAssignPortsRequest request) {
+        try {
+            return ResponseEntity.ok(portAllocationServiceImpl.assignPorts(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/release-port")
+    @Operation(summary = "Release splitter port", description = "Detach a customer from its splitter port")
+    public ResponseEntity<?> releasePort(@Valid @RequestBody ReleasePortRequest request) {
+        try {
+            portAllocationServiceImpl.releasePort(request.getCustomerId());
+            return ResponseEntity.ok(new SuccessResponse("Port released successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @GetMapping("/optimize-assignments")
+    @Operation(summary = "Preview pending customer assignment", description = "Plan splitter ports for all pending customers without a splitter, minimizing estimated drop length and balancing FDH load; nothing is written")
+    public ResponseEntity<?> previewAssignments() {
+        try {
+            return ResponseEntity.ok(assignmentOptimizerServiceImpl.planPendingAssignments());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/optimize-assignments")
+    @Operation(summary = "Assign pending customers", description = "Plan and apply splitter ports for all pending customers without a splitter in one transaction")
+    public ResponseEntity<?> applyAssignments() {
+        try {
+            return ResponseEntity.ok(assignmentOptimizerServiceImpl.applyPendingAssignments());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/defrag-plans")
+    @Operation(summary = "Generate defragmentation plan", description = "Plan customer re-patches within each FDH that free whole splitters; supersedes any older draft")
+    public ResponseEntity<?> generateDefragPlan() {
+        try {
+            return ResponseEntity.ok(defragServiceImpl.generatePlan());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @GetMapping("/defrag-plans/latest")
+    @Operation(summary = "Get latest defragmentation plan", description = "Most recent plan with its moves, for review")
+    public ResponseEntity<?> getLatestDefragPlan() {
+        try {
+            return ResponseEntity.ok(defragServiceImpl.getLatestPlan());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @GetMapping("/defrag-plans/{planId}")
+    @Operation(summary = "Get defragmentation plan", description = "A stored plan with its moves")
+    public ResponseEntity<?> getDefragPlan(@PathVariable Long planId) {
+        try {
+            return ResponseEntity.ok(defragServiceImpl.getPlan(planId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/defrag-plans/{planId}/execute")
+    @Operation(summary = "Execute defragmentation plan", description = "Apply all re-patches of a draft plan in one transaction, or none if the network has changed since")
+    public ResponseEntity<?> executeDefragPlan(@PathVariable Long planId) {
+        try {
+            return ResponseEntity.ok(defragServiceImpl.executePlan(planId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                    new ErrorResponse(e.getMessage())
+            );
+        }
+    }
+
     record ErrorResponse(String message) {}
     record SuccessResponse(String message) {}
 }
@@ -1,12 +1,16 @@
 package com.example.fiberflow_backup.controller;
 
-import com.example.fiberflow_backup.dto.NetworkTopologyResponse;
+import com.example.fiberflow_backup.dto.*;
 import com.example.fiberflow_backup.serviceimpl.NetworkServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/network")
@@ -23,4 +27,129 @@ public class NetworkController {
         NetworkTopologyResponse topology = networkServiceImpl.getNetworkTopology();
         return ResponseEntity.ok(topology);
     }
+
+    @GetMapping(value = "/topology/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream network topology",
+            description = "Stream the network hierarchy as newline-delimited JSON, one headend/FDH/splitter/customer node per line")
+    public ResponseEntity<StreamingResponseBody> streamNetworkTopology() {
+        StreamingResponseBody body = networkServiceImpl::streamNetworkTopology;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/topology/changes")
+    @Operation(summary = "Get topology changes",
+            description = "FDH, splitter and customer changes since a topology version; returns a full snapshot when the version is omitted, too old or from before a restart")
+    public ResponseEntity<?> getTopologyChanges(@RequestParam(required = false) Long since) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.getTopologyChanges(since));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/headends")
+    @Operation(summary = "Get headend summaries",
+            description = "List every headend with FDH/splitter/customer counts and port capacity, broken down by region")
+    public ResponseEntity<List<HeadendSummaryDTO>> getHeadendSummaries() {
+        return ResponseEntity.ok(networkServiceImpl.getHeadendSummaries());
+    }
+
+    @GetMapping("/headends/{headendId}/fdhs")
+    @Operation(summary = "Get FDHs of a headend", description = "Page through the FDHs of a headend, optionally filtered by region")
+    public ResponseEntity<?> getFDHs(
+            @PathVariable Long headendId,
+            @RequestParam(required = false) String region,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.getFDHs(headendId, region, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/fdhs/{fdhId}/splitters")
+    @Operation(summary = "Get splitters of an FDH", description = "Page through the splitters of an FDH")
+    public ResponseEntity<?> getSplitters(
+            @PathVariable Long fdhId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.getSplitters(fdhId, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/splitters/{splitterId}/customers")
+    @Operation(summary = "Get customers of a splitter", description = "Page through the customers attached to a splitter")
+    public ResponseEntity<?> getSplitterCustomers(
+            @PathVariable Long splitterId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.getSplitterCustomers(splitterId, page, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/faults")
+    @Operation(summary = "Get live fault counts",
+            description = "Disconnected drop lines, faulty assets and open high-priority tickets, network-wide, per FDH and per region")
+    public ResponseEntity<FaultSummaryDTO> getFaultSummary() {
+        return ResponseEntity.ok(networkServiceImpl.getFaultSummary());
+    }
+
+    @GetMapping("/impact/{elementId}")
+    @Operation(summary = "Get outage impact",
+            description = "List the customers and open support tickets downstream of a headend, FDH or splitter")
+    public ResponseEntity<?> getOutageImpact(
+            @PathVariable Long elementId,
+            @RequestParam(defaultValue = "FDH") String type) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.getOutageImpact(type, elementId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/optical/customers/{customerId}")
+    @Operation(summary = "Get customer power budget",
+            description = "Optical loss breakdown and margin for the path from the headend to a customer")
+    public ResponseEntity<?> getPowerBudget(@PathVariable Long customerId) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.getPowerBudget(customerId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/optical/below-threshold")
+    @Operation(summary = "Get customers below optical margin",
+            description = "Customers whose optical margin is below the threshold (defaults to the configured minimum), worst first")
+    public ResponseEntity<?> getCustomersBelowMargin(
+            @RequestParam(required = false) Double thresholdDb,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.getCustomersBelowMargin(thresholdDb, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/optical/what-if/splitter-swap")
+    @Operation(summary = "Simulate a splitter swap",
+            description = "Recompute the optical margins of a splitter's customers as if it were replaced by another model")
+    public ResponseEntity<?> simulateSplitterSwap(@RequestBody SplitterSwapRequest request) {
+        try {
+            return ResponseEntity.ok(networkServiceImpl.simulateSplitterSwap(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    record ErrorResponse(String message) {}
 }
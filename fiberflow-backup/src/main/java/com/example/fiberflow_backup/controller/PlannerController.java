@@ -1,13 +1,20 @@
 package com.example.fiberflow_backup.controller;
 
+import com.example.fiberflow_backup.dto.CubeQueryRequest;
 import com.example.fiberflow_backup.dto.PlannerDashboardResponse;
+import com.example.fiberflow_backup.dto.SimulationScenarioRequest;
 import com.example.fiberflow_backup.serviceimpl.PlannerServiceImpl;
+import com.example.fiberflow_backup.serviceimpl.PortForecastServiceImpl;
+import com.example.fiberflow_backup.serviceimpl.SimulationServiceImpl;
+import com.example.fiberflow_backup.serviceimpl.UtilizationHeatmapServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/planner")
 @RequiredArgsConstructor
@@ -16,6 +23,9 @@ import org.springframework.web.bind.annotation.*;
 public class PlannerController {
 
     private final PlannerServiceImpl plannerServiceImpl;
+    private final PortForecastServiceImpl portForecastServiceImpl;
+    private final SimulationServiceImpl simulationServiceImpl;
+    private final UtilizationHeatmapServiceImpl utilizationHeatmapServiceImpl;
 
     @GetMapping("/dashboard")
     @Operation(summary = "Get planner dashboard", description = "Retrieve network planning metrics and capacity data")
@@ -23,4 +33,97 @@ public class PlannerController {
         PlannerDashboardResponse dashboard = plannerServiceImpl.getPlannerDashboard();
         return ResponseEntity.ok(dashboard);
     }
+
+    @GetMapping("/forecasts")
+    @Operation(summary = "Get port exhaustion ranking",
+            description = "FDHs or splitters ordered by projected port exhaustion, soonest first")
+    public ResponseEntity<?> getForecastRanking(
+            @RequestParam(defaultValue = "FDH") String scope,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(portForecastServiceImpl.getRiskRanking(scope, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/forecasts/{scope}/{elementId}")
+    @Operation(summary = "Get port exhaustion forecast", description = "Growth trend and projected exhaustion date of one FDH or splitter")
+    public ResponseEntity<?> getForecast(@PathVariable String scope, @PathVariable Long elementId) {
+        try {
+            return ResponseEntity.ok(portForecastServiceImpl.getForecast(scope, elementId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/forecasts/refresh")
+    @Operation(summary = "Refresh port forecasts", description = "Recompute all forecasts now instead of waiting for the nightly run")
+    public ResponseEntity<?> refreshForecasts() {
+        try {
+            int updated = portForecastServiceImpl.refreshForecasts();
+            return ResponseEntity.ok(new RefreshResponse(updated));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/simulations")
+    @Operation(summary = "Run capacity what-if scenarios",
+            description = "Apply hypothetical FDHs, splitters and customer demand to an in-memory copy of network capacity; scenarios run in parallel and nothing is saved")
+    public ResponseEntity<?> runSimulations(@RequestBody List<SimulationScenarioRequest> scenarios) {
+        try {
+            return ResponseEntity.ok(simulationServiceImpl.runScenarios(scenarios));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/analytics/customers")
+    @Operation(summary = "Slice customers",
+            description = "Count customers by any filter and group-by over NEIGHBORHOOD, PLAN, STATUS, CONNECTION_TYPE and FDH, answered from in-memory bitmap indexes")
+    public ResponseEntity<?> queryCustomerCube(@RequestBody CubeQueryRequest request) {
+        try {
+            return ResponseEntity.ok(plannerServiceImpl.queryCustomerCube(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/analytics/customers/dimensions")
+    @Operation(summary = "Get customer slice dimensions", description = "Every value of every dimension with its customer count")
+    public ResponseEntity<?> getCubeDimensions() {
+        return ResponseEntity.ok(plannerServiceImpl.getCubeDimensions());
+    }
+
+    @GetMapping("/heatmap")
+    @Operation(summary = "Get utilization heatmap",
+            description = "Port utilization and active/pending customers per NEIGHBORHOOD or FDH for each HOUR or DAY bucket of the last days, read from pre-aggregated buckets")
+    public ResponseEntity<?> getHeatmap(
+            @RequestParam(defaultValue = "NEIGHBORHOOD") String scope,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(defaultValue = "365") int days) {
+        try {
+            return ResponseEntity.ok(utilizationHeatmapServiceImpl.getHeatmap(scope, granularity, days));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/heatmap/capture")
+    @Operation(summary = "Capture utilization buckets", description = "Sample utilization into the current hour and day buckets now instead of waiting for the hourly run")
+    public ResponseEntity<?> captureHeatmapBuckets() {
+        try {
+            int updated = utilizationHeatmapServiceImpl.captureBuckets();
+            return ResponseEntity.ok(new CaptureResponse(updated));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    record RefreshResponse(int updatedForecasts) {}
+
+    record CaptureResponse(int updatedBuckets) {}
+
+    record ErrorResponse(String message) {}
 }
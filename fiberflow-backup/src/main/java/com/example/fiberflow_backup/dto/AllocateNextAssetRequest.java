@@ -0,0 +1,22 @@
+package com.example.fiberflow_backup.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocateNextAssetRequest {
+
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+
+    @NotBlank(message = "Asset type is required")
+    private String assetType;
+
+    // Warehouse or site to take the asset from; any location when empty
+    private String location;
+}
@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.enums.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocatedAssetRow {
+    private Long customerId;
+    private Long assetId;
+    private AssetType assetType;
+    private String serialNumber;
+    private String model;
+}
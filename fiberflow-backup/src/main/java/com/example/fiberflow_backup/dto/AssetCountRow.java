@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.enums.AssetStatus;
+import com.example.fiberflow_backup.enums.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetCountRow {
+    private AssetType assetType;
+    private AssetStatus status;
+    private String location;
+    private Number count;
+}
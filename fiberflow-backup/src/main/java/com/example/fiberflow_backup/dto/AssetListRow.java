@@ -0,0 +1,23 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.enums.AssetStatus;
+import com.example.fiberflow_backup.enums.AssetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetListRow {
+    private Long assetId;
+    private AssetType assetType;
+    private String model;
+    private String serialNumber;
+    private AssetStatus status;
+    private String location;
+    private Long assignedToCustomerId;
+    private LocalDateTime assignedDate;
+}
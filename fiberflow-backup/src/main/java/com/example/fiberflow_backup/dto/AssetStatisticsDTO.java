@@ -0,0 +1,34 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asset counts by type, status and location. The per-type and per-status totals list every
+ * enum value, including those with no assets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetStatisticsDTO {
+    private long total;
+    private Map<String, Long> byType;
+    private Map<String, Long> byStatus;
+    private List<Cell> cells;
+    private LocalDateTime computedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cell {
+        private String assetType;
+        private String status;
+        private String location;
+        private long count;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.fiberflow_backup.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignPortRequest {
+
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+
+    @NotNull(message = "Splitter ID is required")
+    private Long splitterId;
+
+    // Optional; the lowest free port is picked when omitted
+    @Positive(message = "Port must be positive")
+    private Integer port;
+}
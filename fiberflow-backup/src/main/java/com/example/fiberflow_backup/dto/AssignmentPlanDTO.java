@@ -0,0 +1,22 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentPlanDTO {
+    private boolean applied;
+    private Integer pendingCustomers;
+    private Integer assigned;
+    private Integer unassigned;
+    private Double totalEstimatedDropMeters;
+    private Double averageEstimatedDropMeters;
+    private Long planningMillis;
+    private List<PlannedAssignmentDTO> assignments;
+    private List<Long> unassignedCustomerIds;
+}
@@ -0,0 +1,15 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentRow {
+    private Long splitterId;
+    private LocalDateTime createdAt;
+}
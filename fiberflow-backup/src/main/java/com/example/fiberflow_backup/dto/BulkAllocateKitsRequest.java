@@ -0,0 +1,31 @@
+package com.example.fiberflow_backup.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAllocateKitsRequest {
+
+    @NotEmpty(message = "At least one kit is required")
+    private List<@Valid KitRequest> kits;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KitRequest {
+
+        @NotNull(message = "Customer ID is required")
+        private Long customerId;
+
+        // e.g. ["ONT", "Router", "CPE"]; a type may repeat
+        @NotEmpty(message = "At least one asset type is required")
+        private List<String> assetTypes;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.fiberflow_backup.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAssignPortsRequest {
+
+    @NotNull(message = "Splitter ID is required")
+    private Long splitterId;
+
+    @NotEmpty(message = "At least one customer ID is required")
+    private List<Long> customerIds;
+}
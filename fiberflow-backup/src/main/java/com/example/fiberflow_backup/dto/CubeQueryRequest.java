@@ -0,0 +1,19 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CubeQueryRequest {
+    // Dimension -> accepted values; values of one dimension are OR-ed, dimensions are AND-ed
+    private Map<String, List<String>> filters = new HashMap<>();
+    private List<String> groupBy = new ArrayList<>();
+}
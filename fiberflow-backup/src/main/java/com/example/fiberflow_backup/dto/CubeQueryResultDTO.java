@@ -0,0 +1,27 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CubeQueryResultDTO {
+    private int matched;
+    private List<String> groupBy;
+    private List<Cell> cells;
+    private boolean truncated;
+    private long elapsedMicros;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cell {
+        private Map<String, String> key;
+        private int count;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.enums.ConnectionType;
+import com.example.fiberflow_backup.enums.CustomerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerCubeRow {
+    private Long customerId;
+    private Long splitterId;
+    private String neighborhood;
+    private String plan;
+    private CustomerStatus status;
+    private ConnectionType connectionType;
+}
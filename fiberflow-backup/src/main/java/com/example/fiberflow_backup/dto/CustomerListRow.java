@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.enums.CustomerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerListRow {
+    private Long customerId;
+    private String name;
+    private String neighborhood;
+    private String plan;
+    private CustomerStatus status;
+}
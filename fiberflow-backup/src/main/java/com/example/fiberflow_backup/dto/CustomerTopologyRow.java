@@ -0,0 +1,18 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.enums.CustomerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerTopologyRow {
+    private Long customerId;
+    private Long splitterId;
+    private String name;
+    private String plan;
+    private Integer assignedPort;
+    private CustomerStatus status;
+}
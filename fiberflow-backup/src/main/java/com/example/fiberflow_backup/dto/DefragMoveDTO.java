@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DefragMoveDTO {
+    private Long fdhId;
+    private Long customerId;
+    private Long fromSplitterId;
+    private Integer fromPort;
+    private Long toSplitterId;
+    private Integer toPort;
+}
@@ -0,0 +1,23 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DefragPlanDTO {
+    private Long planId;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime executedAt;
+    private Integer moveCount;
+    private Integer splittersFreed;
+    private Integer portsFreed;
+    private List<Long> freedSplitterIds;
+    private List<DefragMoveDTO> moves;
+}
@@ -3,14 +3,13 @@ package com.example.fiberflow_backup.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class DeploymentLeadDashboardResponse {
     private DeploymentLeadStats stats;
-    private List<CustomerWithAssetsDTO> customers;
+    private PagedResponse<CustomerWithAssetsDTO> customers;
 
     @Data
     @NoArgsConstructor
@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FDHCapacityRow {
+    private Long fdhId;
+    private String name;
+    private String region;
+    private Number splitterCount;
+    private Number totalPorts;
+    private Number usedPorts;
+}
@@ -0,0 +1,20 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FDHSummaryDTO {
+    private Long fdhId;
+    private String name;
+    private String location;
+    private String region;
+    private Integer maxPorts;
+    private int splitterCount;
+    private int customerCount;
+    private int totalPorts;
+    private int usedPorts;
+}
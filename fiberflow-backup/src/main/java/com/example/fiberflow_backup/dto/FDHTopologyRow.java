@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FDHTopologyRow {
+    private Long fdhId;
+    private Long headendId;
+    private String name;
+    private String location;
+    private String region;
+    private Integer maxPorts;
+}
@@ -0,0 +1,44 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FaultSummaryDTO {
+    private FaultCounts total;
+    private List<FDHFaults> byFdh;
+    private List<RegionFaults> byRegion;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FaultCounts {
+        private int total;
+        private int disconnectedDropLines;
+        private int faultyAssets;
+        private int highPriorityTickets;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FDHFaults {
+        private Long fdhId;
+        private String name;
+        private String region;
+        private FaultCounts faults;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegionFaults {
+        private String region;
+        private FaultCounts faults;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadendSummaryDTO {
+    private Long headendId;
+    private String name;
+    private String location;
+    private String region;
+    private int fdhCount;
+    private int splitterCount;
+    private int customerCount;
+    private int totalPorts;
+    private int usedPorts;
+    private List<RegionSummary> regions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegionSummary {
+        private String region;
+        private int fdhCount;
+        private int splitterCount;
+        private int customerCount;
+        private int totalPorts;
+        private int usedPorts;
+    }
+}
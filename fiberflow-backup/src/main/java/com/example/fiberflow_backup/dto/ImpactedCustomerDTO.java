@@ -0,0 +1,19 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImpactedCustomerDTO {
+    private Long customerId;
+    private String name;
+    private String status;
+    private Long splitterId;
+    private Integer assignedPort;
+    private List<SupportTicketDTO> openTickets;
+}
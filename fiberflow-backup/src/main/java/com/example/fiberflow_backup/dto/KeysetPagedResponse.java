@@ -0,0 +1,22 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * One page of a list read in id order. Pass {@code nextCursor} back as {@code after} to read the
+ * following page; it is null on the last page. Lists read in serial number order also fill
+ * {@code nextSerialCursor}, which is passed back as {@code afterSerial} instead.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPagedResponse<T> {
+    private List<T> content;
+    private int size;
+    private Long nextCursor;
+    private String nextSerialCursor;
+    private boolean hasMore;
+}
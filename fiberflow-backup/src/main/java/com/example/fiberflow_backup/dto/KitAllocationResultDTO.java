@@ -0,0 +1,28 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitAllocationResultDTO {
+    private int requested;
+    private int allocated;
+    private int failed;
+    private int assetsAllocated;
+    // In request order
+    private List<KitResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KitResult {
+        private Long customerId;
+        private boolean allocated;
+        private String message;
+        private List<AllocatedAssetDTO> assets;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NeighborhoodSplitterRow {
+    private String neighborhood;
+    private Long splitterId;
+}
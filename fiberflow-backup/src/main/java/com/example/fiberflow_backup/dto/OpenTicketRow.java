@@ -0,0 +1,19 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpenTicketRow {
+    private Long ticketId;
+    private Long customerId;
+    private String issue;
+    private String priority;
+    private String status;
+    private LocalDateTime createdAt;
+}
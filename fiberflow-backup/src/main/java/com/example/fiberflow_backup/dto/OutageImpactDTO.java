@@ -0,0 +1,22 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutageImpactDTO {
+    private String elementType;
+    private Long elementId;
+    private String elementName;
+    private int affectedFdhs;
+    private int affectedSplitters;
+    private int affectedCustomers;
+    private int activeCustomers;
+    private int openTickets;
+    private List<ImpactedCustomerDTO> customers;
+}
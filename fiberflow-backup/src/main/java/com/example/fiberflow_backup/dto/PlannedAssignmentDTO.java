@@ -0,0 +1,16 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlannedAssignmentDTO {
+    private Long customerId;
+    private Long splitterId;
+    private Long fdhId;
+    private Double estimatedDropMeters;
+    private Integer assignedPort;  // Only set once the plan has been applied
+}
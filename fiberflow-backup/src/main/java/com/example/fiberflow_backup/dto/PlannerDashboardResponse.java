@@ -32,6 +32,8 @@ public class PlannerDashboardResponse {
     public static class RegionalData {
         private String name;
         private int connections;
+        private int active;
+        private int pending;
     }
 
     @Data
@@ -0,0 +1,14 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortAssignmentDTO {
+    private Long customerId;
+    private Long splitterId;
+    private Integer assignedPort;
+}
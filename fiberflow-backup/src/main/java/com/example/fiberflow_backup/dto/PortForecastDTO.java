@@ -0,0 +1,25 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortForecastDTO {
+    private String scope;
+    private Long elementId;
+    private String name;
+    private String region;
+    private int totalPorts;
+    private int usedPorts;
+    private double growthPerDay;
+    private Integer daysToExhaustion;
+    private LocalDate projectedExhaustion;
+    private String risk;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PowerBudgetDTO {
+    private Long customerId;
+    private Long splitterId;
+    private String splitterModel;
+    private Integer splitRatio;
+    private Double splitterLossDb;
+    private Double dropLengthMeters;
+    private boolean dropLengthEstimated;
+    private Double dropLossDb;
+    private Double fixedLossDb;
+    private Double totalLossDb;
+    private Double marginDb;
+    private boolean belowThreshold;
+}
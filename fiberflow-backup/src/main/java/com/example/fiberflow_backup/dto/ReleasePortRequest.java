@@ -0,0 +1,15 @@
+package com.example.fiberflow_backup.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReleasePortRequest {
+
+    @NotNull(message = "Customer ID is required")
+    private Long customerId;
+}
@@ -0,0 +1,32 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.dto.PlannerDashboardResponse.FDHCapacityData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResultDTO {
+    private String name;
+    private long topologyVersion;
+    private int requestedCustomers;
+    private int placedCustomers;
+    private int unplacedCustomers;
+    private List<FDHCapacityData> fdhCapacity;
+    private List<FDHCapacityData> fdhsOverMaxPorts;
+    private List<NeighborhoodOverflow> overflow;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NeighborhoodOverflow {
+        private String neighborhood;
+        private int requested;
+        private int placed;
+        private int unplaced;
+    }
+}
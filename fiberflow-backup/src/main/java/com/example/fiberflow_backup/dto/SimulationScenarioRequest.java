@@ -0,0 +1,47 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationScenarioRequest {
+    private String name;
+    private List<SimulatedFDH> fdhs = new ArrayList<>();
+    private List<SimulatedSplitter> splitters = new ArrayList<>();
+    private List<SimulatedDemand> demand = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimulatedFDH {
+        private String ref; // referenced by splitters of the same scenario
+        private String name;
+        private String region;
+        private Integer maxPorts;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimulatedSplitter {
+        private Long fdhId;     // existing FDH, or
+        private String fdhRef;  // hypothetical FDH of this scenario
+        private Integer portCapacity;
+        private Integer count = 1;
+        private String neighborhood;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SimulatedDemand {
+        private String neighborhood;
+        private Integer customers;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitterSummaryDTO {
+    private Long splitterId;
+    private String model;
+    private Integer portCapacity;
+    private Integer usedPorts;
+    private String location;
+    private int customerCount;
+}
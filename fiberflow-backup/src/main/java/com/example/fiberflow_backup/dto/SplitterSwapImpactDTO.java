@@ -0,0 +1,22 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitterSwapImpactDTO {
+    private Long splitterId;
+    private String currentModel;
+    private String proposedModel;
+    private Double currentSplitterLossDb;
+    private Double proposedSplitterLossDb;
+    private int affectedCustomers;
+    private int belowThresholdBefore;
+    private int belowThresholdAfter;
+    private List<PowerBudgetDTO> customers;
+}
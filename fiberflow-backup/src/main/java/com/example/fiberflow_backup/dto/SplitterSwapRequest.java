@@ -0,0 +1,14 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitterSwapRequest {
+    private Long splitterId;
+    private String model;
+    private Integer portCapacity;
+}
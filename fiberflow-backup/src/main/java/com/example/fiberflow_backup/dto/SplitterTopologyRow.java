@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitterTopologyRow {
+    private Long splitterId;
+    private Long fdhId;
+    private String model;
+    private Integer portCapacity;
+    private Integer usedPorts;
+    private String location;
+}
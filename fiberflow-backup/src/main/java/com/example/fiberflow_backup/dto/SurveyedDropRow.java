@@ -0,0 +1,16 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurveyedDropRow {
+    private Long customerId;
+    private Long splitterId;
+    private BigDecimal lengthMeters;
+}
@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopologyChangeDTO {
+    private long version;
+    private String elementType; // HEADEND, FDH, SPLITTER, CUSTOMER
+    private String action;      // UPSERT, REMOVE
+    private Long elementId;
+    private Long parentId;
+    private Object element;     // HeadendDTO, FDHSummaryDTO, SplitterSummaryDTO or CustomerInTopologyDTO; null on REMOVE
+}
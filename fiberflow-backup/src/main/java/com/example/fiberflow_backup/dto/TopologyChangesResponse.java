@@ -0,0 +1,19 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopologyChangesResponse {
+    private long fromVersion;
+    private long version;
+    // True when the requested version is no longer in the change log; snapshot replaces the client's state
+    private boolean fullSnapshot;
+    private List<TopologyChangeDTO> changes;
+    private NetworkTopologyResponse snapshot;
+}
@@ -0,0 +1,27 @@
+package com.example.fiberflow_backup.dto;
+
+import com.example.fiberflow_backup.enums.CustomerStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopologyStreamRow {
+    private Long fdhId;
+    private String fdhName;
+    private String fdhLocation;
+    private String fdhRegion;
+    private Integer fdhMaxPorts;
+    private Long splitterId;
+    private String splitterModel;
+    private Integer portCapacity;
+    private Integer usedPorts;
+    private String splitterLocation;
+    private Long customerId;
+    private String customerName;
+    private String plan;
+    private Integer assignedPort;
+    private CustomerStatus customerStatus;
+}
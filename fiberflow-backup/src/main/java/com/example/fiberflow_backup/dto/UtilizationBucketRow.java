@@ -0,0 +1,19 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationBucketRow {
+    private String scopeKey;
+    private LocalDateTime bucketStart;
+    private int totalPorts;
+    private int usedPorts;
+    private int activeCustomers;
+    private int pendingCustomers;
+}
@@ -0,0 +1,15 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationCountRow {
+    private String scopeKey;
+    private Number active;
+    private Number pending;
+    private Number usedPorts;
+}
@@ -0,0 +1,34 @@
+package com.example.fiberflow_backup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Heatmap grid: one row per neighborhood or FDH, one column per bucket. Cells of buckets
+ * without a sample are null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationHeatmapDTO {
+    private String scope;
+    private String granularity;
+    private List<LocalDateTime> buckets;
+    private List<HeatmapRow> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HeatmapRow {
+        private String key;
+        private String name;
+        // Used ports as a percentage of total ports
+        private Double[] utilization;
+        private Integer[] activeCustomers;
+        private Integer[] pendingCustomers;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.fiberflow_backup.enums;
+
+import java.util.List;
+
+public enum AuditCategory {
+    Network("Network Planning", "NETWORK", "HEADEND", "FDH", "SPLITTER"),
+    Asset("Asset Inventory", "ASSET"),
+    Task("Deployment Tasks", "TASK"),
+    Customer("Customer Onboarding", "CUSTOMER"),
+    General("General");
+
+    private final String description;
+    private final List<String> actionKeywords;
+
+    AuditCategory(String description, String... actionKeywords) {
+        this.description = description;
+        this.actionKeywords = List.of(actionKeywords);
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getActionKeywords() {
+        return actionKeywords;
+    }
+
+    /**
+     * Category of an action type: the first category, in declaration order, with a keyword
+     * contained in it. Anything unmatched is General.
+     */
+    public static AuditCategory of(String actionType) {
+        if (actionType != null) {
+            for (AuditCategory category : values()) {
+                for (String keyword : category.actionKeywords) {
+                    if (actionType.contains(keyword)) {
+                        return category;
+                    }
+                }
+            }
+        }
+        return General;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.fiberflow_backup.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum BucketGranularity {
+    HOUR("Hourly sample", ChronoUnit.HOURS),
+    DAY("Last sample of the day", ChronoUnit.DAYS);
+
+    private final String description;
+    private final ChronoUnit unit;
+
+    BucketGranularity(String description, ChronoUnit unit) {
+        this.description = description;
+        this.unit = unit;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Start of the bucket containing the given time.
+     */
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.fiberflow_backup.enums;
+
+public enum CubeDimension {
+    NEIGHBORHOOD,
+    PLAN,
+    STATUS,
+    CONNECTION_TYPE,
+    FDH
+}
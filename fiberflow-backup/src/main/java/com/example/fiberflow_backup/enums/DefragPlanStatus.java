@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.enums;
+
+public enum DefragPlanStatus {
+    Draft("Awaiting Review"),
+    Executed("Executed"),
+    Superseded("Superseded by a Newer Plan");
+
+    private final String description;
+
+    DefragPlanStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
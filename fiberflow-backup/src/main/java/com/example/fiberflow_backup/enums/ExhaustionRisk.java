@@ -0,0 +1,31 @@
+package com.example.fiberflow_backup.enums;
+
+public enum ExhaustionRisk {
+    CRITICAL("Out of ports within 30 days"),
+    HIGH("Out of ports within 90 days"),
+    MEDIUM("Out of ports within 180 days"),
+    LOW("No exhaustion expected within 180 days");
+
+    private final String description;
+
+    ExhaustionRisk(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public static ExhaustionRisk of(Integer daysToExhaustion) {
+        if (daysToExhaustion == null) {
+            return LOW;
+        }
+        if (daysToExhaustion <= 30) {
+            return CRITICAL;
+        }
+        if (daysToExhaustion <= 90) {
+            return HIGH;
+        }
+        return daysToExhaustion <= 180 ? MEDIUM : LOW;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.enums;
+
+public enum FaultSource {
+    DropLine("Disconnected Drop Line"),
+    Asset("Faulty Asset"),
+    Ticket("High Priority Ticket");
+
+    private final String description;
+
+    FaultSource(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.fiberflow_backup.enums;
+
+public enum ForecastScope {
+    FDH("Fiber distribution hub"),
+    SPLITTER("Single splitter");
+
+    private final String description;
+
+    ForecastScope(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
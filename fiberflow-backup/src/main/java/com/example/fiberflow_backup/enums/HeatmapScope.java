@@ -0,0 +1,16 @@
+package com.example.fiberflow_backup.enums;
+
+public enum HeatmapScope {
+    NEIGHBORHOOD("Customers of one neighborhood and the splitters serving them"),
+    FDH("Single fiber distribution hub");
+
+    private final String description;
+
+    HeatmapScope(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
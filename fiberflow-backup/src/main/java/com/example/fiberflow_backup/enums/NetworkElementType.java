@@ -0,0 +1,7 @@
+package com.example.fiberflow_backup.enums;
+
+public enum NetworkElementType {
+    HEADEND,
+    FDH,
+    SPLITTER
+}
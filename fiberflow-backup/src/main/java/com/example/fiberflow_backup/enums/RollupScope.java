@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.enums;
+
+public enum RollupScope {
+    FDH("Single fiber distribution hub"),
+    REGION("All FDHs of a region"),
+    NETWORK("Whole network");
+
+    private final String description;
+
+    RollupScope(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.fiberflow_backup.model;
 
 import com.example.fiberflow_backup.enums.AssetStatus;
 import com.example.fiberflow_backup.enums.AssetType;
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,7 +10,14 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assets")
+@Table(name = "assets", indexes = {
+        // Keyset listing: each filter combination reads its rows already in asset_id order
+        @Index(name = "idx_assets_type_status_id", columnList = "asset_type, status, asset_id"),
+        @Index(name = "idx_assets_type_id", columnList = "asset_type, asset_id"),
+        @Index(name = "idx_assets_status_id", columnList = "status, asset_id"),
+        @Index(name = "idx_assets_location_id", columnList = "location, asset_id")
+})
+@EntityListeners(TopologyEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,5 +1,7 @@
 package com.example.fiberflow_backup.model;
 
+import com.example.fiberflow_backup.enums.AuditCategory;
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,7 +9,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@EntityListeners(TopologyEntityListener.class)
+@Table(name = "audit_logs", indexes = {
+        // Serves the latest entries of one category without scanning the whole log
+        @Index(name = "idx_audit_logs_category_timestamp", columnList = "category, timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,9 +31,21 @@ public class AuditLog {
     @Column(name = "action_type", length = 50)
     private String actionType;
 
+    // Derived from the action type when the entry is first saved
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private AuditCategory category;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
     @Column(nullable = false)
     private LocalDateTime timestamp = LocalDateTime.now();
+
+    @PrePersist
+    void assignCategory() {
+        if (category == null) {
+            category = AuditCategory.of(actionType);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.fiberflow_backup.model;
+
+import com.example.fiberflow_backup.enums.RollupScope;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "capacity_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_capacity_rollups_scope_key", columnNames = {"scope", "scope_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacityRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RollupScope scope;
+
+    // FDH id, region name or "ALL" depending on the scope
+    @Column(name = "scope_key", nullable = false, length = 100)
+    private String scopeKey;
+
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 100)
+    private String region;
+
+    @Column(name = "splitter_count", nullable = false)
+    private int splitterCount;
+
+    @Column(name = "total_ports", nullable = false)
+    private int totalPorts;
+
+    @Column(name = "used_ports", nullable = false)
+    private int usedPorts;
+}
@@ -2,6 +2,7 @@ package com.example.fiberflow_backup.model;
 
 import com.example.fiberflow_backup.enums.ConnectionType;
 import com.example.fiberflow_backup.enums.CustomerStatus;
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,7 +10,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "customers")
+@EntityListeners(TopologyEntityListener.class)
+@Table(name = "customers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_customers_splitter_port", columnNames = {"splitter_id", "assigned_port"})
+}, indexes = {
+        // Covers the planner's per-neighborhood status counts without touching the table rows, and
+        // with the two below lets each customer list filter read its rows in customer_id order
+        @Index(name = "idx_customers_neighborhood_status_id", columnList = "neighborhood, status, customer_id"),
+        @Index(name = "idx_customers_neighborhood_id", columnList = "neighborhood, customer_id"),
+        @Index(name = "idx_customers_status_id", columnList = "status, customer_id"),
+        @Index(name = "idx_customers_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,4 +60,10 @@ public class Customer {
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set by MySQL on every insert and update, including writes from outside the application;
+    // a topology snapshot re-reads the rows changed after it was taken
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
 }
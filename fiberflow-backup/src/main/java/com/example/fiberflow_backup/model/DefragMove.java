@@ -0,0 +1,46 @@
+package com.example.fiberflow_backup.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One re-patch of a defragmentation plan. Ids are plain columns so that deleting a customer
+ * or splitter is never blocked by an old plan.
+ */
+@Entity
+@Table(name = "defrag_moves", indexes = {
+        @Index(name = "idx_defrag_moves_plan", columnList = "plan_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DefragMove {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "plan_id", nullable = false)
+    private DefragPlan plan;
+
+    @Column(name = "fdh_id", nullable = false)
+    private Long fdhId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "from_splitter_id", nullable = false)
+    private Long fromSplitterId;
+
+    @Column(name = "from_port", nullable = false)
+    private Integer fromPort;
+
+    @Column(name = "to_splitter_id", nullable = false)
+    private Long toSplitterId;
+
+    @Column(name = "to_port", nullable = false)
+    private Integer toPort;
+}
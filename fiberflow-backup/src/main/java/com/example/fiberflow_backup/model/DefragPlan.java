@@ -0,0 +1,41 @@
+package com.example.fiberflow_backup.model;
+
+import com.example.fiberflow_backup.enums.DefragPlanStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "defrag_plans")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DefragPlan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "plan_id")
+    private Long planId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DefragPlanStatus status = DefragPlanStatus.Draft;
+
+    @Column(name = "move_count", nullable = false)
+    private Integer moveCount;
+
+    @Column(name = "splitters_freed", nullable = false)
+    private Integer splittersFreed;
+
+    @Column(name = "ports_freed", nullable = false)
+    private Integer portsFreed;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "executed_at")
+    private LocalDateTime executedAt;
+}
@@ -1,12 +1,17 @@
 package com.example.fiberflow_backup.model;
 
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fdh")
+@EntityListeners(TopologyEntityListener.class)
+@Table(name = "fdh", indexes = {
+        @Index(name = "idx_fdh_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,4 +37,10 @@ public class FDH {
     @ManyToOne
     @JoinColumn(name = "headend_id")
     private Headend headend;
+
+    // Set by MySQL on every insert and update, including writes from outside the application;
+    // a topology snapshot re-reads the rows changed after it was taken
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
 }
@@ -1,6 +1,7 @@
 package com.example.fiberflow_backup.model;
 
 import com.example.fiberflow_backup.enums.LineStatus;
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,7 @@ import java.math.BigDecimal;
 
 @Entity
 @Table(name = "fiber_drop_line")
+@EntityListeners(TopologyEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
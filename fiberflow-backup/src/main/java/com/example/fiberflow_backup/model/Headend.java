@@ -1,12 +1,17 @@
 package com.example.fiberflow_backup.model;
 
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "headend")
+@EntityListeners(TopologyEntityListener.class)
+@Table(name = "headend", indexes = {
+        @Index(name = "idx_headend_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,4 +30,10 @@ public class Headend {
 
     @Column(length = 100)
     private String region;
-}
\ No newline at end of file
+
+    // Set by MySQL on every insert and update, including writes from outside the application;
+    // a topology snapshot re-reads the rows changed after it was taken
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
+}
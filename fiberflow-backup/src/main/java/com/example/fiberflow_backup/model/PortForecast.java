@@ -0,0 +1,65 @@
+package com.example.fiberflow_backup.model;
+
+import com.example.fiberflow_backup.enums.ExhaustionRisk;
+import com.example.fiberflow_backup.enums.ForecastScope;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "port_forecasts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_port_forecasts_scope_element", columnNames = {"scope", "element_id"})
+}, indexes = {
+        @Index(name = "idx_port_forecasts_scope_days", columnList = "scope, days_to_exhaustion")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortForecast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ForecastScope scope;
+
+    // FDH or splitter id depending on the scope
+    @Column(name = "element_id", nullable = false)
+    private Long elementId;
+
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 100)
+    private String region;
+
+    @Column(name = "total_ports", nullable = false)
+    private int totalPorts;
+
+    @Column(name = "used_ports", nullable = false)
+    private int usedPorts;
+
+    // Fitted connection growth in ports per day over the forecast window
+    @Column(name = "growth_per_day", nullable = false)
+    private double growthPerDay;
+
+    @Column(name = "days_to_exhaustion")
+    private Integer daysToExhaustion;
+
+    @Column(name = "projected_exhaustion")
+    private LocalDate projectedExhaustion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ExhaustionRisk risk;
+
+    // Only moves when the forecast itself changes
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
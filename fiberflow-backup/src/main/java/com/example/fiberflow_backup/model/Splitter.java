@@ -1,12 +1,17 @@
 package com.example.fiberflow_backup.model;
 
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "splitter")
+@EntityListeners(TopologyEntityListener.class)
+@Table(name = "splitter", indexes = {
+        @Index(name = "idx_splitter_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,4 +37,14 @@ public class Splitter {
 
     @Column(length = 100)
     private String location;
+
+    // One bit per port (bit 0 = port 1), maintained by the port allocation service
+    @Column(name = "port_bitmap", length = 64)
+    private byte[] portBitmap;
+
+    // Set by MySQL on every insert and update, including writes from outside the application;
+    // a topology snapshot re-reads the rows changed after it was taken
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)")
+    private LocalDateTime updatedAt;
 }
@@ -1,5 +1,6 @@
 package com.example.fiberflow_backup.model;
 
+import com.example.fiberflow_backup.topology.TopologyEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "support_tickets")
+@EntityListeners(TopologyEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
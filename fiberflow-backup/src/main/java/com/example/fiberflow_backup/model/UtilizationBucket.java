@@ -0,0 +1,53 @@
+package com.example.fiberflow_backup.model;
+
+import com.example.fiberflow_backup.enums.BucketGranularity;
+import com.example.fiberflow_backup.enums.HeatmapScope;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "utilization_buckets", uniqueConstraints = {
+        // Also serves the heatmap grid: one range scan per scope and granularity
+        @UniqueConstraint(name = "uk_utilization_buckets_bucket",
+                columnNames = {"scope", "granularity", "bucket_start", "scope_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private HeatmapScope scope;
+
+    // Neighborhood name or FDH id depending on the scope
+    @Column(name = "scope_key", nullable = false, length = 100)
+    private String scopeKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private BucketGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "total_ports", nullable = false)
+    private int totalPorts;
+
+    @Column(name = "used_ports", nullable = false)
+    private int usedPorts;
+
+    @Column(name = "active_customers", nullable = false)
+    private int activeCustomers;
+
+    @Column(name = "pending_customers", nullable = false)
+    private int pendingCustomers;
+}
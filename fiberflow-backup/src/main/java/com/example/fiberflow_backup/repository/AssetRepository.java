@@ -1,11 +1,25 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.AssetCountRow;
+import com.example.fiberflow_backup.dto.AssetListRow;
+import com.example.fiberflow_backup.dto.AssetPoolRow;
+import com.example.fiberflow_backup.dto.FaultSourceRow;
 import com.example.fiberflow_backup.enums.AssetStatus;
 import com.example.fiberflow_backup.enums.AssetType;
 import com.example.fiberflow_backup.model.Asset;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +30,76 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
     long countByAssetTypeAndStatus(AssetType assetType, AssetStatus status);
     Optional<Asset> findBySerialNumber(String serialNumber);
     List<Asset> findByAssetTypeAndStatus(AssetType assetType, AssetStatus status);  // ADD THIS
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.FaultSourceRow(a.assetId, a.assignedToCustomerId) " +
+            "FROM Asset a WHERE a.status = com.example.fiberflow_backup.enums.AssetStatus.Faulty")
+    List<FaultSourceRow> findFaultyAssetRows();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.AssetCountRow(a.assetType, a.status, a.location, COUNT(a)) " +
+            "FROM Asset a GROUP BY a.assetType, a.status, a.location ORDER BY a.assetType, a.status, a.location")
+    List<AssetCountRow> findAssetCounts();
+
+    // Keyset page after the given id; every filter is optional. Each equality filter combination
+    // has an index ending in asset_id, so a page reads only its own rows however large the table is.
+    @Query("SELECT new com.example.fiberflow_backup.dto.AssetListRow(a.assetId, a.assetType, a.model, " +
+            "a.serialNumber, a.status, a.location, a.assignedToCustomerId, a.assignedDate) FROM Asset a " +
+            "WHERE a.assetId > :after " +
+            "AND (:assetType IS NULL OR a.assetType = :assetType) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:location IS NULL OR a.location = :location) " +
+            "ORDER BY a.assetId")
+    List<AssetListRow> findListRowsAfter(@Param("after") Long after,
+                                         @Param("assetType") AssetType assetType,
+                                         @Param("status") AssetStatus status,
+                                         @Param("location") String location,
+                                         Pageable pageable);
+
+    // Keyset page of a serial number prefix search, in serial number order after the given serial
+    // (null for the first page). serialPattern is a LIKE pattern with '!' as escape character. The
+    // unique serial_number index serves both the prefix range and the order; the other filters are
+    // checked on the rows inside that range.
+    @Query("SELECT new com.example.fiberflow_backup.dto.AssetListRow(a.assetId, a.assetType, a.model, " +
+            "a.serialNumber, a.status, a.location, a.assignedToCustomerId, a.assignedDate) FROM Asset a " +
+            "WHERE a.serialNumber LIKE :serialPattern ESCAPE '!' " +
+            "AND (:afterSerial IS NULL OR a.serialNumber > :afterSerial) " +
+            "AND (:assetType IS NULL OR a.assetType = :assetType) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:location IS NULL OR a.location = :location) " +
+            "ORDER BY a.serialNumber")
+    List<AssetListRow> findListRowsBySerialAfter(@Param("serialPattern") String serialPattern,
+                                                 @Param("afterSerial") String afterSerial,
+                                                 @Param("assetType") AssetType assetType,
+                                                 @Param("status") AssetStatus status,
+                                                 @Param("location") String location,
+                                                 Pageable pageable);
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.AssetPoolRow(" +
+            "a.assetId, a.assetType, a.serialNumber, a.model, a.location) " +
+            "FROM Asset a WHERE a.status = com.example.fiberflow_backup.enums.AssetStatus.Available ORDER BY a.assetId")
+    List<AssetPoolRow> findAvailablePoolRows();
+
+    // Locks up to a page of available assets of a type. Rows locked by another allocation are
+    // skipped (lock timeout -2 is SKIP LOCKED), so concurrent waves pick disjoint assets.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT a FROM Asset a WHERE a.assetType = :assetType " +
+            "AND a.status = com.example.fiberflow_backup.enums.AssetStatus.Available ORDER BY a.assetId")
+    List<Asset> findAvailableForUpdate(@Param("assetType") AssetType assetType, Pageable pageable);
+
+    // Claims the asset only while it is still available; 0 means someone else got there first
+    @Modifying
+    @Query("UPDATE Asset a SET a.status = com.example.fiberflow_backup.enums.AssetStatus.Assigned, " +
+            "a.assignedToCustomerId = :customerId, a.assignedDate = :assignedDate " +
+            "WHERE a.assetId = :assetId AND a.status = com.example.fiberflow_backup.enums.AssetStatus.Available")
+    int assignIfAvailable(@Param("assetId") Long assetId,
+                          @Param("customerId") Long customerId,
+                          @Param("assignedDate") LocalDateTime assignedDate);
+
+    // Releases the asset only while it is still assigned to the customer
+    @Modifying
+    @Query("UPDATE Asset a SET a.status = com.example.fiberflow_backup.enums.AssetStatus.Available, " +
+            "a.assignedToCustomerId = NULL, a.assignedDate = NULL " +
+            "WHERE a.assetId = :assetId AND a.assignedToCustomerId = :customerId " +
+            "AND a.status = com.example.fiberflow_backup.enums.AssetStatus.Assigned")
+    int releaseIfAssigned(@Param("assetId") Long assetId, @Param("customerId") Long customerId);
 }
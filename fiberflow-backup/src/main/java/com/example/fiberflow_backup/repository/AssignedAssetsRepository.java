@@ -1,13 +1,24 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.AllocatedAssetRow;
 import com.example.fiberflow_backup.model.AssignedAssets;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AssignedAssetsRepository extends JpaRepository<AssignedAssets, Long> {
     List<AssignedAssets> findByCustomer_CustomerId(Long customerId);
     void deleteByCustomerCustomerIdAndAssetAssetId(Long customerId, Long assetId);  // ADD THIS
+
+    // Allocated assets of a whole page of customers at once
+    @Query("SELECT new com.example.fiberflow_backup.dto.AllocatedAssetRow(" +
+            "c.customerId, a.assetId, a.assetType, a.serialNumber, a.model) " +
+            "FROM AssignedAssets aa JOIN aa.customer c JOIN aa.asset a " +
+            "WHERE c.customerId IN :customerIds ORDER BY aa.id")
+    List<AllocatedAssetRow> findAllocatedAssetRows(@Param("customerIds") Collection<Long> customerIds);
 }
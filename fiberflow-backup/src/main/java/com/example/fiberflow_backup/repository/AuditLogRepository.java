@@ -1,12 +1,38 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.AuditLogDTO;
+import com.example.fiberflow_backup.enums.AuditCategory;
 import com.example.fiberflow_backup.model.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findTop20ByOrderByTimestampDesc();
     List<AuditLog> findAllByOrderByTimestampDesc();
+
+    // Newest first; limit with the pageable
+    @Query("SELECT new com.example.fiberflow_backup.dto.AuditLogDTO(" +
+            "a.logId, u.username, a.actionType, a.description, a.timestamp) " +
+            "FROM AuditLog a LEFT JOIN a.user u ORDER BY a.timestamp DESC, a.logId DESC")
+    List<AuditLogDTO> findLatestEntries(Pageable pageable);
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.AuditLogDTO(" +
+            "a.logId, u.username, a.actionType, a.description, a.timestamp) " +
+            "FROM AuditLog a LEFT JOIN a.user u WHERE a.category = :category " +
+            "ORDER BY a.timestamp DESC, a.logId DESC")
+    List<AuditLogDTO> findLatestEntries(@Param("category") AuditCategory category, Pageable pageable);
+
+    // Backfills entries written before the category column existed; a null keyword matches all
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuditLog a SET a.category = :category " +
+            "WHERE a.category IS NULL AND (:keyword IS NULL OR a.actionType LIKE CONCAT('%', :keyword, '%'))")
+    int assignMissingCategory(@Param("category") AuditCategory category, @Param("keyword") String keyword);
 }
@@ -0,0 +1,33 @@
+package com.example.fiberflow_backup.repository;
+
+import com.example.fiberflow_backup.enums.RollupScope;
+import com.example.fiberflow_backup.model.CapacityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CapacityRollupRepository extends JpaRepository<CapacityRollup, Long> {
+    List<CapacityRollup> findByScope(RollupScope scope);
+    long countByScope(RollupScope scope);
+    Optional<CapacityRollup> findByScopeAndScopeKey(RollupScope scope, String scopeKey);
+
+    // Applies a usage delta to the FDH, its region and the network rows in one statement
+    @Modifying
+    @Query("UPDATE CapacityRollup r SET r.usedPorts = r.usedPorts + :delta " +
+            "WHERE (r.scope = com.example.fiberflow_backup.enums.RollupScope.FDH AND r.scopeKey = :fdhKey) " +
+            "OR (r.scope = com.example.fiberflow_backup.enums.RollupScope.REGION AND r.scopeKey = :regionKey) " +
+            "OR r.scope = com.example.fiberflow_backup.enums.RollupScope.NETWORK")
+    int addUsedPorts(@Param("fdhKey") String fdhKey,
+                     @Param("regionKey") String regionKey,
+                     @Param("delta") int delta);
+
+    @Modifying
+    @Query("DELETE FROM CapacityRollup r")
+    void deleteAllRollups();
+}
@@ -1,12 +1,30 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.AttachmentRow;
+import com.example.fiberflow_backup.dto.CustomerCubeRow;
+import com.example.fiberflow_backup.dto.CustomerListRow;
+import com.example.fiberflow_backup.dto.CustomerTopologyRow;
+import com.example.fiberflow_backup.dto.DeploymentLeadCountsRow;
+import com.example.fiberflow_backup.dto.NeighborhoodCountRow;
+import com.example.fiberflow_backup.dto.NeighborhoodSplitterRow;
+import com.example.fiberflow_backup.dto.PendingCustomerRow;
+import com.example.fiberflow_backup.dto.PortOccupantRow;
+import com.example.fiberflow_backup.dto.UtilizationCountRow;
 import com.example.fiberflow_backup.enums.CustomerStatus;
 import com.example.fiberflow_backup.model.Customer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -14,4 +32,96 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     long countByCreatedAtAfter(LocalDateTime dateTime);
     List<Customer> findTop20ByOrderByCreatedAtDesc();
     List<Customer> findBySplitter_SplitterId(Long splitterId);  // ADD THIS
-}
\ No newline at end of file
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.CustomerTopologyRow(" +
+            "c.customerId, s.splitterId, c.name, c.plan, c.assignedPort, c.status) " +
+            "FROM Customer c LEFT JOIN c.splitter s ORDER BY c.customerId")
+    List<CustomerTopologyRow> findTopologyRows();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.CustomerTopologyRow(" +
+            "c.customerId, s.splitterId, c.name, c.plan, c.assignedPort, c.status) " +
+            "FROM Customer c LEFT JOIN c.splitter s WHERE c.updatedAt > :since ORDER BY c.customerId")
+    List<CustomerTopologyRow> findTopologyRowsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MAX(c.updatedAt) FROM Customer c")
+    LocalDateTime findLastUpdatedAt();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.CustomerCubeRow(" +
+            "c.customerId, s.splitterId, c.neighborhood, c.plan, c.status, c.connectionType) " +
+            "FROM Customer c LEFT JOIN c.splitter s ORDER BY c.customerId")
+    List<CustomerCubeRow> findCubeRows();
+
+    // Both filters are optional; each combination has an index ending in customer_id, so a page
+    // is read in order without sorting the matching rows
+    @Query(value = "SELECT new com.example.fiberflow_backup.dto.CustomerListRow(" +
+            "c.customerId, c.name, c.neighborhood, c.plan, c.status) FROM Customer c " +
+            "WHERE (:neighborhood IS NULL OR c.neighborhood = :neighborhood) " +
+            "AND (:status IS NULL OR c.status = :status) ORDER BY c.customerId",
+            countQuery = "SELECT COUNT(c) FROM Customer c " +
+                    "WHERE (:neighborhood IS NULL OR c.neighborhood = :neighborhood) " +
+                    "AND (:status IS NULL OR c.status = :status)")
+    Page<CustomerListRow> findListRows(@Param("neighborhood") String neighborhood,
+                                       @Param("status") CustomerStatus status,
+                                       Pageable pageable);
+
+    // Customer side of the deployment lead stats; asset counts come from AssetStatisticsService
+    @Query("SELECT new com.example.fiberflow_backup.dto.DeploymentLeadCountsRow(COUNT(c), " +
+            "SUM(CASE WHEN c.status = com.example.fiberflow_backup.enums.CustomerStatus.Pending THEN 1 ELSE 0 END)) " +
+            "FROM Customer c")
+    DeploymentLeadCountsRow findDeploymentLeadCounts();
+
+    // Largest neighborhoods first; limit with the pageable
+    @Query("SELECT new com.example.fiberflow_backup.dto.NeighborhoodCountRow(c.neighborhood, COUNT(c), " +
+            "SUM(CASE WHEN c.status = com.example.fiberflow_backup.enums.CustomerStatus.Active THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.status = com.example.fiberflow_backup.enums.CustomerStatus.Pending THEN 1 ELSE 0 END)) " +
+            "FROM Customer c WHERE c.neighborhood IS NOT NULL " +
+            "GROUP BY c.neighborhood ORDER BY COUNT(c) DESC, c.neighborhood")
+    List<NeighborhoodCountRow> findTopNeighborhoods(Pageable pageable);
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.NeighborhoodSplitterRow(c.neighborhood, s.splitterId) " +
+            "FROM Customer c JOIN c.splitter s WHERE c.neighborhood IS NOT NULL " +
+            "GROUP BY c.neighborhood, s.splitterId")
+    List<NeighborhoodSplitterRow> findNeighborhoodSplitters();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.UtilizationCountRow(c.neighborhood, " +
+            "SUM(CASE WHEN c.status = com.example.fiberflow_backup.enums.CustomerStatus.Active THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.status = com.example.fiberflow_backup.enums.CustomerStatus.Pending THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.splitter IS NOT NULL AND c.assignedPort IS NOT NULL THEN 1 ELSE 0 END)) " +
+            "FROM Customer c WHERE c.neighborhood IS NOT NULL GROUP BY c.neighborhood")
+    List<UtilizationCountRow> findNeighborhoodUtilizationRows();
+
+    // Port usage per FDH comes from the splitters; only the customer counts are taken here
+    @Query("SELECT new com.example.fiberflow_backup.dto.UtilizationCountRow(CAST(f.fdhId AS String), " +
+            "SUM(CASE WHEN c.status = com.example.fiberflow_backup.enums.CustomerStatus.Active THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.status = com.example.fiberflow_backup.enums.CustomerStatus.Pending THEN 1 ELSE 0 END), " +
+            "COUNT(c.assignedPort)) " +
+            "FROM Customer c JOIN c.splitter s JOIN s.fdh f GROUP BY f.fdhId")
+    List<UtilizationCountRow> findFdhUtilizationRows();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.PendingCustomerRow(c.customerId, c.neighborhood) " +
+            "FROM Customer c " +
+            "WHERE c.splitter IS NULL AND c.status = com.example.fiberflow_backup.enums.CustomerStatus.Pending " +
+            "ORDER BY c.customerId")
+    List<PendingCustomerRow> findPendingUnassignedRows();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.AttachmentRow(s.splitterId, c.createdAt) " +
+            "FROM Customer c JOIN c.splitter s " +
+            "WHERE c.assignedPort IS NOT NULL AND c.createdAt >= :since")
+    List<AttachmentRow> findAttachmentsSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.PortOccupantRow(s.splitterId, c.customerId, c.assignedPort) " +
+            "FROM Customer c JOIN c.splitter s ORDER BY s.splitterId, c.assignedPort")
+    List<PortOccupantRow> findPortOccupants();
+
+    @Query("SELECT c.assignedPort FROM Customer c " +
+            "WHERE c.splitter.splitterId = :splitterId AND c.assignedPort IS NOT NULL")
+    List<Integer> findAssignedPorts(@Param("splitterId") Long splitterId);
+
+    @Query("SELECT c.splitter.splitterId FROM Customer c WHERE c.customerId = :customerId")
+    Optional<Long> findSplitterIdOf(@Param("customerId") Long customerId);
+
+    // Locks rows in id order so concurrent bulk assignments cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Customer c WHERE c.customerId IN :customerIds ORDER BY c.customerId")
+    List<Customer> findAllByIdForUpdate(@Param("customerIds") Collection<Long> customerIds);
+}
@@ -0,0 +1,12 @@
+package com.example.fiberflow_backup.repository;
+
+import com.example.fiberflow_backup.model.DefragMove;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DefragMoveRepository extends JpaRepository<DefragMove, Long> {
+    List<DefragMove> findByPlan_PlanIdOrderByIdAsc(Long planId);
+}
@@ -0,0 +1,15 @@
+package com.example.fiberflow_backup.repository;
+
+import com.example.fiberflow_backup.enums.DefragPlanStatus;
+import com.example.fiberflow_backup.model.DefragPlan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DefragPlanRepository extends JpaRepository<DefragPlan, Long> {
+    Optional<DefragPlan> findFirstByOrderByPlanIdDesc();
+    List<DefragPlan> findByStatus(DefragPlanStatus status);
+}
@@ -1,9 +1,56 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.FDHCapacityRow;
+import com.example.fiberflow_backup.dto.FDHTopologyRow;
+import com.example.fiberflow_backup.dto.TopologyStreamRow;
 import com.example.fiberflow_backup.model.FDH;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface FDHRepository extends JpaRepository<FDH, Long> {
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.FDHTopologyRow(" +
+            "f.fdhId, h.headendId, f.name, f.location, f.region, f.maxPorts) " +
+            "FROM FDH f LEFT JOIN f.headend h ORDER BY f.fdhId")
+    List<FDHTopologyRow> findTopologyRows();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.FDHTopologyRow(" +
+            "f.fdhId, h.headendId, f.name, f.location, f.region, f.maxPorts) " +
+            "FROM FDH f LEFT JOIN f.headend h WHERE f.updatedAt > :since ORDER BY f.fdhId")
+    List<FDHTopologyRow> findTopologyRowsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MAX(f.updatedAt) FROM FDH f")
+    LocalDateTime findLastUpdatedAt();
+
+    // Flat FDH -> splitter -> customer rows in tree order. Integer.MIN_VALUE makes
+    // MySQL Connector/J stream the result set row by row instead of buffering it.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.fiberflow_backup.dto.TopologyStreamRow(" +
+            "f.fdhId, f.name, f.location, f.region, f.maxPorts, " +
+            "s.splitterId, s.model, s.portCapacity, s.usedPorts, s.location, " +
+            "c.customerId, c.name, c.plan, c.assignedPort, c.status) " +
+            "FROM FDH f " +
+            "LEFT JOIN Splitter s ON s.fdh = f " +
+            "LEFT JOIN Customer c ON c.splitter = s " +
+            "ORDER BY f.fdhId, s.splitterId, c.customerId")
+    Stream<TopologyStreamRow> streamTopologyRows();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.FDHCapacityRow(" +
+            "f.fdhId, f.name, f.region, COUNT(s), COALESCE(SUM(s.portCapacity), 0), COALESCE(SUM(s.usedPorts), 0)) " +
+            "FROM FDH f LEFT JOIN Splitter s ON s.fdh = f " +
+            "GROUP BY f.fdhId, f.name, f.region ORDER BY f.fdhId")
+    List<FDHCapacityRow> findCapacityRows();
 }
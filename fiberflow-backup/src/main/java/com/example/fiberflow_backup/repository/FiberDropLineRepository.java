@@ -1,9 +1,37 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.DropLineRow;
+import com.example.fiberflow_backup.dto.FaultSourceRow;
+import com.example.fiberflow_backup.dto.SurveyedDropRow;
+import com.example.fiberflow_backup.enums.LineStatus;
 import com.example.fiberflow_backup.model.FiberDropLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface FiberDropLineRepository extends JpaRepository<FiberDropLine, Long> {
+    List<FiberDropLine> findByToCustomer_CustomerIdInAndStatus(Collection<Long> customerIds, LineStatus status);
+
+    // Ordered by id so that the newest active line of a customer is applied last
+    @Query("SELECT new com.example.fiberflow_backup.dto.DropLineRow(l.lineId, l.toCustomer.customerId, l.lengthMeters) " +
+            "FROM FiberDropLine l " +
+            "WHERE l.status = com.example.fiberflow_backup.enums.LineStatus.Active AND l.toCustomer IS NOT NULL " +
+            "ORDER BY l.lineId")
+    List<DropLineRow> findActiveDropLineRows();
+
+    // Lines already laid or surveyed from a splitter to a customer that has no port yet
+    @Query("SELECT new com.example.fiberflow_backup.dto.SurveyedDropRow(c.customerId, s.splitterId, l.lengthMeters) " +
+            "FROM FiberDropLine l JOIN l.toCustomer c JOIN l.fromSplitter s " +
+            "WHERE l.status = com.example.fiberflow_backup.enums.LineStatus.Active AND c.splitter IS NULL " +
+            "ORDER BY l.lineId")
+    List<SurveyedDropRow> findSurveyedDropRowsForUnassigned();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.FaultSourceRow(l.lineId, c.customerId) " +
+            "FROM FiberDropLine l LEFT JOIN l.toCustomer c " +
+            "WHERE l.status = com.example.fiberflow_backup.enums.LineStatus.Disconnected")
+    List<FaultSourceRow> findDisconnectedLineRows();
 }
@@ -2,8 +2,17 @@ package com.example.fiberflow_backup.repository;
 
 import com.example.fiberflow_backup.model.Headend;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface HeadendRepository extends JpaRepository<Headend, Long> {
+
+    @Query("SELECT MAX(h.updatedAt) FROM Headend h")
+    LocalDateTime findLastUpdatedAt();
+
+    List<Headend> findByUpdatedAtAfter(LocalDateTime since);
 }
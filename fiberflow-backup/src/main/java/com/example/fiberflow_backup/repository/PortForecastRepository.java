@@ -0,0 +1,23 @@
+package com.example.fiberflow_backup.repository;
+
+import com.example.fiberflow_backup.enums.ForecastScope;
+import com.example.fiberflow_backup.model.PortForecast;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PortForecastRepository extends JpaRepository<PortForecast, Long> {
+    List<PortForecast> findByScope(ForecastScope scope);
+    Optional<PortForecast> findByScopeAndElementId(ForecastScope scope, Long elementId);
+
+    // Soonest exhaustion first; elements that never run out go last
+    @Query("SELECT f FROM PortForecast f WHERE f.scope = :scope " +
+            "ORDER BY f.daysToExhaustion ASC NULLS LAST, f.elementId")
+    List<PortForecast> findRiskRanking(@Param("scope") ForecastScope scope, Pageable pageable);
+}
@@ -1,12 +1,48 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
 import com.example.fiberflow_backup.model.Splitter;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SplitterRepository extends JpaRepository<Splitter, Long> {
     List<Splitter> findByFdh_FdhId(Long fdhId);  // ADD THIS
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.SplitterTopologyRow(" +
+            "s.splitterId, f.fdhId, s.model, s.portCapacity, s.usedPorts, s.location) " +
+            "FROM Splitter s LEFT JOIN s.fdh f ORDER BY s.splitterId")
+    List<SplitterTopologyRow> findTopologyRows();
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.SplitterTopologyRow(" +
+            "s.splitterId, f.fdhId, s.model, s.portCapacity, s.usedPorts, s.location) " +
+            "FROM Splitter s LEFT JOIN s.fdh f WHERE s.updatedAt > :since ORDER BY s.splitterId")
+    List<SplitterTopologyRow> findTopologyRowsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MAX(s.updatedAt) FROM Splitter s")
+    LocalDateTime findLastUpdatedAt();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Splitter s WHERE s.splitterId = :splitterId")
+    Optional<Splitter> findByIdForUpdate(@Param("splitterId") Long splitterId);
+
+    // Locks rows in id order so concurrent multi-splitter assignments cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Splitter s WHERE s.splitterId IN :splitterIds ORDER BY s.splitterId")
+    List<Splitter> findAllByIdForUpdate(@Param("splitterIds") Collection<Long> splitterIds);
+
+    @Query("SELECT COALESCE(SUM(s.portCapacity), 0) FROM Splitter s")
+    long sumPortCapacity();
+
+    @Query("SELECT COALESCE(SUM(s.usedPorts), 0) FROM Splitter s")
+    long sumUsedPorts();
 }
@@ -1,7 +1,9 @@
 package com.example.fiberflow_backup.repository;
 
+import com.example.fiberflow_backup.dto.OpenTicketRow;
 import com.example.fiberflow_backup.model.SupportTicket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -12,4 +14,9 @@ public interface SupportTicketRepository extends JpaRepository<SupportTicket, Lo
     List<SupportTicket> findTop20ByOrderByCreatedAtDesc();
     long countByStatus(String status);
     long countByResolvedAtAfter(LocalDateTime date);
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.OpenTicketRow(" +
+            "t.ticketId, t.customer.customerId, t.issue, t.priority, t.status, t.createdAt) " +
+            "FROM SupportTicket t WHERE t.status NOT IN ('Resolved', 'Closed')")
+    List<OpenTicketRow> findOpenTicketRows();
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.fiberflow_backup.repository;
+
+import com.example.fiberflow_backup.dto.UtilizationBucketRow;
+import com.example.fiberflow_backup.enums.BucketGranularity;
+import com.example.fiberflow_backup.enums.HeatmapScope;
+import com.example.fiberflow_backup.model.UtilizationBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UtilizationBucketRepository extends JpaRepository<UtilizationBucket, Long> {
+    List<UtilizationBucket> findByGranularityAndBucketStart(BucketGranularity granularity, LocalDateTime bucketStart);
+
+    @Query("SELECT new com.example.fiberflow_backup.dto.UtilizationBucketRow(" +
+            "b.scopeKey, b.bucketStart, b.totalPorts, b.usedPorts, b.activeCustomers, b.pendingCustomers) " +
+            "FROM UtilizationBucket b " +
+            "WHERE b.scope = :scope AND b.granularity = :granularity " +
+            "AND b.bucketStart >= :from AND b.bucketStart <= :to")
+    List<UtilizationBucketRow> findGrid(@Param("scope") HeatmapScope scope,
+                                        @Param("granularity") BucketGranularity granularity,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM UtilizationBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") BucketGranularity granularity, @Param("before") LocalDateTime before);
+}
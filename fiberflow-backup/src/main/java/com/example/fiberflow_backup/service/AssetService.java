@@ -1,16 +1,20 @@
 package com.example.fiberflow_backup.service;
 
+import com.example.fiberflow_backup.dto.AssetListRow;
 import com.example.fiberflow_backup.dto.AssetRequest;
+import com.example.fiberflow_backup.dto.AssetStatisticsDTO;
 import com.example.fiberflow_backup.dto.AssetUpdateRequest;
+import com.example.fiberflow_backup.dto.KeysetPagedResponse;
 import com.example.fiberflow_backup.model.Asset;
 
-import java.util.List;
 import java.util.Map;
 
 public interface AssetService {
-    List<Asset> getAllAssets();
+    KeysetPagedResponse<AssetListRow> getAssets(String type, String status, String location, String serialPrefix,
+                                                Long after, String afterSerial, int size);
     Asset getAssetById(Long id);
     Map<String, Long> getAssetStatistics();
+    AssetStatisticsDTO getAssetBreakdown();
     Asset createAsset(AssetRequest request);
     Asset updateAsset(Long id, AssetUpdateRequest request);
     void deleteAsset(Long id);
@@ -0,0 +1,7 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.dto.AssetStatisticsDTO;
+
+public interface AssetStatisticsService {
+    AssetStatisticsDTO getStatistics();
+}
@@ -0,0 +1,8 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.dto.AssignmentPlanDTO;
+
+public interface AssignmentOptimizerService {
+    AssignmentPlanDTO planPendingAssignments();
+    AssignmentPlanDTO applyPendingAssignments();
+}
@@ -0,0 +1,13 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.model.CapacityRollup;
+
+import java.util.List;
+
+public interface CapacityRollupService {
+    void applyUsedPortsDelta(Long fdhId, String region, int delta);
+    void rebuild();
+    List<CapacityRollup> getFDHRollups();
+    CapacityRollup getNetworkRollup();
+    long getFDHCount();
+}
@@ -0,0 +1,10 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.dto.DefragPlanDTO;
+
+public interface DefragService {
+    DefragPlanDTO generatePlan();
+    DefragPlanDTO getLatestPlan();
+    DefragPlanDTO getPlan(Long planId);
+    DefragPlanDTO executePlan(Long planId);
+}
@@ -3,13 +3,19 @@ package com.example.fiberflow_backup.service;
 import com.example.fiberflow_backup.dto.DeploymentLeadDashboardResponse;
 import com.example.fiberflow_backup.dto.AvailableAssetDTO;
 import com.example.fiberflow_backup.dto.AllocateAssetRequest;
+import com.example.fiberflow_backup.dto.AllocateNextAssetRequest;
+import com.example.fiberflow_backup.dto.AllocatedAssetDTO;
 import com.example.fiberflow_backup.dto.DeallocateAssetRequest;
+import com.example.fiberflow_backup.dto.BulkAllocateKitsRequest;
+import com.example.fiberflow_backup.dto.KitAllocationResultDTO;
 
 import java.util.List;
 
 public interface DeploymentLeadService {
-    DeploymentLeadDashboardResponse getDashboardData();
+    DeploymentLeadDashboardResponse getDashboardData(String neighborhood, String status, int page, int size);
     List<AvailableAssetDTO> getAvailableAssets(String assetType);
     void allocateAsset(AllocateAssetRequest request);
+    AllocatedAssetDTO allocateNextAsset(AllocateNextAssetRequest request);
     void deallocateAsset(DeallocateAssetRequest request);
+    KitAllocationResultDTO allocateKits(BulkAllocateKitsRequest request);
 }
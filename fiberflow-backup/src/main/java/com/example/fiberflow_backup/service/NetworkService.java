@@ -1,7 +1,22 @@
 package com.example.fiberflow_backup.service;
 
-import com.example.fiberflow_backup.dto.NetworkTopologyResponse;
+import com.example.fiberflow_backup.dto.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 
 public interface NetworkService {
     NetworkTopologyResponse getNetworkTopology();
+    void streamNetworkTopology(OutputStream out) throws IOException;
+    TopologyChangesResponse getTopologyChanges(Long since);
+    List<HeadendSummaryDTO> getHeadendSummaries();
+    PagedResponse<FDHSummaryDTO> getFDHs(Long headendId, String region, int page, int size);
+    PagedResponse<SplitterSummaryDTO> getSplitters(Long fdhId, int page, int size);
+    PagedResponse<CustomerInTopologyDTO> getSplitterCustomers(Long splitterId, int page, int size);
+    OutageImpactDTO getOutageImpact(String type, Long elementId);
+    PowerBudgetDTO getPowerBudget(Long customerId);
+    List<PowerBudgetDTO> getCustomersBelowMargin(Double thresholdDb, int limit);
+    SplitterSwapImpactDTO simulateSplitterSwap(SplitterSwapRequest request);
+    FaultSummaryDTO getFaultSummary();
 }
@@ -1,7 +1,13 @@
 package com.example.fiberflow_backup.service;
 
+import com.example.fiberflow_backup.dto.CubeQueryRequest;
+import com.example.fiberflow_backup.dto.CubeQueryResultDTO;
 import com.example.fiberflow_backup.dto.PlannerDashboardResponse;
 
+import java.util.Map;
+
 public interface PlannerService {
     PlannerDashboardResponse getPlannerDashboard();
+    CubeQueryResultDTO queryCustomerCube(CubeQueryRequest request);
+    Map<String, Map<String, Integer>> getCubeDimensions();
 }
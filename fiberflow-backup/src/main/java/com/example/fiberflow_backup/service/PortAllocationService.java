@@ -0,0 +1,17 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.dto.AssignPortRequest;
+import com.example.fiberflow_backup.dto.BulkAssignPortsRequest;
+import com.example.fiberflow_backup.dto.PortAssignmentDTO;
+import com.example.fiberflow_backup.model.DefragMove;
+
+import java.util.List;
+import java.util.Map;
+
+public interface PortAllocationService {
+    PortAssignmentDTO assignPort(AssignPortRequest request);
+    List<PortAssignmentDTO> assignPorts(BulkAssignPortsRequest request);
+    List<PortAssignmentDTO> assignPlanned(Map<Long, List<Long>> customerIdsBySplitter);
+    int moveCustomers(List<DefragMove> moves);
+    void releasePort(Long customerId);
+}
@@ -0,0 +1,11 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.dto.PortForecastDTO;
+
+import java.util.List;
+
+public interface PortForecastService {
+    int refreshForecasts();
+    List<PortForecastDTO> getRiskRanking(String scope, int limit);
+    PortForecastDTO getForecast(String scope, Long elementId);
+}
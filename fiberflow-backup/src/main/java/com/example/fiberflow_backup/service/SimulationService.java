@@ -0,0 +1,10 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.dto.SimulationResultDTO;
+import com.example.fiberflow_backup.dto.SimulationScenarioRequest;
+
+import java.util.List;
+
+public interface SimulationService {
+    List<SimulationResultDTO> runScenarios(List<SimulationScenarioRequest> scenarios);
+}
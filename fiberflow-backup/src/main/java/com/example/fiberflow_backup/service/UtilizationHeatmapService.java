@@ -0,0 +1,8 @@
+package com.example.fiberflow_backup.service;
+
+import com.example.fiberflow_backup.dto.UtilizationHeatmapDTO;
+
+public interface UtilizationHeatmapService {
+    int captureBuckets();
+    UtilizationHeatmapDTO getHeatmap(String scope, String granularity, int days);
+}
@@ -2,59 +2,51 @@ package com.example.fiberflow_backup.serviceimpl;
 
 import com.example.fiberflow_backup.dto.AdminDashboardResponse;
 import com.example.fiberflow_backup.dto.AdminDashboardResponse.DashboardStats;
+import com.example.fiberflow_backup.dto.AssetStatisticsDTO;
 import com.example.fiberflow_backup.dto.AuditLogDTO;
-import com.example.fiberflow_backup.enums.AssetType;
 import com.example.fiberflow_backup.enums.TaskStatus;
 import com.example.fiberflow_backup.repository.*;
 import com.example.fiberflow_backup.service.AdminService;
+import com.example.fiberflow_backup.service.AssetStatisticsService;
+import com.example.fiberflow_backup.topology.RecentAuditFeed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AdminServiceImpl implements AdminService {
 
     private final CustomerRepository customerRepository;
-    private final AssetRepository assetRepository;
+    private final AssetStatisticsService assetStatisticsService;
     private final DeploymentTaskRepository deploymentTaskRepository;
     private final TechnicianRepository technicianRepository;
-    private final AuditLogRepository auditLogRepository;
+    private final RecentAuditFeed recentAuditFeed;
 
     public AdminDashboardResponse getDashboardData() {
+        // Asset total and per-type counts come from one cached aggregate
+        AssetStatisticsDTO assetStatistics = assetStatisticsService.getStatistics();
+
         // Get statistics
         DashboardStats stats = new DashboardStats(
                 customerRepository.count(),
-                assetRepository.count(),
+                assetStatistics.getTotal(),
                 deploymentTaskRepository.countByStatus(TaskStatus.Scheduled),
                 technicianRepository.count()
         );
 
         // Get recent audit logs (last 10)
-        List<AuditLogDTO> recentLogs = auditLogRepository.findTop20ByOrderByTimestampDesc()
-                .stream()
-                .map(log -> new AuditLogDTO(
-                        log.getLogId(),
-                        log.getUser().getUsername(),
-                        log.getActionType(),
-                        log.getDescription(),
-                        log.getTimestamp()
-                ))
-                .collect(Collectors.toList());
+        List<AuditLogDTO> recentLogs = recentAuditFeed.getLatest(20);
 
         // Get asset summary by type
         Map<String, Long> assetSummary = new HashMap<>();
-        for (AssetType type : AssetType.values()) {
-            assetSummary.put(
-                    type.name().substring(0, 1).toLowerCase() +
-                            type.name().substring(1).replaceAll("([A-Z])", "$1"),
-                    assetRepository.countByAssetType(type)
-            );
-        }
+        assetStatistics.getByType().forEach((type, count) -> assetSummary.put(
+                type.substring(0, 1).toLowerCase() + type.substring(1),
+                count
+        ));
 
         return new AdminDashboardResponse(stats, recentLogs, assetSummary);
     }
@@ -1,7 +1,10 @@
 package com.example.fiberflow_backup.serviceimpl;
 
+import com.example.fiberflow_backup.dto.AssetListRow;
 import com.example.fiberflow_backup.dto.AssetRequest;
+import com.example.fiberflow_backup.dto.AssetStatisticsDTO;
 import com.example.fiberflow_backup.dto.AssetUpdateRequest;
+import com.example.fiberflow_backup.dto.KeysetPagedResponse;
 import com.example.fiberflow_backup.enums.AssetStatus;
 import com.example.fiberflow_backup.enums.AssetType;
 import com.example.fiberflow_backup.model.Asset;
@@ -11,7 +14,9 @@ import com.example.fiberflow_backup.repository.AssetRepository;
 import com.example.fiberflow_backup.repository.AuditLogRepository;
 import com.example.fiberflow_backup.repository.UserRepository;
 import com.example.fiberflow_backup.service.AssetService;
+import com.example.fiberflow_backup.service.AssetStatisticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,12 +29,50 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AssetServiceImpl implements AssetService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final AssetRepository assetRepository;
     private final AuditLogRepository auditLogRepository;
     private final UserRepository userRepository;
+    private final AssetStatisticsService assetStatisticsService;
+
+    /**
+     * One page of assets after the cursor, optionally filtered by type, status, exact location and
+     * serial number prefix. Pages are read in id order, except a serial prefix search which is
+     * read in serial number order and continues from {@code afterSerial}. One extra row is read to
+     * tell whether another page follows, so no count query is needed.
+     */
+    public KeysetPagedResponse<AssetListRow> getAssets(String type, String status, String location,
+                                                       String serialPrefix, Long after, String afterSerial,
+                                                       int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (after != null && after < 0) {
+            throw new RuntimeException("Cursor must not be negative");
+        }
 
-    public List<Asset> getAllAssets() {
-        return assetRepository.findAll();
+        AssetType assetType = parseType(type);
+        AssetStatus assetStatus = parseStatus(status);
+        String exactLocation = isBlank(location) ? null : location.trim();
+        boolean bySerial = !isBlank(serialPrefix);
+        List<AssetListRow> rows = bySerial
+                ? assetRepository.findListRowsBySerialAfter(
+                        escapeLike(serialPrefix.trim()) + "%",
+                        isBlank(afterSerial) ? null : afterSerial,
+                        assetType, assetStatus, exactLocation,
+                        PageRequest.of(0, size + 1))
+                : assetRepository.findListRowsAfter(
+                        after != null ? after : 0L,
+                        assetType, assetStatus, exactLocation,
+                        PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<AssetListRow> content = hasMore ? rows.subList(0, size) : rows;
+        AssetListRow last = hasMore ? content.get(content.size() - 1) : null;
+        Long nextCursor = last != null ? last.getAssetId() : null;
+        String nextSerialCursor = last != null && bySerial ? last.getSerialNumber() : null;
+        return new KeysetPagedResponse<>(content, size, nextCursor, nextSerialCursor, hasMore);
     }
 
     public Asset getAssetById(Long id) {
@@ -40,15 +83,47 @@ public class AssetServiceImpl implements AssetService {
     public Map<String, Long> getAssetStatistics() {
         Map<String, Long> stats = new HashMap<>();
 
-        for (AssetType type : AssetType.values()) {
-            String key = type.name().substring(0, 1).toLowerCase() +
-                    type.name().substring(1);
-            stats.put(key, assetRepository.countByAssetType(type));
-        }
+        assetStatisticsService.getStatistics().getByType().forEach((type, count) ->
+                stats.put(type.substring(0, 1).toLowerCase() + type.substring(1), count));
 
         return stats;
     }
 
+    public AssetStatisticsDTO getAssetBreakdown() {
+        return assetStatisticsService.getStatistics();
+    }
+
+    private AssetType parseType(String type) {
+        if (isBlank(type)) {
+            return null;
+        }
+        try {
+            return AssetType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown asset type: " + type);
+        }
+    }
+
+    private AssetStatus parseStatus(String status) {
+        if (isBlank(status)) {
+            return null;
+        }
+        try {
+            return AssetStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown asset status: " + status);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // '!' is the escape character declared in the listing query
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
     @Transactional
     public Asset createAsset(AssetRequest request) {
         // Check if serial number already exists
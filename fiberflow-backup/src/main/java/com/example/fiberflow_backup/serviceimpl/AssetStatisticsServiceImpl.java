@@ -0,0 +1,92 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.AssetCountRow;
+import com.example.fiberflow_backup.dto.AssetStatisticsDTO;
+import com.example.fiberflow_backup.dto.AssetStatisticsDTO.Cell;
+import com.example.fiberflow_backup.enums.AssetStatus;
+import com.example.fiberflow_backup.enums.AssetType;
+import com.example.fiberflow_backup.repository.AssetRepository;
+import com.example.fiberflow_backup.service.AssetStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asset counts for the admin, asset and deployment lead dashboards. One GROUP BY over type,
+ * status and location yields the whole matrix; the result is shared by all callers for a short
+ * TTL, so concurrent dashboards cost one query per TTL rather than one per count.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssetStatisticsServiceImpl implements AssetStatisticsService {
+
+    private final AssetRepository assetRepository;
+
+    @Value("${fiberflow.assets.stats-ttl-ms:5000}")
+    private long ttlMillis;
+
+    private record Snapshot(AssetStatisticsDTO statistics, long loadedAt) {}
+
+    private volatile Snapshot cached;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * Returns the cached statistics. Once they expire, one caller runs the query while the
+     * others keep getting the previous snapshot; only the very first callers wait.
+     */
+    public AssetStatisticsDTO getStatistics() {
+        Snapshot snapshot = cached;
+        if (snapshot != null && System.currentTimeMillis() - snapshot.loadedAt() < ttlMillis) {
+            return snapshot.statistics();
+        }
+        if (snapshot != null) {
+            if (!refreshLock.tryLock()) {
+                return snapshot.statistics();
+            }
+        } else {
+            refreshLock.lock();
+        }
+        try {
+            // Another caller may have refreshed it meanwhile
+            snapshot = cached;
+            if (snapshot == null || System.currentTimeMillis() - snapshot.loadedAt() >= ttlMillis) {
+                snapshot = new Snapshot(load(), System.currentTimeMillis());
+                cached = snapshot;
+            }
+            return snapshot.statistics();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private AssetStatisticsDTO load() {
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (AssetType type : AssetType.values()) {
+            byType.put(type.name(), 0L);
+        }
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (AssetStatus status : AssetStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+
+        long total = 0;
+        List<Cell> cells = new ArrayList<>();
+        for (AssetCountRow row : assetRepository.findAssetCounts()) {
+            long count = row.getCount().longValue();
+            total += count;
+            byType.merge(row.getAssetType().name(), count, Long::sum);
+            byStatus.merge(row.getStatus().name(), count, Long::sum);
+            cells.add(new Cell(row.getAssetType().name(), row.getStatus().name(), row.getLocation(), count));
+        }
+        return new AssetStatisticsDTO(total, Collections.unmodifiableMap(byType),
+                Collections.unmodifiableMap(byStatus), Collections.unmodifiableList(cells), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.AssignmentPlanDTO;
+import com.example.fiberflow_backup.dto.FDHTopologyRow;
+import com.example.fiberflow_backup.dto.NeighborhoodSplitterRow;
+import com.example.fiberflow_backup.dto.PendingCustomerRow;
+import com.example.fiberflow_backup.dto.PlannedAssignmentDTO;
+import com.example.fiberflow_backup.dto.PortAssignmentDTO;
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
+import com.example.fiberflow_backup.dto.SurveyedDropRow;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.FDHRepository;
+import com.example.fiberflow_backup.repository.FiberDropLineRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import com.example.fiberflow_backup.service.AssignmentOptimizerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Assigns every pending customer without a splitter to a splitter port.
+ * <p>
+ * There are no coordinates in the schema, so drop length is estimated: a surveyed drop line
+ * counts with its own length, a splitter already serving the customer's neighborhood counts as
+ * a short drop, and a splitter or FDH located in that neighborhood as a longer one. Anything
+ * else is out of reach and the customer stays pending.
+ * <p>
+ * Planning has two phases. Candidate splitters and their estimated drop lengths are computed
+ * for all customers in parallel with fork-join. A greedy pass then places the most constrained
+ * customers first on the candidate with the lowest drop length plus a penalty that grows with
+ * the FDH's utilization, so equally close splitters fill the emptier FDH first. No FDH is
+ * pushed past its {@code maxPorts}. The plan is applied in one transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssignmentOptimizerServiceImpl implements AssignmentOptimizerService {
+
+    // Customers per fork-join leaf task
+    private static final int CHUNK_SIZE = 1024;
+
+    private final CustomerRepository customerRepository;
+    private final SplitterRepository splitterRepository;
+    private final FDHRepository fdhRepository;
+    private final FiberDropLineRepository fiberDropLineRepository;
+    private final PortAllocationServiceImpl portAllocationServiceImpl;
+
+    @Value("${fiberflow.optimizer.same-neighborhood-drop-m:150}")
+    private double sameNeighborhoodDropMeters;
+
+    @Value("${fiberflow.optimizer.nearby-drop-m:400}")
+    private double nearbyDropMeters;
+
+    @Value("${fiberflow.optimizer.balance-weight-m:200}")
+    private double balanceWeightMeters;
+
+    @Value("${fiberflow.optimizer.max-candidates:64}")
+    private int maxCandidates;
+
+    /**
+     * Flat view of the splitters with free ports and their FDHs, indexed by position.
+     */
+    private static final class Network {
+        long[] splitterIds;
+        int[] splitterFdh;
+        int[] free;
+        Long[] fdhIds;
+        int[] fdhUsed;
+        int[] fdhCapacity;
+        int[] fdhMaxPorts;   // 0 = no limit
+        Map<Long, Integer> splitterIndex = new HashMap<>();
+        Map<String, int[]> servingSplitters = new HashMap<>();
+        Map<String, int[]> nearbySplitters = new HashMap<>();
+    }
+
+    private record Candidates(int[] splitters, double[] meters) {}
+
+    private record Plan(List<PendingCustomerRow> customers, Network network, int[] choice, double[] meters,
+                        long planningMillis) {}
+
+    public AssignmentPlanDTO planPendingAssignments() {
+        Plan plan = buildPlan();
+        return toDTO(plan, null);
+    }
+
+    public AssignmentPlanDTO applyPendingAssignments() {
+        Plan plan = buildPlan();
+
+        Map<Long, List<Long>> bySplitter = new TreeMap<>();
+        for (int i = 0; i < plan.customers().size(); i++) {
+            if (plan.choice()[i] >= 0) {
+                bySplitter.computeIfAbsent(plan.network().splitterIds[plan.choice()[i]], k -> new ArrayList<>())
+                        .add(plan.customers().get(i).getCustomerId());
+            }
+        }
+
+        Map<Long, PortAssignmentDTO> applied = new HashMap<>();
+        for (PortAssignmentDTO assignment : portAllocationServiceImpl.assignPlanned(bySplitter)) {
+            applied.put(assignment.getCustomerId(), assignment);
+        }
+        return toDTO(plan, applied);
+    }
+
+    // ---------------------------------------------------------------------
+    // Planning
+    // ---------------------------------------------------------------------
+
+    private Plan buildPlan() {
+        long started = System.currentTimeMillis();
+
+        List<PendingCustomerRow> customers = customerRepository.findPendingUnassignedRows();
+        Network network = loadNetwork();
+
+        Map<Long, SurveyedDropRow> surveyed = new HashMap<>();
+        for (SurveyedDropRow row : fiberDropLineRepository.findSurveyedDropRowsForUnassigned()) {
+            surveyed.put(row.getCustomerId(), row); // newest line wins
+        }
+
+        Candidates[] candidates = new Candidates[customers.size()];
+        ForkJoinPool.commonPool().invoke(new CandidateTask(customers, network, surveyed, candidates, 0, customers.size()));
+
+        int[] choice = new int[customers.size()];
+        double[] meters = new double[customers.size()];
+        Arrays.fill(choice, -1);
+        place(network, candidates, surveyed, customers, choice, meters);
+
+        return new Plan(customers, network, choice, meters, System.currentTimeMillis() - started);
+    }
+
+    private Network loadNetwork() {
+        Network network = new Network();
+
+        List<FDHTopologyRow> fdhs = fdhRepository.findTopologyRows();
+        Map<Long, Integer> fdhIndex = new HashMap<>();
+        network.fdhIds = new Long[fdhs.size()];
+        network.fdhUsed = new int[fdhs.size()];
+        network.fdhCapacity = new int[fdhs.size()];
+        network.fdhMaxPorts = new int[fdhs.size()];
+        for (int f = 0; f < fdhs.size(); f++) {
+            FDHTopologyRow fdh = fdhs.get(f);
+            fdhIndex.put(fdh.getFdhId(), f);
+            network.fdhIds[f] = fdh.getFdhId();
+            network.fdhMaxPorts[f] = fdh.getMaxPorts() != null && fdh.getMaxPorts() > 0 ? fdh.getMaxPorts() : 0;
+        }
+
+        // Only splitters hanging off an FDH with a free port can take customers
+        List<SplitterTopologyRow> usable = new ArrayList<>();
+        for (SplitterTopologyRow splitter : splitterRepository.findTopologyRows()) {
+            Integer f = splitter.getFdhId() != null ? fdhIndex.get(splitter.getFdhId()) : null;
+            if (f == null) {
+                continue;
+            }
+            int capacity = splitter.getPortCapacity() != null ? splitter.getPortCapacity() : 0;
+            int used = splitter.getUsedPorts() != null ? splitter.getUsedPorts() : 0;
+            network.fdhUsed[f] += used;
+            network.fdhCapacity[f] += capacity;
+            if (capacity > used) {
+                usable.add(splitter);
+            }
+        }
+        for (int f = 0; f < fdhs.size(); f++) {
+            if (network.fdhMaxPorts[f] > 0) {
+                network.fdhCapacity[f] = network.fdhMaxPorts[f];
+            }
+        }
+
+        network.splitterIds = new long[usable.size()];
+        network.splitterFdh = new int[usable.size()];
+        network.free = new int[usable.size()];
+        Map<String, List<Integer>> nearby = new HashMap<>();
+        for (int s = 0; s < usable.size(); s++) {
+            SplitterTopologyRow splitter = usable.get(s);
+            int f = fdhIndex.get(splitter.getFdhId());
+            network.splitterIds[s] = splitter.getSplitterId();
+            network.splitterFdh[s] = f;
+            network.free[s] = splitter.getPortCapacity() - (splitter.getUsedPorts() != null ? splitter.getUsedPorts() : 0);
+            network.splitterIndex.put(splitter.getSplitterId(), s);
+
+            FDHTopologyRow fdh = fdhs.get(f);
+            for (String place : new String[]{splitter.getLocation(), fdh.getLocation(), fdh.getRegion()}) {
+                String key = key(place);
+                if (key != null) {
+                    List<Integer> list = nearby.computeIfAbsent(key, k -> new ArrayList<>());
+                    if (list.isEmpty() || list.get(list.size() - 1) != s) {
+                        list.add(s);
+                    }
+                }
+            }
+        }
+        nearby.forEach((key, list) -> network.nearbySplitters.put(key, toArray(list)));
+
+        Map<String, List<Integer>> serving = new HashMap<>();
+        for (NeighborhoodSplitterRow row : customerRepository.findNeighborhoodSplitters()) {
+            Integer s = network.splitterIndex.get(row.getSplitterId());
+            String key = key(row.getNeighborhood());
+            if (s != null && key != null) {
+                serving.computeIfAbsent(key, k -> new ArrayList<>()).add(s);
+            }
+        }
+        serving.forEach((key, list) -> network.servingSplitters.put(key, toArray(list)));
+
+        return network;
+    }
+
+    /**
+     * Computes the candidate splitters of a range of customers, splitting the range in half
+     * until it is small enough to do directly.
+     */
+    private final class CandidateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<PendingCustomerRow> customers;
+        private final Network network;
+        private final Map<Long, SurveyedDropRow> surveyed;
+        private final Candidates[] out;
+        private final int from;
+        private final int to;
+
+        CandidateTask(List<PendingCustomerRow> customers, Network network, Map<Long, SurveyedDropRow> surveyed,
+                      Candidates[] out, int from, int to) {
+            this.customers = customers;
+            this.network = network;
+            this.surveyed = surveyed;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    out[i] = candidatesFor(customers.get(i), network, surveyed.get(customers.get(i).getCustomerId()));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new CandidateTask(customers, network, surveyed, out, from, mid),
+                    new CandidateTask(customers, network, surveyed, out, mid, to));
+        }
+    }
+
+    private Candidates candidatesFor(PendingCustomerRow customer, Network network, SurveyedDropRow surveyed) {
+        Map<Integer, Double> best = new HashMap<>();
+        String key = key(customer.getNeighborhood());
+        if (key != null) {
+            for (int s : network.nearbySplitters.getOrDefault(key, new int[0])) {
+                best.merge(s, nearbyDropMeters, Math::min);
+            }
+            for (int s : network.servingSplitters.getOrDefault(key, new int[0])) {
+                best.merge(s, sameNeighborhoodDropMeters, Math::min);
+            }
+        }
+        if (surveyed != null) {
+            Integer s = network.splitterIndex.get(surveyed.getSplitterId());
+            if (s != null) {
+                double meters = surveyed.getLengthMeters() != null
+                        ? surveyed.getLengthMeters().doubleValue() : sameNeighborhoodDropMeters;
+                best.put(s, meters);
+            }
+        }
+
+        // Shortest drops first; among equals, the splitters with the most room
+        Integer[] order = best.keySet().toArray(new Integer[0]);
+        Arrays.sort(order, (a, b) -> {
+            int byMeters = Double.compare(best.get(a), best.get(b));
+            return byMeters != 0 ? byMeters : Integer.compare(network.free[b], network.free[a]);
+        });
+        int size = Math.min(order.length, maxCandidates);
+        int[] splitters = new int[size];
+        double[] meters = new double[size];
+        for (int i = 0; i < size; i++) {
+            splitters[i] = order[i];
+            meters[i] = best.get(order[i]);
+        }
+        return new Candidates(splitters, meters);
+    }
+
+    /**
+     * Greedy placement. Customers with a surveyed drop go first, then those with the fewest
+     * candidates, then the oldest. Each takes the candidate with the lowest drop length plus
+     * FDH load penalty that still has a free port.
+     */
+    private void place(Network network, Candidates[] candidates, Map<Long, SurveyedDropRow> surveyed,
+                       List<PendingCustomerRow> customers, int[] choice, double[] meters) {
+        int[] free = network.free.clone();
+        int[] fdhUsed = network.fdhUsed.clone();
+
+        Integer[] order = new Integer[customers.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            boolean surveyedA = surveyed.containsKey(customers.get(a).getCustomerId());
+            boolean surveyedB = surveyed.containsKey(customers.get(b).getCustomerId());
+            if (surveyedA != surveyedB) {
+                return surveyedA ? -1 : 1;
+            }
+            int bySize = Integer.compare(candidates[a].splitters().length, candidates[b].splitters().length);
+            return bySize != 0 ? bySize : Integer.compare(a, b);
+        });
+
+        for (int i : order) {
+            Candidates c = candidates[i];
+            int bestSplitter = -1;
+            double bestScore = Double.MAX_VALUE;
+            double bestMeters = 0;
+            for (int k = 0; k < c.splitters().length; k++) {
+                int s = c.splitters()[k];
+                int f = network.splitterFdh[s];
+                if (free[s] <= 0 || (network.fdhMaxPorts[f] > 0 && fdhUsed[f] >= network.fdhMaxPorts[f])) {
+                    continue;
+                }
+                double utilization = network.fdhCapacity[f] > 0 ? (fdhUsed[f] + 1) / (double) network.fdhCapacity[f] : 1.0;
+                double score = c.meters()[k] + balanceWeightMeters * utilization;
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestSplitter = s;
+                    bestMeters = c.meters()[k];
+                }
+            }
+            if (bestSplitter >= 0) {
+                choice[i] = bestSplitter;
+                meters[i] = bestMeters;
+                free[bestSplitter]--;
+                fdhUsed[network.splitterFdh[bestSplitter]]++;
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    /**
+     * Builds the response. With {@code applied} null this is a preview; otherwise only the
+     * customers the transaction actually attached count as assigned.
+     */
+    private AssignmentPlanDTO toDTO(Plan plan, Map<Long, PortAssignmentDTO> applied) {
+        List<PlannedAssignmentDTO> assignments = new ArrayList<>();
+        List<Long> unassigned = new ArrayList<>();
+        double totalMeters = 0;
+
+        for (int i = 0; i < plan.customers().size(); i++) {
+            Long customerId = plan.customers().get(i).getCustomerId();
+            int s = plan.choice()[i];
+            PortAssignmentDTO done = applied != null ? applied.get(customerId) : null;
+            if (s < 0 || (applied != null && done == null)) {
+                unassigned.add(customerId);
+                continue;
+            }
+            Network network = plan.network();
+            assignments.add(new PlannedAssignmentDTO(
+                    customerId,
+                    network.splitterIds[s],
+                    network.fdhIds[network.splitterFdh[s]],
+                    plan.meters()[i],
+                    done != null ? done.getAssignedPort() : null
+            ));
+            totalMeters += plan.meters()[i];
+        }
+
+        return new AssignmentPlanDTO(
+                applied != null,
+                plan.customers().size(),
+                assignments.size(),
+                unassigned.size(),
+                totalMeters,
+                assignments.isEmpty() ? 0.0 : totalMeters / assignments.size(),
+                plan.planningMillis(),
+                assignments,
+                unassigned
+        );
+    }
+
+    private static String key(String place) {
+        if (place == null || place.isBlank()) {
+            return null;
+        }
+        return place.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.FDHCapacityRow;
+import com.example.fiberflow_backup.dto.FDHTopologyRow;
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
+import com.example.fiberflow_backup.enums.RollupScope;
+import com.example.fiberflow_backup.model.CapacityRollup;
+import com.example.fiberflow_backup.repository.CapacityRollupRepository;
+import com.example.fiberflow_backup.repository.FDHRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import com.example.fiberflow_backup.service.CapacityRollupService;
+import com.example.fiberflow_backup.topology.FDHChangedEvent;
+import com.example.fiberflow_backup.topology.SplitterChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps precomputed port capacity totals per FDH, per region and for the whole network
+ * in {@code capacity_rollups}, so dashboards read a handful of rows instead of every splitter.
+ * <p>
+ * Usage deltas are applied inside the writer's transaction, so the rollups commit or roll
+ * back together with the splitter change that caused them. Structural changes (splitters or
+ * FDHs added or removed, port capacity edits, splitters moved between FDHs, FDH name or region
+ * edits) are recognised from the change events against the shapes seen at the last rebuild,
+ * and trigger one rebuild after the writing transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class CapacityRollupServiceImpl implements CapacityRollupService {
+
+    public static final String NETWORK_KEY = "ALL";
+    public static final String UNASSIGNED_REGION = "Unassigned";
+
+    private final CapacityRollupRepository capacityRollupRepository;
+    private final FDHRepository fdhRepository;
+    private final SplitterRepository splitterRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private record SplitterShape(Long fdhId, Integer portCapacity) {}
+
+    private record FdhShape(String name, String region) {}
+
+    // What the rollups were last computed from; replaced wholesale by every rebuild
+    private volatile Map<Long, SplitterShape> splitterShapes = Map.of();
+    private volatile Map<Long, FdhShape> fdhShapes = Map.of();
+
+    // Bound to a transaction once it has a rebuild queued for after commit
+    private final Object rebuildKey = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeRollups() {
+        if (capacityRollupRepository.findByScopeAndScopeKey(RollupScope.NETWORK, NETWORK_KEY).isEmpty()) {
+            rebuild();
+        } else {
+            loadShapes();
+        }
+    }
+
+    // Runs synchronously while the writer flushes, so the rebuild can be tied to its commit
+    @EventListener
+    public void onSplitterChanged(SplitterChangedEvent event) {
+        SplitterShape known = splitterShapes.get(event.splitterId());
+        boolean changed = event.removed()
+                ? known != null
+                : !new SplitterShape(event.fdhId(), event.portCapacity()).equals(known);
+        if (changed) {
+            rebuildAfterCommit();
+        }
+    }
+
+    @EventListener
+    public void onFdhChanged(FDHChangedEvent event) {
+        FdhShape known = fdhShapes.get(event.fdhId());
+        boolean changed = event.removed()
+                ? known != null
+                : !new FdhShape(event.name(), event.region()).equals(known);
+        if (changed) {
+            rebuildAfterCommit();
+        }
+    }
+
+    /**
+     * Queues one rebuild per transaction, however many structural events it raises. Without a
+     * transaction the rebuild runs straight away.
+     */
+    private void rebuildAfterCommit() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            template.executeWithoutResult(status -> rebuild());
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(rebuildKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(rebuildKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The writer's transaction is finished; the rebuild needs its own
+                template.executeWithoutResult(status -> rebuild());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(rebuildKey);
+            }
+        });
+    }
+
+    /**
+     * Adds a change in used ports to the FDH, region and network rows. Call it last in the
+     * transaction: the network row is shared by every writer and stays locked until commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyUsedPortsDelta(Long fdhId, String region, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        String fdhKey = fdhId != null ? String.valueOf(fdhId) : null;
+        String regionKey = fdhId != null ? regionKey(region) : null;
+        int expected = fdhId != null ? 3 : 1;
+
+        int updated = capacityRollupRepository.addUsedPorts(fdhKey, regionKey, delta);
+        if (updated != expected) {
+            // A row is missing (e.g. an FDH created outside the application); recompute everything
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes every rollup row so that drift from changes made outside the application, or
+     * from a lost delta, does not outlive the night.
+     */
+    @Scheduled(cron = "${fiberflow.capacity.reconcile-cron:0 15 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes every rollup row from the splitter table with one grouped query.
+     * <p>
+     * The rollup rows are deleted first: that locks them before the splitter aggregates are read,
+     * so a writer's {@link #applyUsedPortsDelta} either committed before the read snapshot is taken
+     * or waits for this rebuild and lands on the recomputed rows.
+     */
+    @Transactional
+    public void rebuild() {
+        capacityRollupRepository.deleteAllRollups();
+        List<FDHCapacityRow> rows = fdhRepository.findCapacityRows();
+
+        List<CapacityRollup> rollups = new ArrayList<>(rows.size());
+        Map<String, CapacityRollup> regions = new TreeMap<>();
+        for (FDHCapacityRow row : rows) {
+            String region = regionKey(row.getRegion());
+            int splitters = row.getSplitterCount().intValue();
+            int totalPorts = row.getTotalPorts().intValue();
+            int usedPorts = row.getUsedPorts().intValue();
+
+            rollups.add(new CapacityRollup(null, RollupScope.FDH, String.valueOf(row.getFdhId()),
+                    row.getName(), region, splitters, totalPorts, usedPorts));
+
+            CapacityRollup regionRollup = regions.computeIfAbsent(region,
+                    key -> new CapacityRollup(null, RollupScope.REGION, key, key, key, 0, 0, 0));
+            regionRollup.setSplitterCount(regionRollup.getSplitterCount() + splitters);
+            regionRollup.setTotalPorts(regionRollup.getTotalPorts() + totalPorts);
+            regionRollup.setUsedPorts(regionRollup.getUsedPorts() + usedPorts);
+        }
+        rollups.addAll(regions.values());
+
+        // Network totals include splitters not yet mounted in an FDH
+        rollups.add(new CapacityRollup(null, RollupScope.NETWORK, NETWORK_KEY, "Network", null,
+                (int) splitterRepository.count(),
+                (int) splitterRepository.sumPortCapacity(),
+                (int) splitterRepository.sumUsedPorts()));
+
+        capacityRollupRepository.saveAll(rollups);
+        loadShapes();
+    }
+
+    private void loadShapes() {
+        Map<Long, FdhShape> fdhs = new HashMap<>();
+        for (FDHTopologyRow row : fdhRepository.findTopologyRows()) {
+            fdhs.put(row.getFdhId(), new FdhShape(row.getName(), row.getRegion()));
+        }
+        Map<Long, SplitterShape> splitters = new HashMap<>();
+        for (SplitterTopologyRow row : splitterRepository.findTopologyRows()) {
+            splitters.put(row.getSplitterId(), new SplitterShape(row.getFdhId(), row.getPortCapacity()));
+        }
+        fdhShapes = fdhs;
+        splitterShapes = splitters;
+    }
+
+    public List<CapacityRollup> getFDHRollups() {
+        List<CapacityRollup> rollups = capacityRollupRepository.findByScope(RollupScope.FDH);
+        rollups.sort(Comparator.comparing(rollup -> Long.valueOf(rollup.getScopeKey())));
+        return rollups;
+    }
+
+    public CapacityRollup getNetworkRollup() {
+        return capacityRollupRepository.findByScopeAndScopeKey(RollupScope.NETWORK, NETWORK_KEY)
+                .orElseGet(() -> new CapacityRollup(null, RollupScope.NETWORK, NETWORK_KEY, "Network", null, 0, 0, 0));
+    }
+
+    public long getFDHCount() {
+        return capacityRollupRepository.countByScope(RollupScope.FDH);
+    }
+
+    private static String regionKey(String region) {
+        return region != null ? region : UNASSIGNED_REGION;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.DefragMoveDTO;
+import com.example.fiberflow_backup.dto.DefragPlanDTO;
+import com.example.fiberflow_backup.dto.PortOccupantRow;
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
+import com.example.fiberflow_backup.enums.DefragPlanStatus;
+import com.example.fiberflow_backup.model.DefragMove;
+import com.example.fiberflow_backup.model.DefragPlan;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.DefragMoveRepository;
+import com.example.fiberflow_backup.repository.DefragPlanRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import com.example.fiberflow_backup.service.DefragService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Plans splitter port consolidation so that whole splitters become free.
+ * <p>
+ * Customers are only re-patched between splitters of the same FDH, since that is work in one
+ * cabinet. Within an FDH the least-used splitters are emptied first, as they free a splitter
+ * with the fewest moves, for as long as the remaining partly used splitters can absorb their
+ * customers. Splitters that are already empty stay empty. FDHs are planned independently and
+ * in parallel.
+ * <p>
+ * Plans are stored for review and executed as one all-or-nothing batch. Generating a plan
+ * supersedes any older draft.
+ */
+@Service
+@RequiredArgsConstructor
+public class DefragServiceImpl implements DefragService {
+
+    private final SplitterRepository splitterRepository;
+    private final CustomerRepository customerRepository;
+    private final DefragPlanRepository defragPlanRepository;
+    private final DefragMoveRepository defragMoveRepository;
+    private final PortAllocationServiceImpl portAllocationServiceImpl;
+
+    private static final class SplitterPorts {
+        final long splitterId;
+        final int capacity;
+        final List<PortOccupantRow> occupants = new ArrayList<>();
+        boolean consistent;
+
+        SplitterPorts(long splitterId, int capacity) {
+            this.splitterId = splitterId;
+            this.capacity = capacity;
+        }
+
+        int used() {
+            return occupants.size();
+        }
+
+        int free() {
+            return capacity - occupants.size();
+        }
+    }
+
+    private record FdhPlan(List<DefragMove> moves, List<Long> freedSplitterIds, int portsFreed) {}
+
+    @Scheduled(cron = "${fiberflow.defrag.cron:0 0 4 * * SUN}")
+    @Transactional
+    public DefragPlanDTO generatePlan() {
+        Map<Long, List<SplitterPorts>> byFdh = loadPorts();
+
+        List<FdhPlan> fdhPlans = byFdh.entrySet().parallelStream()
+                .map(e -> planFdh(e.getKey(), e.getValue()))
+                .filter(p -> !p.moves().isEmpty())
+                .collect(Collectors.toList());
+
+        for (DefragPlan draft : defragPlanRepository.findByStatus(DefragPlanStatus.Draft)) {
+            draft.setStatus(DefragPlanStatus.Superseded);
+            defragPlanRepository.save(draft);
+        }
+
+        DefragPlan plan = new DefragPlan();
+        plan.setMoveCount(fdhPlans.stream().mapToInt(p -> p.moves().size()).sum());
+        plan.setSplittersFreed(fdhPlans.stream().mapToInt(p -> p.freedSplitterIds().size()).sum());
+        plan.setPortsFreed(fdhPlans.stream().mapToInt(FdhPlan::portsFreed).sum());
+        plan = defragPlanRepository.save(plan);
+
+        List<DefragMove> moves = new ArrayList<>(plan.getMoveCount());
+        for (FdhPlan fdhPlan : fdhPlans) {
+            for (DefragMove move : fdhPlan.moves()) {
+                move.setPlan(plan);
+                moves.add(move);
+            }
+        }
+        defragMoveRepository.saveAll(moves);
+
+        return toDTO(plan, moves);
+    }
+
+    public DefragPlanDTO getLatestPlan() {
+        DefragPlan plan = defragPlanRepository.findFirstByOrderByPlanIdDesc()
+                .orElseThrow(() -> new RuntimeException("No defragmentation plan has been generated yet"));
+        return toDTO(plan, defragMoveRepository.findByPlan_PlanIdOrderByIdAsc(plan.getPlanId()));
+    }
+
+    public DefragPlanDTO getPlan(Long planId) {
+        DefragPlan plan = defragPlanRepository.findById(planId)
+                .orElseThrow(() -> new RuntimeException("Defragmentation plan not found"));
+        return toDTO(plan, defragMoveRepository.findByPlan_PlanIdOrderByIdAsc(planId));
+    }
+
+    @Transactional
+    public DefragPlanDTO executePlan(Long planId) {
+        DefragPlan plan = defragPlanRepository.findById(planId)
+                .orElseThrow(() -> new RuntimeException("Defragmentation plan not found"));
+        if (plan.getStatus() != DefragPlanStatus.Draft) {
+            throw new RuntimeException("Plan " + planId + " is " + plan.getStatus().getDescription().toLowerCase() +
+                    " and cannot be executed");
+        }
+
+        List<DefragMove> moves = defragMoveRepository.findByPlan_PlanIdOrderByIdAsc(planId);
+        try {
+            portAllocationServiceImpl.moveCustomers(moves);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Plan " + planId + " is out of date, generate a new one: " + e.getMessage());
+        }
+
+        plan.setStatus(DefragPlanStatus.Executed);
+        plan.setExecutedAt(LocalDateTime.now());
+        defragPlanRepository.save(plan);
+
+        return toDTO(plan, moves);
+    }
+
+    // ---------------------------------------------------------------------
+    // Planning
+    // ---------------------------------------------------------------------
+
+    private Map<Long, List<SplitterPorts>> loadPorts() {
+        Map<Long, SplitterPorts> splitters = new HashMap<>();
+        Map<Long, Integer> usedPorts = new HashMap<>();
+        Map<Long, List<SplitterPorts>> byFdh = new HashMap<>();
+        for (SplitterTopologyRow row : splitterRepository.findTopologyRows()) {
+            if (row.getFdhId() == null || row.getPortCapacity() == null || row.getPortCapacity() <= 0) {
+                continue;
+            }
+            SplitterPorts ports = new SplitterPorts(row.getSplitterId(), row.getPortCapacity());
+            splitters.put(row.getSplitterId(), ports);
+            usedPorts.put(row.getSplitterId(), row.getUsedPorts() != null ? row.getUsedPorts() : 0);
+            byFdh.computeIfAbsent(row.getFdhId(), k -> new ArrayList<>()).add(ports);
+        }
+
+        for (PortOccupantRow row : customerRepository.findPortOccupants()) {
+            SplitterPorts ports = splitters.get(row.getSplitterId());
+            if (ports != null) {
+                ports.occupants.add(row);
+            }
+        }
+
+        // Only plan around splitters whose customers account for every used port
+        for (SplitterPorts ports : splitters.values()) {
+            ports.consistent = ports.used() == usedPorts.get(ports.splitterId) &&
+                    ports.occupants.stream().allMatch(o -> o.getAssignedPort() != null &&
+                            o.getAssignedPort() >= 1 && o.getAssignedPort() <= ports.capacity);
+        }
+        return byFdh;
+    }
+
+    private FdhPlan planFdh(Long fdhId, List<SplitterPorts> splitters) {
+        // Partly or fully used splitters take part; empty ones are already free
+        List<SplitterPorts> active = splitters.stream()
+                .filter(s -> s.consistent && s.used() > 0)
+                .sorted(Comparator.comparingInt(SplitterPorts::used)
+                        .thenComparing(Comparator.comparingInt((SplitterPorts s) -> s.capacity).reversed())
+                        .thenComparingLong(s -> s.splitterId))
+                .collect(Collectors.toList());
+
+        int supply = active.stream().mapToInt(SplitterPorts::free).sum();
+        int demand = 0;
+        LinkedHashSet<SplitterPorts> emptied = new LinkedHashSet<>();
+        for (SplitterPorts candidate : active) {
+            // Emptying it moves its customers out and takes its free ports out of the pool
+            if (demand + candidate.used() <= supply - candidate.free()) {
+                emptied.add(candidate);
+                supply -= candidate.free();
+                demand += candidate.used();
+            } else if (candidate.used() > supply - demand) {
+                break;
+            }
+        }
+        if (emptied.isEmpty()) {
+            return new FdhPlan(List.of(), List.of(), 0);
+        }
+
+        // Fill the fullest receivers first so the leftover free ports stay together
+        List<SplitterPorts> receivers = active.stream()
+                .filter(s -> !emptied.contains(s) && s.free() > 0)
+                .sorted(Comparator.comparingInt(SplitterPorts::free).thenComparingLong(s -> s.splitterId))
+                .collect(Collectors.toList());
+
+        List<DefragMove> moves = new ArrayList<>(demand);
+        int r = 0;
+        Deque<Integer> freePorts = freePorts(receivers.get(0));
+        for (SplitterPorts donor : emptied) {
+            for (PortOccupantRow occupant : donor.occupants) {
+                while (freePorts.isEmpty()) {
+                    freePorts = freePorts(receivers.get(++r));
+                }
+                DefragMove move = new DefragMove();
+                move.setFdhId(fdhId);
+                move.setCustomerId(occupant.getCustomerId());
+                move.setFromSplitterId(donor.splitterId);
+                move.setFromPort(occupant.getAssignedPort());
+                move.setToSplitterId(receivers.get(r).splitterId);
+                move.setToPort(freePorts.poll());
+                moves.add(move);
+            }
+        }
+
+        List<Long> freed = emptied.stream().map(s -> s.splitterId).collect(Collectors.toList());
+        int portsFreed = emptied.stream().mapToInt(s -> s.capacity).sum();
+        return new FdhPlan(moves, freed, portsFreed);
+    }
+
+    private static Deque<Integer> freePorts(SplitterPorts splitter) {
+        boolean[] used = new boolean[splitter.capacity + 1];
+        for (PortOccupantRow occupant : splitter.occupants) {
+            used[occupant.getAssignedPort()] = true;
+        }
+        Deque<Integer> free = new ArrayDeque<>();
+        for (int port = 1; port <= splitter.capacity; port++) {
+            if (!used[port]) {
+                free.add(port);
+            }
+        }
+        return free;
+    }
+
+    private DefragPlanDTO toDTO(DefragPlan plan, List<DefragMove> moves) {
+        List<DefragMoveDTO> moveDTOs = new ArrayList<>(moves.size());
+        LinkedHashSet<Long> freed = new LinkedHashSet<>();
+        for (DefragMove move : moves) {
+            moveDTOs.add(new DefragMoveDTO(move.getFdhId(), move.getCustomerId(), move.getFromSplitterId(),
+                    move.getFromPort(), move.getToSplitterId(), move.getToPort()));
+            freed.add(move.getFromSplitterId());
+        }
+        return new DefragPlanDTO(
+                plan.getPlanId(),
+                plan.getStatus().name(),
+                plan.getCreatedAt(),
+                plan.getExecutedAt(),
+                plan.getMoveCount(),
+                plan.getSplittersFreed(),
+                plan.getPortsFreed(),
+                new ArrayList<>(freed),
+                moveDTOs
+        );
+    }
+}
@@ -1,94 +1,217 @@
 package com.example.fiberflow_backup.serviceimpl;
 
 import com.example.fiberflow_backup.dto.*;
+import com.example.fiberflow_backup.dto.BulkAllocateKitsRequest.KitRequest;
 import com.example.fiberflow_backup.dto.DeploymentLeadDashboardResponse.DeploymentLeadStats;
+import com.example.fiberflow_backup.dto.KitAllocationResultDTO.KitResult;
 import com.example.fiberflow_backup.enums.AssetStatus;
 import com.example.fiberflow_backup.enums.AssetType;
+import com.example.fiberflow_backup.enums.AuditCategory;
 import com.example.fiberflow_backup.enums.CustomerStatus;
 import com.example.fiberflow_backup.model.*;
 import com.example.fiberflow_backup.repository.*;
+import com.example.fiberflow_backup.service.AssetStatisticsService;
 import com.example.fiberflow_backup.service.DeploymentLeadService;
+import com.example.fiberflow_backup.topology.AssetChangedEvent;
+import com.example.fiberflow_backup.topology.AuditLoggedEvent;
+import com.example.fiberflow_backup.topology.AvailableAssetPool;
+import com.example.fiberflow_backup.topology.AvailableAssetPool.PooledAsset;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DeploymentLeadServiceImpl implements DeploymentLeadService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_KITS = 5000;
+    private static final int MAX_CLAIM_ATTEMPTS = 32;
+    private static final String KIT_ACTION = "ASSET_KIT_ALLOCATED";
+
     private final CustomerRepository customerRepository;
     private final AssetRepository assetRepository;
     private final AssignedAssetsRepository assignedAssetsRepository;
     private final AuditLogRepository auditLogRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailableAssetPool availableAssetPool;
+    private final AssetStatisticsService assetStatisticsService;
 
-    public DeploymentLeadDashboardResponse getDashboardData() {
-        // Calculate stats
-        long totalCustomers = customerRepository.count();
-        long assetsAllocated = assetRepository.countByStatus(AssetStatus.Assigned);
-        long availableAssets = assetRepository.countByStatus(AssetStatus.Available);
-        long pendingAllocations = customerRepository.countByStatus(CustomerStatus.Pending);
+    /**
+     * Stats plus one page of customers with their allocated assets, optionally filtered by
+     * neighborhood and status. The customer stats come from a single aggregate query, the asset
+     * counts from the shared asset statistics, and the assets of
+     * the whole page from one batched query.
+     */
+    public DeploymentLeadDashboardResponse getDashboardData(String neighborhood, String status, int page, int size) {
+        if (page < 0) {
+            throw new RuntimeException("Page index must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        CustomerStatus customerStatus = parseStatus(status);
 
+        // Calculate stats
+        DeploymentLeadCountsRow counts = customerRepository.findDeploymentLeadCounts();
+        Map<String, Long> assetsByStatus = assetStatisticsService.getStatistics().getByStatus();
         DeploymentLeadStats stats = new DeploymentLeadStats(
-                totalCustomers,
-                assetsAllocated,
-                availableAssets,
-                pendingAllocations
+                unbox(counts.getTotalCustomers()),
+                assetsByStatus.get(AssetStatus.Assigned.name()),
+                assetsByStatus.get(AssetStatus.Available.name()),
+                unbox(counts.getPendingCustomers())
         );
 
-        // Get all customers with their allocated assets
-        List<CustomerWithAssetsDTO> customers = customerRepository.findAll()
-                .stream()
-                .map(this::convertToCustomerWithAssetsDTO)
+        // One page of customers, then the allocated assets of all of them
+        Page<CustomerListRow> rows = customerRepository.findListRows(
+                neighborhood == null || neighborhood.isBlank() ? null : neighborhood,
+                customerStatus,
+                PageRequest.of(page, size));
+
+        Map<Long, List<AllocatedAssetDTO>> assetsByCustomer = new HashMap<>();
+        List<Long> customerIds = rows.getContent().stream().map(CustomerListRow::getCustomerId).toList();
+        if (!customerIds.isEmpty()) {
+            for (AllocatedAssetRow row : assignedAssetsRepository.findAllocatedAssetRows(customerIds)) {
+                assetsByCustomer.computeIfAbsent(row.getCustomerId(), k -> new ArrayList<>())
+                        .add(new AllocatedAssetDTO(
+                                row.getAssetId(),
+                                row.getAssetType().name(),
+                                row.getSerialNumber(),
+                                row.getModel()
+                        ));
+            }
+        }
+
+        List<CustomerWithAssetsDTO> customers = rows.getContent().stream()
+                .map(row -> new CustomerWithAssetsDTO(
+                        row.getCustomerId(),
+                        row.getName(),
+                        row.getNeighborhood(),
+                        row.getPlan(),
+                        row.getStatus().name(),
+                        assetsByCustomer.getOrDefault(row.getCustomerId(), List.of())
+                ))
                 .collect(Collectors.toList());
 
-        return new DeploymentLeadDashboardResponse(stats, customers);
+        return new DeploymentLeadDashboardResponse(stats, new PagedResponse<>(
+                customers, page, size, rows.getTotalElements(), rows.getTotalPages()));
     }
 
+    // Served from the in-memory pool, no database round trip
     public List<AvailableAssetDTO> getAvailableAssets(String assetType) {
         AssetType type = AssetType.valueOf(assetType);
 
-        return assetRepository.findByAssetTypeAndStatus(type, AssetStatus.Available)
+        return availableAssetPool.getAvailable(type)
                 .stream()
                 .map(asset -> new AvailableAssetDTO(
-                        asset.getAssetId(),
-                        asset.getSerialNumber(),
-                        asset.getModel(),
-                        asset.getLocation()
+                        asset.assetId(),
+                        asset.serialNumber(),
+                        asset.model(),
+                        asset.location()
                 ))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Allocates the next available asset of a type, optionally from one location. The asset
+     * is claimed from the in-memory pool and then moved to Assigned with the same conditional
+     * update as {@link #allocateAsset}; pool entries the database no longer agrees with are
+     * dropped and the next one is tried.
+     */
+    @Transactional
+    public AllocatedAssetDTO allocateNextAsset(AllocateNextAssetRequest request) {
+        Customer customer = customerRepository.findById(request.getCustomerId())
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        AssetType type;
+        try {
+            type = AssetType.valueOf(request.getAssetType());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown asset type: " + request.getAssetType());
+        }
+        String location = request.getLocation() == null || request.getLocation().isBlank()
+                ? null : request.getLocation();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            PooledAsset pooled = availableAssetPool.claim(type, location);
+            if (pooled == null) {
+                break;
+            }
+            // Registered before the update, so a failing update or anything after it returns the asset
+            AvailableAssetPool.PendingRelease release = availableAssetPool.releaseOnRollback(pooled);
+            if (assetRepository.assignIfAvailable(pooled.assetId(), customer.getCustomerId(), now) == 0) {
+                // Taken or changed in the database since it was pooled; leave it out
+                release.cancel();
+                continue;
+            }
+            eventPublisher.publishEvent(new AssetChangedEvent(pooled.assetId(), type, pooled.serialNumber(),
+                    pooled.model(), pooled.location(), AssetStatus.Assigned, customer.getCustomerId(), false));
+
+            AssignedAssets assignedAsset = new AssignedAssets();
+            assignedAsset.setCustomer(customer);
+            assignedAsset.setAsset(assetRepository.getReferenceById(pooled.assetId()));
+            assignedAsset.setAssignedOn(now);
+            assignedAssetsRepository.save(assignedAsset);
+
+            logActivity("ASSET_ALLOCATED",
+                    "Allocated " + type + " (" + pooled.serialNumber() +
+                            ") to customer: " + customer.getName());
+            return new AllocatedAssetDTO(pooled.assetId(), type.name(), pooled.serialNumber(), pooled.model());
+        }
+        throw new RuntimeException("No available " + type + " assets" + (location != null ? " at " + location : ""));
+    }
+
+    /**
+     * Allocates an asset with a conditional update instead of a read-check-write, so two
+     * leads allocating the same asset at once cannot both succeed and allocations of
+     * different assets never wait on each other.
+     */
     @Transactional
     public void allocateAsset(AllocateAssetRequest request) {
         // Get customer
         Customer customer = customerRepository.findById(request.getCustomerId())
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
 
-        // Get asset
-        Asset asset = assetRepository.findById(request.getAssetId())
-                .orElseThrow(() -> new RuntimeException("Asset not found"));
-
-        // Check if asset is available
-        if (asset.getStatus() != AssetStatus.Available) {
+        // Claim the asset only if it is still available
+        LocalDateTime now = LocalDateTime.now();
+        if (assetRepository.assignIfAvailable(request.getAssetId(), customer.getCustomerId(), now) == 0) {
+            if (!assetRepository.existsById(request.getAssetId())) {
+                throw new RuntimeException("Asset not found");
+            }
             throw new RuntimeException("Asset is not available for allocation");
         }
 
-        // Update asset status
-        asset.setStatus(AssetStatus.Assigned);
-        asset.setAssignedToCustomerId(customer.getCustomerId());
-        asset.setAssignedDate(LocalDateTime.now());
-        assetRepository.save(asset);
+        // Read back after the update; the bulk update bypasses the entity listeners
+        Asset asset = assetRepository.findById(request.getAssetId())
+                .orElseThrow(() -> new RuntimeException("Asset not found"));
+        eventPublisher.publishEvent(AssetChangedEvent.of(asset, false));
 
         // Create assigned asset record
         AssignedAssets assignedAsset = new AssignedAssets();
         assignedAsset.setCustomer(customer);
         assignedAsset.setAsset(asset);
-        assignedAsset.setAssignedOn(LocalDateTime.now());
+        assignedAsset.setAssignedOn(now);
         assignedAssetsRepository.save(assignedAsset);
 
         // Log activity
@@ -103,21 +226,17 @@ public class DeploymentLeadServiceImpl implements DeploymentLeadService {
         Customer customer = customerRepository.findById(request.getCustomerId())
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
 
-        // Get asset
-        Asset asset = assetRepository.findById(request.getAssetId())
-                .orElseThrow(() -> new RuntimeException("Asset not found"));
-
-        // Check if asset is assigned to this customer
-        if (asset.getAssignedToCustomerId() == null ||
-                !asset.getAssignedToCustomerId().equals(customer.getCustomerId())) {
+        // Release the asset only if it is still assigned to this customer
+        if (assetRepository.releaseIfAssigned(request.getAssetId(), customer.getCustomerId()) == 0) {
+            if (!assetRepository.existsById(request.getAssetId())) {
+                throw new RuntimeException("Asset not found");
+            }
             throw new RuntimeException("Asset is not assigned to this customer");
         }
 
-        // Update asset status
-        asset.setStatus(AssetStatus.Available);
-        asset.setAssignedToCustomerId(null);
-        asset.setAssignedDate(null);
-        assetRepository.save(asset);
+        Asset asset = assetRepository.findById(request.getAssetId())
+                .orElseThrow(() -> new RuntimeException("Asset not found"));
+        eventPublisher.publishEvent(AssetChangedEvent.of(asset, false));
 
         // Remove assigned asset record
         assignedAssetsRepository.deleteByCustomerCustomerIdAndAssetAssetId(
@@ -131,27 +250,170 @@ public class DeploymentLeadServiceImpl implements DeploymentLeadService {
                         ") from customer: " + customer.getName());
     }
 
-    private CustomerWithAssetsDTO convertToCustomerWithAssetsDTO(Customer customer) {
-        // Get allocated assets for this customer
-        List<AllocatedAssetDTO> allocatedAssets = assignedAssetsRepository
-                .findByCustomer_CustomerId(customer.getCustomerId())
-                .stream()
-                .map(aa -> new AllocatedAssetDTO(
-                        aa.getAsset().getAssetId(),
-                        aa.getAsset().getAssetType().name(),
-                        aa.getAsset().getSerialNumber(),
-                        aa.getAsset().getModel()
-                ))
-                .collect(Collectors.toList());
+    /**
+     * Allocates a kit of assets to every customer of a deployment wave in one transaction.
+     * <p>
+     * Customers are read in one query and the available assets of each requested type are
+     * locked in one query per type, skipping rows another allocation holds. Kits are then filled
+     * in request order, each all or nothing, and the asset updates, {@code assigned_assets} rows
+     * and one audit entry per kit are written as JDBC batches. Kits that cannot be filled are
+     * reported per row and do not fail the others.
+     */
+    @Transactional
+    public KitAllocationResultDTO allocateKits(BulkAllocateKitsRequest request) {
+        List<KitRequest> kits = request.getKits();
+        if (kits.size() > MAX_KITS) {
+            throw new RuntimeException("At most " + MAX_KITS + " kits can be allocated at once");
+        }
 
-        return new CustomerWithAssetsDTO(
-                customer.getCustomerId(),
-                customer.getName(),
-                customer.getNeighborhood(),
-                customer.getPlan(),
-                customer.getStatus().name(),
-                allocatedAssets
-        );
+        Map<Long, Customer> customers = new HashMap<>();
+        customerRepository.findAllById(kits.stream().map(KitRequest::getCustomerId).collect(Collectors.toSet()))
+                .forEach(customer -> customers.put(customer.getCustomerId(), customer));
+
+        // Validate every kit and add up the demand per asset type
+        KitResult[] results = new KitResult[kits.size()];
+        List<Map<AssetType, Integer>> kitTypes = new ArrayList<>(kits.size());
+        Map<AssetType, Integer> demand = new EnumMap<>(AssetType.class);
+        for (int i = 0; i < kits.size(); i++) {
+            KitRequest kit = kits.get(i);
+            Map<AssetType, Integer> types = null;
+            if (!customers.containsKey(kit.getCustomerId())) {
+                results[i] = failedKit(kit, "Customer not found");
+            } else {
+                try {
+                    types = new EnumMap<>(AssetType.class);
+                    for (String assetType : kit.getAssetTypes()) {
+                        types.merge(AssetType.valueOf(assetType), 1, Integer::sum);
+                    }
+                    types.forEach((type, count) -> demand.merge(type, count, Integer::sum));
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    types = null;
+                    results[i] = failedKit(kit, "Unknown asset type in " + kit.getAssetTypes());
+                }
+            }
+            kitTypes.add(types);
+        }
+
+        Map<AssetType, ArrayDeque<Asset>> pools = new EnumMap<>(AssetType.class);
+        demand.forEach((type, count) -> pools.put(type,
+                new ArrayDeque<>(assetRepository.findAvailableForUpdate(type, PageRequest.of(0, count)))));
+
+        // Fill kits in request order; a kit only takes assets once all of its types are covered
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> assetUpdates = new ArrayList<>();
+        List<Object[]> assignments = new ArrayList<>();
+        List<AssetChangedEvent> changes = new ArrayList<>();
+        List<Integer> allocatedKits = new ArrayList<>();
+        for (int i = 0; i < kits.size(); i++) {
+            Map<AssetType, Integer> types = kitTypes.get(i);
+            if (types == null) {
+                continue;
+            }
+            AssetType shortType = types.entrySet().stream()
+                    .filter(entry -> pools.get(entry.getKey()).size() < entry.getValue())
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElse(null);
+            if (shortType != null) {
+                results[i] = failedKit(kits.get(i), "Not enough available " + shortType + " assets");
+                continue;
+            }
+
+            Long customerId = kits.get(i).getCustomerId();
+            List<AllocatedAssetDTO> allocated = new ArrayList<>();
+            types.forEach((type, count) -> {
+                for (int n = 0; n < count; n++) {
+                    Asset asset = pools.get(type).poll();
+                    assetUpdates.add(new Object[]{AssetStatus.Assigned.name(), customerId, now, asset.getAssetId()});
+                    assignments.add(new Object[]{customerId, asset.getAssetId(), now});
+                    changes.add(new AssetChangedEvent(asset.getAssetId(), type, asset.getSerialNumber(),
+                            asset.getModel(), asset.getLocation(), AssetStatus.Assigned, customerId, false));
+                    allocated.add(new AllocatedAssetDTO(asset.getAssetId(), type.name(),
+                            asset.getSerialNumber(), asset.getModel()));
+                }
+            });
+            results[i] = new KitResult(customerId, true, "Allocated", allocated);
+            allocatedKits.add(i);
+        }
+
+        if (!allocatedKits.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE assets SET status = ?, assigned_to_customer_id = ?, assigned_date = ? " +
+                    "WHERE asset_id = ?", assetUpdates);
+            jdbcTemplate.batchUpdate("INSERT INTO assigned_assets (customer_id, asset_id, assigned_on) " +
+                    "VALUES (?, ?, ?)", assignments);
+            changes.forEach(eventPublisher::publishEvent);
+            logKits(allocatedKits.stream().map(i -> results[i]).toList(), customers, now);
+        }
+
+        List<KitResult> resultList = List.of(results);
+        int allocatedCount = allocatedKits.size();
+        return new KitAllocationResultDTO(kits.size(), allocatedCount, kits.size() - allocatedCount,
+                assetUpdates.size(), resultList);
+    }
+
+    // One audit entry per kit, batched; the generated ids feed the recent activity buffers
+    private void logKits(List<KitResult> kits, Map<Long, Customer> customers, LocalDateTime now) {
+        User deploymentLead = userRepository.findByUsername("deploymentlead").orElse(null);
+        if (deploymentLead == null) {
+            return;
+        }
+        AuditCategory category = AuditCategory.of(KIT_ACTION);
+        List<String> descriptions = kits.stream()
+                .map(kit -> "Allocated " + kit.getAssets().stream()
+                        .map(asset -> asset.getAssetType() + " (" + asset.getSerialNumber() + ")")
+                        .collect(Collectors.joining(", ")) +
+                        " to customer: " + customers.get(kit.getCustomerId()).getName())
+                .toList();
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement("INSERT INTO audit_logs " +
+                        "(user_id, action_type, category, description, timestamp) VALUES (?, ?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, deploymentLead.getUserId());
+                        ps.setString(2, KIT_ACTION);
+                        ps.setString(3, category.name());
+                        ps.setString(4, descriptions.get(i));
+                        ps.setObject(5, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return descriptions.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < descriptions.size(); i++) {
+            Long logId = i < generated.size() && !generated.get(i).isEmpty()
+                    ? ((Number) generated.get(i).values().iterator().next()).longValue()
+                    : null;
+            eventPublisher.publishEvent(new AuditLoggedEvent(logId, deploymentLead.getUsername(), KIT_ACTION,
+                    category, descriptions.get(i), now));
+        }
+    }
+
+    private static KitResult failedKit(KitRequest kit, String message) {
+        return new KitResult(kit.getCustomerId(), false, message, List.of());
+    }
+
+    private CustomerStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return CustomerStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown customer status: " + status);
+        }
+    }
+
+    private static long unbox(Number value) {
+        return value != null ? value.longValue() : 0;
     }
 
     private void logActivity(String actionType, String description) {
@@ -1,119 +1,271 @@
 package com.example.fiberflow_backup.serviceimpl;
 
 import com.example.fiberflow_backup.dto.*;
-import com.example.fiberflow_backup.dto.NetworkTopologyResponse.NetworkMetrics;
 import com.example.fiberflow_backup.enums.CustomerStatus;
-import com.example.fiberflow_backup.model.*;
-import com.example.fiberflow_backup.repository.*;
+import com.example.fiberflow_backup.enums.NetworkElementType;
+import com.example.fiberflow_backup.model.Headend;
+import com.example.fiberflow_backup.repository.FDHRepository;
+import com.example.fiberflow_backup.repository.HeadendRepository;
 import com.example.fiberflow_backup.service.NetworkService;
+import com.example.fiberflow_backup.topology.FaultRegistry;
+import com.example.fiberflow_backup.topology.NetworkTopologyGraph;
+import com.example.fiberflow_backup.topology.OpenTicketIndex;
+import com.example.fiberflow_backup.topology.PowerBudgetEngine;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class NetworkServiceImpl implements NetworkService {
 
+    // Flush to the client every this many nodes so the first bytes leave early
+    private static final int FLUSH_INTERVAL = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BUDGET_RESULTS = 5000;
+
+    private final NetworkTopologyGraph topologyGraph;
+    private final OpenTicketIndex openTicketIndex;
+    private final PowerBudgetEngine powerBudgetEngine;
+    private final FaultRegistry faultRegistry;
     private final HeadendRepository headendRepository;
     private final FDHRepository fdhRepository;
-    private final SplitterRepository splitterRepository;
-    private final CustomerRepository customerRepository;
+    private final ObjectMapper objectMapper;
 
     public NetworkTopologyResponse getNetworkTopology() {
-        // Get headend (assuming single headend for now)
-        Headend headend = headendRepository.findAll().stream()
-                .findFirst()
-                .orElse(null);
+        // Served from the resident graph, which is loaded with set-based queries and patched on every commit
+        return topologyGraph.getTopology();
+    }
+
+    public TopologyChangesResponse getTopologyChanges(Long since) {
+        return topologyGraph.getChangesSince(since);
+    }
+
+    public List<HeadendSummaryDTO> getHeadendSummaries() {
+        return topologyGraph.getHeadendSummaries();
+    }
+
+    public PagedResponse<FDHSummaryDTO> getFDHs(Long headendId, String region, int page, int size) {
+        validatePage(page, size);
+        return topologyGraph.getFDHPage(headendId, region, page, size);
+    }
+
+    public PagedResponse<SplitterSummaryDTO> getSplitters(Long fdhId, int page, int size) {
+        validatePage(page, size);
+        return topologyGraph.getSplitterPage(fdhId, page, size);
+    }
+
+    public PagedResponse<CustomerInTopologyDTO> getSplitterCustomers(Long splitterId, int page, int size) {
+        validatePage(page, size);
+        return topologyGraph.getCustomerPage(splitterId, page, size);
+    }
+
+    /**
+     * Customers and open tickets downstream of a network element. Both lookups are answered
+     * from in-memory indexes, so the cost is proportional to the number of affected customers.
+     */
+    public OutageImpactDTO getOutageImpact(String type, Long elementId) {
+        NetworkElementType elementType;
+        try {
+            elementType = NetworkElementType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown element type: " + type + " (expected HEADEND, FDH or SPLITTER)");
+        }
+
+        OutageImpactDTO impact = topologyGraph.getImpact(elementType, elementId);
+
+        List<ImpactedCustomerDTO> customers = impact.getCustomers();
+        long[] customerIds = new long[customers.size()];
+        for (int i = 0; i < customerIds.length; i++) {
+            customerIds[i] = customers.get(i).getCustomerId();
+        }
+        Map<Long, List<OpenTicketRow>> tickets = openTicketIndex.getOpenTickets(customerIds);
 
-        if (headend == null) {
-            return null;
+        int openTickets = 0;
+        for (ImpactedCustomerDTO customer : customers) {
+            List<OpenTicketRow> rows = tickets.get(customer.getCustomerId());
+            if (rows == null) {
+                continue;
+            }
+            customer.setOpenTickets(rows.stream()
+                    .map(row -> new SupportTicketDTO(
+                            row.getTicketId(),
+                            customer.getName(),
+                            row.getIssue(),
+                            row.getPriority(),
+                            row.getStatus(),
+                            row.getCreatedAt()
+                    ))
+                    .toList());
+            openTickets += rows.size();
         }
+        impact.setOpenTickets(openTickets);
+        return impact;
+    }
+
+    public PowerBudgetDTO getPowerBudget(Long customerId) {
+        return powerBudgetEngine.getCustomerBudget(customerId);
+    }
+
+    public List<PowerBudgetDTO> getCustomersBelowMargin(Double thresholdDb, int limit) {
+        if (limit < 1 || limit > MAX_BUDGET_RESULTS) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_BUDGET_RESULTS);
+        }
+        double threshold = thresholdDb != null ? thresholdDb : powerBudgetEngine.getMinMarginDb();
+        return powerBudgetEngine.getCustomersBelowThreshold(threshold, limit);
+    }
+
+    public SplitterSwapImpactDTO simulateSplitterSwap(SplitterSwapRequest request) {
+        if (request.getSplitterId() == null) {
+            throw new RuntimeException("Splitter id is required");
+        }
+        return powerBudgetEngine.simulateSplitterSwap(request.getSplitterId(), request.getModel(), request.getPortCapacity());
+    }
 
-        HeadendDTO headendDTO = convertToHeadendDTO(headend);
-
-        // Get all FDHs
-        List<FDHDTO> fdhList = fdhRepository.findAll().stream()
-                .map(this::convertToFDHDTO)
-                .collect(Collectors.toList());
-
-        // Calculate metrics
-        NetworkMetrics metrics = calculateNetworkMetrics();
-
-        return new NetworkTopologyResponse(headendDTO, fdhList, metrics);
-    }
-
-    private HeadendDTO convertToHeadendDTO(Headend headend) {
-        return new HeadendDTO(
-                headend.getHeadendId(),
-                headend.getName(),
-                headend.getLocation(),
-                headend.getRegion()
-        );
-    }
-
-    private FDHDTO convertToFDHDTO(FDH fdh) {
-        // Get all splitters for this FDH
-        List<SplitterDTO> splitters = splitterRepository.findByFdh_FdhId(fdh.getFdhId())
-                .stream()
-                .map(this::convertToSplitterDTO)
-                .collect(Collectors.toList());
-
-        return new FDHDTO(
-                fdh.getFdhId(),
-                fdh.getName(),
-                fdh.getLocation(),
-                fdh.getRegion(),
-                fdh.getMaxPorts(),
-                splitters
-        );
-    }
-
-    private SplitterDTO convertToSplitterDTO(Splitter splitter) {
-        // Get all customers connected to this splitter
-        List<CustomerInTopologyDTO> customers = customerRepository
-                .findBySplitter_SplitterId(splitter.getSplitterId())
-                .stream()
-                .map(this::convertToCustomerInTopologyDTO)
-                .collect(Collectors.toList());
-
-        return new SplitterDTO(
-                splitter.getSplitterId(),
-                splitter.getModel(),
-                splitter.getPortCapacity(),
-                splitter.getUsedPorts(),
-                splitter.getLocation(),
-                customers
-        );
-    }
-
-    private CustomerInTopologyDTO convertToCustomerInTopologyDTO(Customer customer) {
-        return new CustomerInTopologyDTO(
-                customer.getCustomerId(),
-                customer.getName(),
-                customer.getPlan(),
-                customer.getAssignedPort(),
-                customer.getStatus().name()
-        );
-    }
-
-    private NetworkMetrics calculateNetworkMetrics() {
-        // Count total splitters
-        int totalSplitters = (int) splitterRepository.count();
-
-        // Calculate total ports and used ports
-        List<Splitter> allSplitters = splitterRepository.findAll();
-        int totalPorts = allSplitters.stream()
-                .mapToInt(s -> s.getPortCapacity() != null ? s.getPortCapacity() : 0)
-                .sum();
-        int usedPorts = allSplitters.stream()
-                .mapToInt(s -> s.getUsedPorts() != null ? s.getUsedPorts() : 0)
-                .sum();
-
-        // Count active customers
-        int activeCustomers = (int) customerRepository.countByStatus(CustomerStatus.Active);
-
-        return new NetworkMetrics(totalSplitters, totalPorts, usedPorts, activeCustomers);
+    private void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new RuntimeException("Page index must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    public FaultSummaryDTO getFaultSummary() {
+        return faultRegistry.getSummary();
+    }
+
+    /**
+     * Writes the topology as newline-delimited JSON, one node per line, while walking a
+     * database cursor over the flattened FDH -> splitter -> customer rows. Only the current
+     * row is held in memory, so heap use does not grow with the size of the network.
+     */
+    @Transactional(readOnly = true)
+    public void streamNetworkTopology(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        for (Headend headend : headendRepository.findAll()) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "headend");
+            generator.writeNumberField("headendId", headend.getHeadendId());
+            generator.writeStringField("name", headend.getName());
+            generator.writeStringField("location", headend.getLocation());
+            generator.writeStringField("region", headend.getRegion());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        Long currentFdhId = null;
+        Long currentSplitterId = null;
+        int nodes = 0;
+        int totalSplitters = 0;
+        int totalPorts = 0;
+        int usedPorts = 0;
+        int activeCustomers = 0;
+
+        try (Stream<TopologyStreamRow> rows = fdhRepository.streamTopologyRows()) {
+            Iterator<TopologyStreamRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TopologyStreamRow row = iterator.next();
+
+                if (!row.getFdhId().equals(currentFdhId)) {
+                    currentFdhId = row.getFdhId();
+                    currentSplitterId = null;
+                    writeFdh(generator, row);
+                    nodes++;
+                }
+
+                if (row.getSplitterId() != null && !row.getSplitterId().equals(currentSplitterId)) {
+                    currentSplitterId = row.getSplitterId();
+                    totalSplitters++;
+                    totalPorts += row.getPortCapacity() != null ? row.getPortCapacity() : 0;
+                    usedPorts += row.getUsedPorts() != null ? row.getUsedPorts() : 0;
+                    writeSplitter(generator, row);
+                    nodes++;
+                }
+
+                if (row.getCustomerId() != null) {
+                    if (row.getCustomerStatus() == CustomerStatus.Active) {
+                        activeCustomers++;
+                    }
+                    writeCustomer(generator, row);
+                    nodes++;
+                }
+
+                if (nodes >= FLUSH_INTERVAL) {
+                    generator.flush();
+                    nodes = 0;
+                }
+            }
+        }
+
+        // Metrics go last since they are accumulated from the streamed rows
+        generator.writeStartObject();
+        generator.writeStringField("type", "metrics");
+        generator.writeNumberField("totalSplitters", totalSplitters);
+        generator.writeNumberField("totalPorts", totalPorts);
+        generator.writeNumberField("usedPorts", usedPorts);
+        generator.writeNumberField("activeCustomers", activeCustomers);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    private void writeFdh(JsonGenerator generator, TopologyStreamRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "fdh");
+        generator.writeNumberField("fdhId", row.getFdhId());
+        generator.writeStringField("name", row.getFdhName());
+        generator.writeStringField("location", row.getFdhLocation());
+        generator.writeStringField("region", row.getFdhRegion());
+        writeNullableNumber(generator, "maxPorts", row.getFdhMaxPorts());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeSplitter(JsonGenerator generator, TopologyStreamRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "splitter");
+        generator.writeNumberField("splitterId", row.getSplitterId());
+        generator.writeNumberField("fdhId", row.getFdhId());
+        generator.writeStringField("model", row.getSplitterModel());
+        writeNullableNumber(generator, "portCapacity", row.getPortCapacity());
+        writeNullableNumber(generator, "usedPorts", row.getUsedPorts());
+        generator.writeStringField("location", row.getSplitterLocation());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeCustomer(JsonGenerator generator, TopologyStreamRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "customer");
+        generator.writeNumberField("customerId", row.getCustomerId());
+        generator.writeNumberField("splitterId", row.getSplitterId());
+        generator.writeStringField("name", row.getCustomerName());
+        generator.writeStringField("plan", row.getPlan());
+        writeNullableNumber(generator, "assignedPort", row.getAssignedPort());
+        generator.writeStringField("status", Objects.toString(row.getCustomerStatus(), null));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeNullableNumber(JsonGenerator generator, String field, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(field, value);
+        } else {
+            generator.writeNullField(field);
+        }
     }
 }
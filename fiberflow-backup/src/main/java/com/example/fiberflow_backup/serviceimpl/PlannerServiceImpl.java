@@ -1,12 +1,21 @@
 package com.example.fiberflow_backup.serviceimpl;
 
+import com.example.fiberflow_backup.dto.CubeQueryRequest;
+import com.example.fiberflow_backup.dto.CubeQueryResultDTO;
 import com.example.fiberflow_backup.dto.PlannerDashboardResponse;
 import com.example.fiberflow_backup.dto.PlannerDashboardResponse.*;
-import com.example.fiberflow_backup.enums.CustomerStatus;
+import com.example.fiberflow_backup.enums.AuditCategory;
+import com.example.fiberflow_backup.enums.CubeDimension;
 import com.example.fiberflow_backup.model.*;
 import com.example.fiberflow_backup.repository.*;
+import com.example.fiberflow_backup.service.CapacityRollupService;
 import com.example.fiberflow_backup.service.PlannerService;
+import com.example.fiberflow_backup.topology.CustomerCube;
+import com.example.fiberflow_backup.topology.FaultRegistry;
+import com.example.fiberflow_backup.topology.NetworkTopologyGraph;
+import com.example.fiberflow_backup.topology.RecentAuditFeed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
@@ -17,10 +26,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PlannerServiceImpl implements PlannerService {
 
-    private final FDHRepository fdhRepository;
-    private final SplitterRepository splitterRepository;
     private final CustomerRepository customerRepository;
-    private final AuditLogRepository auditLogRepository;
+    private final NetworkTopologyGraph topologyGraph;
+    private final CapacityRollupService capacityRollupService;
+    private final FaultRegistry faultRegistry;
+    private final CustomerCube customerCube;
+    private final RecentAuditFeed recentAuditFeed;
 
     public PlannerDashboardResponse getPlannerDashboard() {
         // Calculate network metrics
@@ -39,74 +50,50 @@ public class PlannerServiceImpl implements PlannerService {
     }
 
     private NetworkMetrics calculateNetworkMetrics() {
-        int totalFDH = (int) fdhRepository.count();
-        int totalSplitters = (int) splitterRepository.count();
+        // Port totals come from the precomputed network rollup row
+        CapacityRollup network = capacityRollupService.getNetworkRollup();
 
-        List<Splitter> allSplitters = splitterRepository.findAll();
-        int totalPorts = allSplitters.stream()
-                .mapToInt(s -> s.getPortCapacity() != null ? s.getPortCapacity() : 0)
-                .sum();
-        int usedPorts = allSplitters.stream()
-                .mapToInt(s -> s.getUsedPorts() != null ? s.getUsedPorts() : 0)
-                .sum();
+        int totalFDH = (int) capacityRollupService.getFDHCount();
+        int totalSplitters = network.getSplitterCount();
+        int totalPorts = network.getTotalPorts();
+        int usedPorts = network.getUsedPorts();
+        int activeConnections = topologyGraph.getTotals().activeCustomers();
 
-        int activeConnections = (int) customerRepository.countByStatus(CustomerStatus.Active);
-
-        // For now, faults = 0 (implement fault tracking later)
-        int faults = 0;
+        int faults = faultRegistry.getTotalFaults();
 
         return new NetworkMetrics(totalFDH, totalSplitters, totalPorts, usedPorts, activeConnections, faults);
     }
 
     private List<RegionalData> getRegionalData() {
-        // Group customers by neighborhood (region)
-        Map<String, Long> regionCounts = customerRepository.findAll().stream()
-                .filter(c -> c.getNeighborhood() != null)
-                .collect(Collectors.groupingBy(
-                        Customer::getNeighborhood,
-                        Collectors.counting()
-                ));
-
-        return regionCounts.entrySet().stream()
-                .map(entry -> new RegionalData(entry.getKey(), entry.getValue().intValue()))
-                .sorted((a, b) -> Integer.compare(b.getConnections(), a.getConnections()))
-                .limit(5)
+        // Top 5 neighborhoods by customer count, grouped in the database over the neighborhood index
+        return customerRepository.findTopNeighborhoods(PageRequest.of(0, 5)).stream()
+                .map(row -> new RegionalData(
+                        row.getNeighborhood(),
+                        row.getConnections().intValue(),
+                        row.getActive().intValue(),
+                        row.getPending().intValue()
+                ))
                 .collect(Collectors.toList());
     }
 
     private List<FDHCapacityData> getFDHCapacityData() {
-        return fdhRepository.findAll().stream()
-                .map(fdh -> {
-                    List<Splitter> fdHSplitters = splitterRepository.findByFdh_FdhId(fdh.getFdhId());
-
-                    int splitterCount = fdHSplitters.size();
-                    int totalCapacity = fdHSplitters.stream()
-                            .mapToInt(s -> s.getPortCapacity() != null ? s.getPortCapacity() : 0)
-                            .sum();
-                    int usedPorts = fdHSplitters.stream()
-                            .mapToInt(s -> s.getUsedPorts() != null ? s.getUsedPorts() : 0)
-                            .sum();
-
-                    return new FDHCapacityData(
-                            fdh.getFdhId(),
-                            fdh.getName(),
-                            fdh.getRegion(),
-                            splitterCount,
-                            totalCapacity,
-                            usedPorts
-                    );
-                })
+        // One precomputed row per FDH, kept current by the capacity rollup service
+        return capacityRollupService.getFDHRollups().stream()
+                .map(rollup -> new FDHCapacityData(
+                        Long.valueOf(rollup.getScopeKey()),
+                        rollup.getName(),
+                        CapacityRollupServiceImpl.UNASSIGNED_REGION.equals(rollup.getRegion()) ? null : rollup.getRegion(),
+                        rollup.getSplitterCount(),
+                        rollup.getTotalPorts(),
+                        rollup.getUsedPorts()
+                ))
                 .collect(Collectors.toList());
     }
 
     private List<RecentActivity> getRecentActivities() {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-        return auditLogRepository.findTop20ByOrderByTimestampDesc().stream()
-                .filter(log -> log.getActionType().contains("NETWORK") ||
-                        log.getActionType().contains("FDH") ||
-                        log.getActionType().contains("SPLITTER"))
-                .limit(10)
+        return recentAuditFeed.getLatest(AuditCategory.Network, 10).stream()
                 .map(log -> new RecentActivity(
                         log.getActionType(),
                         log.getDescription(),
@@ -114,4 +101,36 @@ public class PlannerServiceImpl implements PlannerService {
                 ))
                 .collect(Collectors.toList());
     }
+
+    public CubeQueryResultDTO queryCustomerCube(CubeQueryRequest request) {
+        Map<CubeDimension, List<String>> filters = new EnumMap<>(CubeDimension.class);
+        if (request.getFilters() != null) {
+            request.getFilters().forEach((dimension, values) ->
+                    filters.put(parseDimension(dimension), values != null ? values : List.of()));
+        }
+        List<CubeDimension> groupBy = new ArrayList<>();
+        if (request.getGroupBy() != null) {
+            for (String dimension : request.getGroupBy()) {
+                CubeDimension parsed = parseDimension(dimension);
+                if (groupBy.contains(parsed)) {
+                    throw new RuntimeException("Dimension " + parsed + " is grouped twice");
+                }
+                groupBy.add(parsed);
+            }
+        }
+        return customerCube.query(filters, groupBy);
+    }
+
+    public Map<String, Map<String, Integer>> getCubeDimensions() {
+        return customerCube.getDimensionValues();
+    }
+
+    private CubeDimension parseDimension(String dimension) {
+        try {
+            return CubeDimension.valueOf(dimension.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Unknown cube dimension: " + dimension +
+                    " (expected one of " + Arrays.toString(CubeDimension.values()) + ")");
+        }
+    }
 }
@@ -0,0 +1,337 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.AssignPortRequest;
+import com.example.fiberflow_backup.dto.BulkAssignPortsRequest;
+import com.example.fiberflow_backup.dto.PortAssignmentDTO;
+import com.example.fiberflow_backup.enums.CustomerStatus;
+import com.example.fiberflow_backup.enums.LineStatus;
+import com.example.fiberflow_backup.model.AuditLog;
+import com.example.fiberflow_backup.model.Customer;
+import com.example.fiberflow_backup.model.DefragMove;
+import com.example.fiberflow_backup.model.FiberDropLine;
+import com.example.fiberflow_backup.model.Splitter;
+import com.example.fiberflow_backup.model.User;
+import com.example.fiberflow_backup.repository.AuditLogRepository;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.FiberDropLineRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import com.example.fiberflow_backup.repository.UserRepository;
+import com.example.fiberflow_backup.service.CapacityRollupService;
+import com.example.fiberflow_backup.service.PortAllocationService;
+import com.example.fiberflow_backup.topology.PortBitmap;
+import com.example.fiberflow_backup.topology.SplitterPortIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Attaches customers to splitter ports.
+ * <p>
+ * Every operation first takes the splitter row lock, so assignments to the same splitter
+ * are serialized across threads and nodes while different splitters proceed in parallel.
+ * Under that lock the free port comes from the in-memory {@link PortBitmap}, and
+ * {@code used_ports} and {@code port_bitmap} are rewritten from it in the same transaction,
+ * followed by the capacity rollups.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortAllocationServiceImpl implements PortAllocationService {
+
+    private final SplitterRepository splitterRepository;
+    private final CustomerRepository customerRepository;
+    private final FiberDropLineRepository fiberDropLineRepository;
+    private final SplitterPortIndex splitterPortIndex;
+    private final CapacityRollupService capacityRollupService;
+    private final AuditLogRepository auditLogRepository;
+    private final UserRepository userRepository;
+
+    @Transactional
+    public PortAssignmentDTO assignPort(AssignPortRequest request) {
+        Splitter splitter = lockSplitter(request.getSplitterId());
+        Customer customer = lockUnassignedCustomers(List.of(request.getCustomerId())).get(0);
+        PortBitmap ports = splitterPortIndex.forLockedSplitter(splitter);
+
+        int port;
+        if (request.getPort() != null) {
+            if (!ports.claim(request.getPort())) {
+                throw new RuntimeException("Port " + request.getPort() + " is not free on splitter " +
+                        splitter.getSplitterId());
+            }
+            port = request.getPort();
+        } else {
+            port = ports.claimLowest();
+            if (port < 0) {
+                throw new RuntimeException("Splitter " + splitter.getSplitterId() + " has no free ports");
+            }
+        }
+
+        attach(customer, splitter, port);
+
+        logActivity("SPLITTER_PORT_ASSIGNED",
+                "Assigned port " + port + " on splitter " + splitter.getSplitterId() +
+                        " to customer: " + customer.getName());
+
+        saveUsage(splitter, ports);
+
+        return new PortAssignmentDTO(customer.getCustomerId(), splitter.getSplitterId(), port);
+    }
+
+    @Transactional
+    public List<PortAssignmentDTO> assignPorts(BulkAssignPortsRequest request) {
+        Splitter splitter = lockSplitter(request.getSplitterId());
+        List<Customer> customers = lockUnassignedCustomers(request.getCustomerIds());
+        PortBitmap ports = splitterPortIndex.forLockedSplitter(splitter);
+
+        // All or nothing: check capacity before touching any customer
+        if (ports.free() < customers.size()) {
+            throw new RuntimeException("Splitter " + splitter.getSplitterId() + " has only " + ports.free() +
+                    " free ports for " + customers.size() + " customers");
+        }
+
+        List<PortAssignmentDTO> assignments = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            int port = ports.claimLowest();
+            attach(customer, splitter, port);
+            assignments.add(new PortAssignmentDTO(customer.getCustomerId(), splitter.getSplitterId(), port));
+        }
+
+        logActivity("SPLITTER_PORTS_ASSIGNED",
+                "Assigned " + assignments.size() + " ports on splitter " + splitter.getSplitterId());
+
+        saveUsage(splitter, ports);
+
+        return assignments;
+    }
+
+    /**
+     * Applies a precomputed plan of customers per splitter in one transaction. Unlike
+     * {@link #assignPorts} this is best effort: customers that were attached, activated or
+     * deleted since the plan was made, or that no longer fit on their splitter, are skipped.
+     */
+    @Transactional
+    public List<PortAssignmentDTO> assignPlanned(Map<Long, List<Long>> customerIdsBySplitter) {
+        if (customerIdsBySplitter.isEmpty()) {
+            return List.of();
+        }
+
+        // Same lock order as the single-splitter operations: splitters first, then customers
+        List<Splitter> splitters = splitterRepository.findAllByIdForUpdate(customerIdsBySplitter.keySet());
+        List<Long> customerIds = new ArrayList<>();
+        customerIdsBySplitter.values().forEach(customerIds::addAll);
+        Map<Long, Customer> customers = new HashMap<>();
+        for (Customer customer : customerRepository.findAllByIdForUpdate(customerIds)) {
+            customers.put(customer.getCustomerId(), customer);
+        }
+
+        List<PortAssignmentDTO> assignments = new ArrayList<>(customerIds.size());
+        Map<Long, PortBitmap> touched = new HashMap<>();
+        for (Splitter splitter : splitters) {
+            PortBitmap ports = splitterPortIndex.forLockedSplitter(splitter);
+            for (Long customerId : customerIdsBySplitter.get(splitter.getSplitterId())) {
+                Customer customer = customers.get(customerId);
+                if (customer == null || customer.getSplitter() != null ||
+                        customer.getStatus() != CustomerStatus.Pending) {
+                    continue;
+                }
+                int port = ports.claimLowest();
+                if (port < 0) {
+                    break;
+                }
+                attach(customer, splitter, port);
+                assignments.add(new PortAssignmentDTO(customerId, splitter.getSplitterId(), port));
+                touched.put(splitter.getSplitterId(), ports);
+            }
+        }
+
+        logActivity("SPLITTER_PORTS_OPTIMIZED",
+                "Assigned " + assignments.size() + " pending customers across " + touched.size() + " splitters");
+
+        for (Splitter splitter : splitters) {
+            PortBitmap ports = touched.get(splitter.getSplitterId());
+            if (ports != null) {
+                saveUsage(splitter, ports);
+            }
+        }
+
+        return assignments;
+    }
+
+    /**
+     * Re-patches customers between splitter ports, all or nothing. Every move must still match
+     * the current state: the customer on its source port and the target port free. Active drop
+     * lines follow their customer to the new splitter.
+     */
+    @Transactional
+    public int moveCustomers(List<DefragMove> moves) {
+        if (moves.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> splitterIds = new TreeSet<>();
+        List<Long> customerIds = new ArrayList<>(moves.size());
+        for (DefragMove move : moves) {
+            splitterIds.add(move.getFromSplitterId());
+            splitterIds.add(move.getToSplitterId());
+            customerIds.add(move.getCustomerId());
+        }
+
+        Map<Long, Splitter> splitters = new HashMap<>();
+        for (Splitter splitter : splitterRepository.findAllByIdForUpdate(splitterIds)) {
+            splitters.put(splitter.getSplitterId(), splitter);
+        }
+        Map<Long, Customer> customers = new HashMap<>();
+        for (Customer customer : customerRepository.findAllByIdForUpdate(customerIds)) {
+            customers.put(customer.getCustomerId(), customer);
+        }
+
+        Map<Long, PortBitmap> touched = new TreeMap<>();
+        for (DefragMove move : moves) {
+            Splitter from = splitters.get(move.getFromSplitterId());
+            Splitter to = splitters.get(move.getToSplitterId());
+            Customer customer = customers.get(move.getCustomerId());
+            if (from == null || to == null) {
+                throw new RuntimeException("Splitter not found");
+            }
+            if (customer == null || customer.getSplitter() == null ||
+                    !customer.getSplitter().getSplitterId().equals(from.getSplitterId()) ||
+                    !move.getFromPort().equals(customer.getAssignedPort())) {
+                throw new RuntimeException("Customer " + move.getCustomerId() + " is no longer on port " +
+                        move.getFromPort() + " of splitter " + from.getSplitterId());
+            }
+
+            PortBitmap fromPorts = touched.computeIfAbsent(from.getSplitterId(),
+                    id -> splitterPortIndex.forLockedSplitter(from));
+            PortBitmap toPorts = touched.computeIfAbsent(to.getSplitterId(),
+                    id -> splitterPortIndex.forLockedSplitter(to));
+            if (!toPorts.claim(move.getToPort())) {
+                throw new RuntimeException("Port " + move.getToPort() + " is not free on splitter " +
+                        to.getSplitterId());
+            }
+            fromPorts.release(move.getFromPort());
+            attach(customer, to, move.getToPort());
+        }
+
+        Map<Long, Long> targets = new HashMap<>();
+        moves.forEach(move -> targets.put(move.getCustomerId(), move.getToSplitterId()));
+        for (FiberDropLine line : fiberDropLineRepository.findByToCustomer_CustomerIdInAndStatus(
+                targets.keySet(), LineStatus.Active)) {
+            line.setFromSplitter(splitters.get(targets.get(line.getToCustomer().getCustomerId())));
+            fiberDropLineRepository.save(line);
+        }
+
+        logActivity("SPLITTER_PORTS_REPATCHED",
+                "Re-patched " + moves.size() + " customers across " + touched.size() + " splitters");
+
+        touched.forEach((splitterId, ports) -> saveUsage(splitters.get(splitterId), ports));
+
+        return moves.size();
+    }
+
+    @Transactional
+    public void releasePort(Long customerId) {
+        // Only the splitter id is read before locking: a managed entity loaded here would be
+        // handed back unrefreshed by the locking queries below
+        Long splitterId = customerRepository.findSplitterIdOf(customerId).orElse(null);
+        if (splitterId == null) {
+            if (!customerRepository.existsById(customerId)) {
+                throw new RuntimeException("Customer not found");
+            }
+            throw new RuntimeException("Customer is not attached to a splitter");
+        }
+
+        Splitter splitter = lockSplitter(splitterId);
+        List<Customer> locked = customerRepository.findAllByIdForUpdate(List.of(customerId));
+        if (locked.isEmpty()) {
+            throw new RuntimeException("Customer not found");
+        }
+        Customer customer = locked.get(0);
+
+        // Re-check under the lock in case the customer was moved meanwhile
+        if (customer.getSplitter() == null ||
+                !customer.getSplitter().getSplitterId().equals(splitter.getSplitterId())) {
+            throw new RuntimeException("Customer is no longer attached to splitter " + splitter.getSplitterId());
+        }
+
+        PortBitmap ports = splitterPortIndex.forLockedSplitter(splitter);
+        Integer port = customer.getAssignedPort();
+        if (port != null) {
+            ports.release(port);
+        }
+
+        customer.setSplitter(null);
+        customer.setAssignedPort(null);
+        customerRepository.save(customer);
+
+        logActivity("SPLITTER_PORT_RELEASED",
+                "Released port " + port + " on splitter " + splitter.getSplitterId() +
+                        " from customer: " + customer.getName());
+
+        saveUsage(splitter, ports);
+    }
+
+    private Splitter lockSplitter(Long splitterId) {
+        return splitterRepository.findByIdForUpdate(splitterId)
+                .orElseThrow(() -> new RuntimeException("Splitter not found"));
+    }
+
+    private List<Customer> lockUnassignedCustomers(List<Long> customerIds) {
+        Set<Long> ids = new LinkedHashSet<>(customerIds);
+        List<Customer> customers = customerRepository.findAllByIdForUpdate(ids);
+        if (customers.size() != ids.size()) {
+            throw new RuntimeException("Customer not found");
+        }
+        for (Customer customer : customers) {
+            if (customer.getSplitter() != null) {
+                throw new RuntimeException("Customer " + customer.getCustomerId() +
+                        " is already attached to splitter " + customer.getSplitter().getSplitterId());
+            }
+        }
+        return customers;
+    }
+
+    private void attach(Customer customer, Splitter splitter, int port) {
+        customer.setSplitter(splitter);
+        customer.setAssignedPort(port);
+        customerRepository.save(customer);
+    }
+
+    private void saveUsage(Splitter splitter, PortBitmap ports) {
+        int previousUsed = splitter.getUsedPorts() != null ? splitter.getUsedPorts() : 0;
+
+        // usedPorts is derived from the bitmap so the two columns cannot drift apart
+        splitter.setUsedPorts(ports.used());
+        splitter.setPortBitmap(ports.toBytes());
+        splitterRepository.save(splitter);
+
+        capacityRollupService.applyUsedPortsDelta(
+                splitter.getFdh() != null ? splitter.getFdh().getFdhId() : null,
+                splitter.getFdh() != null ? splitter.getFdh().getRegion() : null,
+                ports.used() - previousUsed);
+    }
+
+    private void logActivity(String actionType, String description) {
+        try {
+            User deploymentLead = userRepository.findByUsername("deploymentlead").orElse(null);
+            if (deploymentLead != null) {
+                AuditLog log = new AuditLog();
+                log.setUser(deploymentLead);
+                log.setActionType(actionType);
+                log.setDescription(description);
+                log.setTimestamp(LocalDateTime.now());
+                auditLogRepository.save(log);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to log activity: " + e.getMessage());
+        }
+    }
+}
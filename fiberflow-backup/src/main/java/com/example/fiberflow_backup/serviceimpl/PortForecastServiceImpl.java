@@ -0,0 +1,230 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.AttachmentRow;
+import com.example.fiberflow_backup.dto.FDHCapacityRow;
+import com.example.fiberflow_backup.dto.PortForecastDTO;
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
+import com.example.fiberflow_backup.enums.ExhaustionRisk;
+import com.example.fiberflow_backup.enums.ForecastScope;
+import com.example.fiberflow_backup.model.PortForecast;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.FDHRepository;
+import com.example.fiberflow_backup.repository.PortForecastRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import com.example.fiberflow_backup.service.PortForecastService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Projects when each FDH and splitter runs out of ports.
+ * <p>
+ * Connection growth is the daily count of port-assigned customers by creation date over a
+ * trailing window. A least-squares trend is fitted to the cumulative series of every element
+ * in parallel. Results are kept in {@code port_forecasts}; a refresh only rewrites rows whose
+ * forecast actually changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class PortForecastServiceImpl implements PortForecastService {
+
+    // Beyond this horizon a trend is too flat to call an exhaustion date
+    private static final int MAX_HORIZON_DAYS = 3650;
+    private static final int MAX_RANKING_SIZE = 500;
+
+    private final CustomerRepository customerRepository;
+    private final SplitterRepository splitterRepository;
+    private final FDHRepository fdhRepository;
+    private final PortForecastRepository portForecastRepository;
+
+    @Value("${fiberflow.forecast.window-days:180}")
+    private int windowDays;
+
+    private record Series(ForecastScope scope, Long elementId, String name, String region,
+                          int totalPorts, int usedPorts, int[] daily) {}
+
+    private record Fit(Series series, double growthPerDay, Integer daysToExhaustion, LocalDate projectedExhaustion) {}
+
+    @Scheduled(cron = "${fiberflow.forecast.cron:0 30 2 * * *}")
+    @Transactional
+    public int refreshForecasts() {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(windowDays - 1);
+
+        // Daily new connections per splitter, then summed up per FDH
+        Map<Long, int[]> splitterDaily = new HashMap<>();
+        for (AttachmentRow row : customerRepository.findAttachmentsSince(start.atStartOfDay())) {
+            int day = (int) ChronoUnit.DAYS.between(start, row.getCreatedAt().toLocalDate());
+            if (day >= 0 && day < windowDays) {
+                splitterDaily.computeIfAbsent(row.getSplitterId(), k -> new int[windowDays])[day]++;
+            }
+        }
+
+        List<FDHCapacityRow> fdhs = fdhRepository.findCapacityRows();
+        Map<Long, String> fdhRegions = new HashMap<>();
+        for (FDHCapacityRow fdh : fdhs) {
+            fdhRegions.put(fdh.getFdhId(), fdh.getRegion());
+        }
+
+        List<Series> series = new ArrayList<>();
+        Map<Long, int[]> fdhDaily = new HashMap<>();
+        for (SplitterTopologyRow splitter : splitterRepository.findTopologyRows()) {
+            int[] daily = splitterDaily.getOrDefault(splitter.getSplitterId(), new int[windowDays]);
+            series.add(new Series(ForecastScope.SPLITTER, splitter.getSplitterId(), splitter.getModel(),
+                    fdhRegions.get(splitter.getFdhId()), unbox(splitter.getPortCapacity()),
+                    unbox(splitter.getUsedPorts()), daily));
+            if (splitter.getFdhId() != null) {
+                int[] total = fdhDaily.computeIfAbsent(splitter.getFdhId(), k -> new int[windowDays]);
+                for (int day = 0; day < windowDays; day++) {
+                    total[day] += daily[day];
+                }
+            }
+        }
+        for (FDHCapacityRow fdh : fdhs) {
+            series.add(new Series(ForecastScope.FDH, fdh.getFdhId(), fdh.getName(), fdh.getRegion(),
+                    fdh.getTotalPorts().intValue(), fdh.getUsedPorts().intValue(),
+                    fdhDaily.getOrDefault(fdh.getFdhId(), new int[windowDays])));
+        }
+
+        List<Fit> fits = series.parallelStream()
+                .map(s -> fit(s, today))
+                .collect(Collectors.toList());
+
+        // Upsert against the stored forecasts; unchanged rows are left alone
+        Map<String, PortForecast> existing = new HashMap<>();
+        for (PortForecast forecast : portForecastRepository.findAll()) {
+            existing.put(key(forecast.getScope(), forecast.getElementId()), forecast);
+        }
+
+        List<PortForecast> changed = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Fit fit : fits) {
+            Series s = fit.series();
+            PortForecast forecast = existing.remove(key(s.scope(), s.elementId()));
+            if (forecast == null) {
+                forecast = new PortForecast();
+                forecast.setScope(s.scope());
+                forecast.setElementId(s.elementId());
+            } else if (sameForecast(forecast, fit)) {
+                continue;
+            }
+            forecast.setName(s.name());
+            forecast.setRegion(s.region());
+            forecast.setTotalPorts(s.totalPorts());
+            forecast.setUsedPorts(s.usedPorts());
+            forecast.setGrowthPerDay(fit.growthPerDay());
+            forecast.setDaysToExhaustion(fit.daysToExhaustion());
+            forecast.setProjectedExhaustion(fit.projectedExhaustion());
+            forecast.setRisk(ExhaustionRisk.of(fit.daysToExhaustion()));
+            forecast.setUpdatedAt(now);
+            changed.add(forecast);
+        }
+
+        portForecastRepository.saveAll(changed);
+        // Elements that no longer exist
+        portForecastRepository.deleteAll(existing.values());
+        return changed.size();
+    }
+
+    public List<PortForecastDTO> getRiskRanking(String scope, int limit) {
+        if (limit < 1 || limit > MAX_RANKING_SIZE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_RANKING_SIZE);
+        }
+        return portForecastRepository.findRiskRanking(parseScope(scope), PageRequest.of(0, limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public PortForecastDTO getForecast(String scope, Long elementId) {
+        PortForecast forecast = portForecastRepository.findByScopeAndElementId(parseScope(scope), elementId)
+                .orElseThrow(() -> new RuntimeException("No forecast for " + scope + " " + elementId));
+        return convertToDTO(forecast);
+    }
+
+    /**
+     * Least-squares slope of the cumulative connection count against the day index.
+     */
+    private Fit fit(Series series, LocalDate today) {
+        int[] daily = series.daily();
+        int n = daily.length;
+        double meanX = (n - 1) / 2.0;
+        double sumXY = 0;
+        long cumulative = 0;
+        for (int day = 0; day < n; day++) {
+            cumulative += daily[day];
+            sumXY += (day - meanX) * cumulative;
+        }
+        double sumXX = n * ((double) n * n - 1) / 12.0;
+        double slope = sumXX > 0 ? sumXY / sumXX : 0;
+        double growth = Math.max(0, Math.round(slope * 10_000) / 10_000.0);
+
+        int free = series.totalPorts() - series.usedPorts();
+        Integer days;
+        if (free <= 0) {
+            days = 0;
+        } else if (growth <= 0) {
+            days = null;
+        } else {
+            double projected = Math.ceil(free / growth);
+            days = projected <= MAX_HORIZON_DAYS ? (int) projected : null;
+        }
+        return new Fit(series, growth, days, days != null ? today.plusDays(days) : null);
+    }
+
+    private boolean sameForecast(PortForecast forecast, Fit fit) {
+        Series s = fit.series();
+        return forecast.getTotalPorts() == s.totalPorts() &&
+                forecast.getUsedPorts() == s.usedPorts() &&
+                forecast.getGrowthPerDay() == fit.growthPerDay() &&
+                Objects.equals(forecast.getDaysToExhaustion(), fit.daysToExhaustion()) &&
+                Objects.equals(forecast.getProjectedExhaustion(), fit.projectedExhaustion()) &&
+                Objects.equals(forecast.getName(), s.name()) &&
+                Objects.equals(forecast.getRegion(), s.region());
+    }
+
+    private ForecastScope parseScope(String scope) {
+        try {
+            return ForecastScope.valueOf(scope.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown forecast scope: " + scope + " (expected FDH or SPLITTER)");
+        }
+    }
+
+    private static String key(ForecastScope scope, Long elementId) {
+        return scope + ":" + elementId;
+    }
+
+    private static int unbox(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private PortForecastDTO convertToDTO(PortForecast forecast) {
+        return new PortForecastDTO(
+                forecast.getScope().name(),
+                forecast.getElementId(),
+                forecast.getName(),
+                forecast.getRegion(),
+                forecast.getTotalPorts(),
+                forecast.getUsedPorts(),
+                forecast.getGrowthPerDay(),
+                forecast.getDaysToExhaustion(),
+                forecast.getProjectedExhaustion(),
+                forecast.getRisk().name(),
+                forecast.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.NeighborhoodSplitterRow;
+import com.example.fiberflow_backup.dto.SimulationResultDTO;
+import com.example.fiberflow_backup.dto.SimulationResultDTO.NeighborhoodOverflow;
+import com.example.fiberflow_backup.dto.SimulationScenarioRequest;
+import com.example.fiberflow_backup.dto.SimulationScenarioRequest.SimulatedDemand;
+import com.example.fiberflow_backup.dto.SimulationScenarioRequest.SimulatedFDH;
+import com.example.fiberflow_backup.dto.SimulationScenarioRequest.SimulatedSplitter;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.service.SimulationService;
+import com.example.fiberflow_backup.topology.CapacityModel;
+import com.example.fiberflow_backup.topology.CapacityScenario;
+import com.example.fiberflow_backup.topology.NetworkTopologyGraph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Runs planner what-if scenarios against an in-memory copy of FDH and splitter capacity.
+ * Production rows are never written.
+ * <p>
+ * The capacity model is immutable and shared by all scenarios; it is rebuilt only when the
+ * topology version has moved. Each scenario keeps its changes in a copy-on-write overlay, so
+ * several scenarios run in parallel without coordination.
+ */
+@Service
+@RequiredArgsConstructor
+public class SimulationServiceImpl implements SimulationService {
+
+    private static final int MAX_SCENARIOS = 20;
+    private static final int MAX_NEW_SPLITTERS = 100_000;
+
+    private final NetworkTopologyGraph topologyGraph;
+    private final CustomerRepository customerRepository;
+
+    private final AtomicReference<CapacityModel> cachedModel = new AtomicReference<>();
+
+    public List<SimulationResultDTO> runScenarios(List<SimulationScenarioRequest> scenarios) {
+        if (scenarios == null || scenarios.isEmpty()) {
+            throw new RuntimeException("At least one scenario is required");
+        }
+        if (scenarios.size() > MAX_SCENARIOS) {
+            throw new RuntimeException("At most " + MAX_SCENARIOS + " scenarios can run at once");
+        }
+        scenarios.forEach(this::validate);
+
+        CapacityModel model = currentModel();
+        return scenarios.parallelStream()
+                .map(scenario -> run(model, scenario))
+                .collect(Collectors.toList());
+    }
+
+    private CapacityModel currentModel() {
+        CapacityModel model = cachedModel.get();
+        if (model != null && model.getVersion() == topologyGraph.getVersion()) {
+            return model;
+        }
+
+        Map<String, List<Long>> neighborhoods = new HashMap<>();
+        for (NeighborhoodSplitterRow row : customerRepository.findNeighborhoodSplitters()) {
+            neighborhoods.computeIfAbsent(row.getNeighborhood(), k -> new ArrayList<>()).add(row.getSplitterId());
+        }
+        model = topologyGraph.getCapacityModel().withNeighborhoods(neighborhoods);
+        cachedModel.set(model);
+        return model;
+    }
+
+    private SimulationResultDTO run(CapacityModel model, SimulationScenarioRequest request) {
+        CapacityScenario scenario = new CapacityScenario(model);
+
+        Map<String, Integer> fdhRefs = new HashMap<>();
+        for (SimulatedFDH fdh : request.getFdhs()) {
+            int index = scenario.addFdh(fdh.getName(), fdh.getRegion(), fdh.getMaxPorts() != null ? fdh.getMaxPorts() : 0);
+            if (fdh.getRef() != null) {
+                fdhRefs.put(fdh.getRef(), index);
+            }
+        }
+
+        for (SimulatedSplitter splitter : request.getSplitters()) {
+            int fdhIndex;
+            if (splitter.getFdhRef() != null) {
+                fdhIndex = fdhRefs.getOrDefault(splitter.getFdhRef(), -1);
+            } else {
+                fdhIndex = scenario.fdhIndex(splitter.getFdhId());
+            }
+            if (fdhIndex < 0) {
+                throw new RuntimeException("Unknown FDH for simulated splitter: " +
+                        (splitter.getFdhRef() != null ? splitter.getFdhRef() : splitter.getFdhId()));
+            }
+            for (int i = 0; i < count(splitter); i++) {
+                scenario.addSplitter(fdhIndex, splitter.getPortCapacity(), splitter.getNeighborhood());
+            }
+        }
+
+        int requested = 0;
+        int placed = 0;
+        List<NeighborhoodOverflow> overflow = new ArrayList<>();
+        for (SimulatedDemand demand : request.getDemand()) {
+            int placedHere = scenario.addCustomers(demand.getNeighborhood(), demand.getCustomers());
+            requested += demand.getCustomers();
+            placed += placedHere;
+            if (placedHere < demand.getCustomers()) {
+                overflow.add(new NeighborhoodOverflow(demand.getNeighborhood(), demand.getCustomers(),
+                        placedHere, demand.getCustomers() - placedHere));
+            }
+        }
+
+        return new SimulationResultDTO(
+                request.getName(),
+                model.getVersion(),
+                requested,
+                placed,
+                requested - placed,
+                scenario.getTouchedFdhCapacity(),
+                scenario.getFdhsOverMaxPorts(),
+                overflow
+        );
+    }
+
+    private void validate(SimulationScenarioRequest request) {
+        if (request.getFdhs() == null || request.getSplitters() == null || request.getDemand() == null) {
+            throw new RuntimeException("fdhs, splitters and demand must be lists (may be empty)");
+        }
+        long newSplitters = 0;
+        for (SimulatedSplitter splitter : request.getSplitters()) {
+            if (splitter.getPortCapacity() == null || splitter.getPortCapacity() < 1) {
+                throw new RuntimeException("Simulated splitters need a positive port capacity");
+            }
+            if (splitter.getFdhId() == null && splitter.getFdhRef() == null) {
+                throw new RuntimeException("Simulated splitters need an fdhId or fdhRef");
+            }
+            if (count(splitter) < 1) {
+                throw new RuntimeException("Simulated splitter count must be positive");
+            }
+            newSplitters += count(splitter);
+        }
+        if (newSplitters > MAX_NEW_SPLITTERS) {
+            throw new RuntimeException("A scenario can add at most " + MAX_NEW_SPLITTERS + " splitters");
+        }
+        for (SimulatedDemand demand : request.getDemand()) {
+            if (demand.getNeighborhood() == null || demand.getCustomers() == null || demand.getCustomers() < 0) {
+                throw new RuntimeException("Demand needs a neighborhood and a non-negative customer count");
+            }
+        }
+    }
+
+    private static int count(SimulatedSplitter splitter) {
+        return splitter.getCount() != null ? splitter.getCount() : 1;
+    }
+}
@@ -6,6 +6,7 @@ import com.example.fiberflow_backup.dto.CustomerDetailDTO.*;
 import com.example.fiberflow_backup.model.*;
 import com.example.fiberflow_backup.repository.*;
 import com.example.fiberflow_backup.service.SupportService;
+import com.example.fiberflow_backup.topology.NetworkTopologyGraph;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +22,7 @@ public class SupportServiceImpl implements SupportService {
     private final CustomerRepository customerRepository;
     private final SupportTicketRepository supportTicketRepository;
     private final AssignedAssetsRepository assignedAssetsRepository;
+    private final NetworkTopologyGraph topologyGraph;
 
     public SupportDashboardResponse getSupportDashboard() {
         // Calculate metrics
@@ -44,16 +46,8 @@ public class SupportServiceImpl implements SupportService {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
 
-        // Get splitter info
-        SplitterInfo splitterInfo = null;
-        if (customer.getSplitter() != null) {
-            Splitter splitter = customer.getSplitter();
-            splitterInfo = new SplitterInfo(
-                    splitter.getSplitterId(),
-                    splitter.getModel(),
-                    splitter.getLocation()
-            );
-        }
+        // Get splitter info from the resident topology graph
+        SplitterInfo splitterInfo = topologyGraph.getSplitterInfo(customerId);
 
         // Get assigned assets
         List<AssetInfo> assignedAssets = assignedAssetsRepository
@@ -0,0 +1,222 @@
+package com.example.fiberflow_backup.serviceimpl;
+
+import com.example.fiberflow_backup.dto.FDHCapacityRow;
+import com.example.fiberflow_backup.dto.NeighborhoodSplitterRow;
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
+import com.example.fiberflow_backup.dto.UtilizationBucketRow;
+import com.example.fiberflow_backup.dto.UtilizationCountRow;
+import com.example.fiberflow_backup.dto.UtilizationHeatmapDTO;
+import com.example.fiberflow_backup.dto.UtilizationHeatmapDTO.HeatmapRow;
+import com.example.fiberflow_backup.enums.BucketGranularity;
+import com.example.fiberflow_backup.enums.HeatmapScope;
+import com.example.fiberflow_backup.model.UtilizationBucket;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.FDHRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import com.example.fiberflow_backup.repository.UtilizationBucketRepository;
+import com.example.fiberflow_backup.service.UtilizationHeatmapService;
+import com.example.fiberflow_backup.topology.NetworkTopologyGraph;
+import com.example.fiberflow_backup.topology.NetworkTopologyGraph.FdhRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Utilization heatmap per neighborhood and FDH over time.
+ * <p>
+ * Every hour the current ports used, port capacity and active and pending customer counts are
+ * sampled with a few aggregate queries and written to {@code utilization_buckets}: once as the
+ * hour's bucket and once over the day's bucket, so a daily bucket holds the last sample of its
+ * day. Hourly buckets are kept for a short window, daily ones for over a year. A heatmap is one
+ * range read of the bucket table laid out as a grid; raw customer and splitter rows are never
+ * touched at query time.
+ * <p>
+ * A neighborhood has no splitters of its own, so its capacity is that of the splitters its
+ * customers are attached to and its used ports are its attached customers.
+ */
+@Service
+@RequiredArgsConstructor
+public class UtilizationHeatmapServiceImpl implements UtilizationHeatmapService {
+
+    private final CustomerRepository customerRepository;
+    private final SplitterRepository splitterRepository;
+    private final FDHRepository fdhRepository;
+    private final UtilizationBucketRepository utilizationBucketRepository;
+    private final NetworkTopologyGraph topologyGraph;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${fiberflow.heatmap.hourly-retention-days:14}")
+    private int hourlyRetentionDays;
+
+    @Value("${fiberflow.heatmap.daily-retention-days:400}")
+    private int dailyRetentionDays;
+
+    private record Sample(HeatmapScope scope, String scopeKey, int totalPorts, int usedPorts,
+                          int activeCustomers, int pendingCustomers) {}
+
+    @Scheduled(cron = "${fiberflow.heatmap.cron:0 0 * * * *}")
+    @Transactional
+    public int captureBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Sample> samples = new ArrayList<>();
+        sampleNeighborhoods(samples);
+        sampleFdhs(samples);
+
+        int written = 0;
+        for (BucketGranularity granularity : BucketGranularity.values()) {
+            written += upsert(granularity, granularity.bucketOf(now), samples);
+        }
+
+        utilizationBucketRepository.deleteOlderThan(BucketGranularity.HOUR,
+                BucketGranularity.HOUR.bucketOf(now).minusDays(hourlyRetentionDays));
+        utilizationBucketRepository.deleteOlderThan(BucketGranularity.DAY,
+                BucketGranularity.DAY.bucketOf(now).minusDays(dailyRetentionDays));
+        return written;
+    }
+
+    public UtilizationHeatmapDTO getHeatmap(String scope, String granularity, int days) {
+        HeatmapScope heatmapScope = parseScope(scope);
+        BucketGranularity bucketGranularity = parseGranularity(granularity);
+        int retention = bucketGranularity == BucketGranularity.HOUR ? hourlyRetentionDays : dailyRetentionDays;
+        if (days < 1 || days > retention) {
+            throw new RuntimeException("Days must be between 1 and " + retention + " for " +
+                    bucketGranularity + " buckets");
+        }
+
+        LocalDateTime to = bucketGranularity.bucketOf(LocalDateTime.now());
+        int bucketCount = bucketGranularity == BucketGranularity.HOUR ? days * 24 : days;
+        LocalDateTime from = to.minus(bucketCount - 1, bucketGranularity.getUnit());
+
+        List<LocalDateTime> buckets = new ArrayList<>(bucketCount);
+        Map<LocalDateTime, Integer> columns = new HashMap<>();
+        for (int i = 0; i < bucketCount; i++) {
+            LocalDateTime bucket = from.plus(i, bucketGranularity.getUnit());
+            buckets.add(bucket);
+            columns.put(bucket, i);
+        }
+
+        Map<String, HeatmapRow> rows = new HashMap<>();
+        for (UtilizationBucketRow bucket : utilizationBucketRepository.findGrid(heatmapScope, bucketGranularity, from, to)) {
+            Integer column = columns.get(bucket.getBucketStart());
+            if (column == null) {
+                continue;
+            }
+            HeatmapRow row = rows.computeIfAbsent(bucket.getScopeKey(), key -> new HeatmapRow(key,
+                    nameOf(heatmapScope, key), new Double[bucketCount], new Integer[bucketCount], new Integer[bucketCount]));
+            row.getUtilization()[column] = bucket.getTotalPorts() > 0
+                    ? Math.round(bucket.getUsedPorts() * 1000.0 / bucket.getTotalPorts()) / 10.0
+                    : 0.0;
+            row.getActiveCustomers()[column] = bucket.getActiveCustomers();
+            row.getPendingCustomers()[column] = bucket.getPendingCustomers();
+        }
+
+        List<HeatmapRow> sorted = new ArrayList<>(rows.values());
+        sorted.sort(heatmapScope == HeatmapScope.FDH
+                ? Comparator.comparing(row -> Long.valueOf(row.getKey()))
+                : Comparator.comparing(HeatmapRow::getKey));
+        return new UtilizationHeatmapDTO(heatmapScope.name(), bucketGranularity.name(), buckets, sorted);
+    }
+
+    private void sampleNeighborhoods(List<Sample> samples) {
+        Map<Long, Integer> splitterCapacity = new HashMap<>();
+        for (SplitterTopologyRow splitter : splitterRepository.findTopologyRows()) {
+            splitterCapacity.put(splitter.getSplitterId(),
+                    splitter.getPortCapacity() != null ? splitter.getPortCapacity() : 0);
+        }
+        Map<String, Integer> capacity = new HashMap<>();
+        for (NeighborhoodSplitterRow row : customerRepository.findNeighborhoodSplitters()) {
+            capacity.merge(row.getNeighborhood(), splitterCapacity.getOrDefault(row.getSplitterId(), 0), Integer::sum);
+        }
+        for (UtilizationCountRow row : customerRepository.findNeighborhoodUtilizationRows()) {
+            samples.add(new Sample(HeatmapScope.NEIGHBORHOOD, row.getScopeKey(),
+                    capacity.getOrDefault(row.getScopeKey(), 0), row.getUsedPorts().intValue(),
+                    row.getActive().intValue(), row.getPending().intValue()));
+        }
+    }
+
+    private void sampleFdhs(List<Sample> samples) {
+        Map<String, UtilizationCountRow> customers = new HashMap<>();
+        for (UtilizationCountRow row : customerRepository.findFdhUtilizationRows()) {
+            customers.put(row.getScopeKey(), row);
+        }
+        for (FDHCapacityRow fdh : fdhRepository.findCapacityRows()) {
+            String key = String.valueOf(fdh.getFdhId());
+            UtilizationCountRow counts = customers.get(key);
+            samples.add(new Sample(HeatmapScope.FDH, key, fdh.getTotalPorts().intValue(),
+                    fdh.getUsedPorts().intValue(),
+                    counts != null ? counts.getActive().intValue() : 0,
+                    counts != null ? counts.getPending().intValue() : 0));
+        }
+    }
+
+    // Writes the samples into one bucket; rows that already hold the same values are left alone.
+    // The write is an upsert on the bucket's unique key, so a manual capture racing the hourly one
+    // cannot fail on a row the other inserted first.
+    private int upsert(BucketGranularity granularity, LocalDateTime bucketStart, List<Sample> samples) {
+        Map<String, UtilizationBucket> existing = new HashMap<>();
+        for (UtilizationBucket bucket : utilizationBucketRepository.findByGranularityAndBucketStart(granularity, bucketStart)) {
+            existing.put(key(bucket.getScope(), bucket.getScopeKey()), bucket);
+        }
+
+        List<Object[]> changed = new ArrayList<>();
+        for (Sample sample : samples) {
+            UtilizationBucket bucket = existing.get(key(sample.scope(), sample.scopeKey()));
+            if (bucket != null &&
+                    bucket.getTotalPorts() == sample.totalPorts() &&
+                    bucket.getUsedPorts() == sample.usedPorts() &&
+                    bucket.getActiveCustomers() == sample.activeCustomers() &&
+                    bucket.getPendingCustomers() == sample.pendingCustomers()) {
+                continue;
+            }
+            changed.add(new Object[]{sample.scope().name(), sample.scopeKey(), granularity.name(), bucketStart,
+                    sample.totalPorts(), sample.usedPorts(), sample.activeCustomers(), sample.pendingCustomers()});
+        }
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO utilization_buckets (scope, scope_key, granularity, bucket_start, " +
+                    "total_ports, used_ports, active_customers, pending_customers) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE total_ports = VALUES(total_ports), used_ports = VALUES(used_ports), " +
+                    "active_customers = VALUES(active_customers), pending_customers = VALUES(pending_customers)",
+                    changed);
+        }
+        return changed.size();
+    }
+
+    private String nameOf(HeatmapScope scope, String key) {
+        if (scope == HeatmapScope.FDH) {
+            FdhRef fdh = topologyGraph.getFdh(Long.valueOf(key));
+            return fdh != null ? fdh.name() : null;
+        }
+        return key;
+    }
+
+    private HeatmapScope parseScope(String scope) {
+        try {
+            return HeatmapScope.valueOf(scope.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown heatmap scope: " + scope + " (expected NEIGHBORHOOD or FDH)");
+        }
+    }
+
+    private BucketGranularity parseGranularity(String granularity) {
+        try {
+            return BucketGranularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown bucket granularity: " + granularity + " (expected HOUR or DAY)");
+        }
+    }
+
+    private static String key(HeatmapScope scope, String scopeKey) {
+        return scope + ":" + scopeKey;
+    }
+}
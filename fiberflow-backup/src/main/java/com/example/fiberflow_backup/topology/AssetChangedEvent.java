@@ -0,0 +1,29 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.enums.AssetStatus;
+import com.example.fiberflow_backup.enums.AssetType;
+import com.example.fiberflow_backup.model.Asset;
+
+public record AssetChangedEvent(
+        Long assetId,
+        AssetType assetType,
+        String serialNumber,
+        String model,
+        String location,
+        AssetStatus status,
+        Long assignedToCustomerId,
+        boolean removed
+) {
+    public static AssetChangedEvent of(Asset asset, boolean removed) {
+        return new AssetChangedEvent(
+                asset.getAssetId(),
+                asset.getAssetType(),
+                asset.getSerialNumber(),
+                asset.getModel(),
+                asset.getLocation(),
+                asset.getStatus(),
+                asset.getAssignedToCustomerId(),
+                removed
+        );
+    }
+}
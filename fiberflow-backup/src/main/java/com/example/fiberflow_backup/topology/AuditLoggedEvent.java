@@ -0,0 +1,26 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.enums.AuditCategory;
+import com.example.fiberflow_backup.model.AuditLog;
+
+import java.time.LocalDateTime;
+
+public record AuditLoggedEvent(
+        Long logId,
+        String username,
+        String actionType,
+        AuditCategory category,
+        String description,
+        LocalDateTime timestamp
+) {
+    public static AuditLoggedEvent of(AuditLog log) {
+        return new AuditLoggedEvent(
+                log.getLogId(),
+                log.getUser() != null ? log.getUser().getUsername() : null,
+                log.getActionType(),
+                log.getCategory() != null ? log.getCategory() : AuditCategory.of(log.getActionType()),
+                log.getDescription(),
+                log.getTimestamp()
+        );
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.AssetPoolRow;
+import com.example.fiberflow_backup.enums.AssetStatus;
+import com.example.fiberflow_backup.enums.AssetType;
+import com.example.fiberflow_backup.repository.AssetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Available assets held in memory, queued per asset type and per type and location.
+ * <p>
+ * Membership lives in a concurrent map keyed by asset id; the queues only hold ids. A claim
+ * polls a queue and wins the asset by removing it from the map, so concurrent callers always
+ * get distinct assets and nobody blocks. Ids whose asset was claimed through the other queue,
+ * assigned elsewhere or moved are left in place and skipped when polled; a periodic pass drops
+ * them. The pool follows asset change events, and a periodic pass re-offers available rows it
+ * is missing. A claim is only a reservation: the caller still moves the row to Assigned with a
+ * conditional update, which stays the source of truth.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AvailableAssetPool {
+
+    public record PooledAsset(Long assetId, AssetType assetType, String serialNumber, String model, String location) {}
+
+    private record LocationKey(AssetType assetType, String location) {}
+
+    private final AssetRepository assetRepository;
+
+    private final Map<Long, PooledAsset> available = new ConcurrentHashMap<>();
+    private final Map<AssetType, ConcurrentLinkedQueue<Long>> byType = new ConcurrentHashMap<>();
+    private final Map<LocationKey, ConcurrentLinkedQueue<Long>> byLocation = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // Change events that arrived before the pool was filled; guarded by this
+    private final List<AssetChangedEvent> pendingEvents = new ArrayList<>();
+
+    // Available rows the previous reconcile found missing from the pool
+    private Set<Long> missingLastPass = Set.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    /**
+     * Fills the pool once; afterwards it is only patched and reconciled, since a reload would
+     * race with claims in flight. Events that arrived before the fill are applied after it.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                for (AssetPoolRow row : assetRepository.findAvailablePoolRows()) {
+                    offer(toPooled(row));
+                }
+                pendingEvents.forEach(this::apply);
+                pendingEvents.clear();
+                loaded = true;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssetChanged(AssetChangedEvent event) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    pendingEvents.add(event);
+                    return;
+                }
+            }
+        }
+        apply(event);
+    }
+
+    private void apply(AssetChangedEvent event) {
+        if (!event.removed() && event.status() == AssetStatus.Available && event.assetType() != null) {
+            offer(new PooledAsset(event.assetId(), event.assetType(), event.serialNumber(), event.model(),
+                    event.location()));
+        } else {
+            available.remove(event.assetId());
+        }
+    }
+
+    /**
+     * Takes the next available asset of the type, at the location when one is given, or null
+     * when there is none.
+     */
+    public PooledAsset claim(AssetType assetType, String location) {
+        ensureLoaded();
+        ConcurrentLinkedQueue<Long> queue = location == null
+                ? byType.get(assetType)
+                : byLocation.get(new LocationKey(assetType, location));
+        if (queue == null) {
+            return null;
+        }
+        Long assetId;
+        while ((assetId = queue.poll()) != null) {
+            PooledAsset asset = available.get(assetId);
+            if (asset != null && asset.assetType() == assetType &&
+                    (location == null || location.equals(asset.location())) &&
+                    available.remove(assetId, asset)) {
+                return asset;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts a claimed asset back, e.g. when the allocation that claimed it failed.
+     */
+    public void release(PooledAsset asset) {
+        offer(asset);
+    }
+
+    /**
+     * Puts the claimed asset back if the surrounding transaction rolls back. Register it right
+     * after {@link #claim}, so that any failure before commit returns the asset; cancel the
+     * returned release when the asset turns out not to be available after all.
+     */
+    public PendingRelease releaseOnRollback(PooledAsset asset) {
+        PendingRelease pending = new PendingRelease();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return pending;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK && !pending.cancelled) {
+                    release(asset);
+                }
+            }
+        });
+        return pending;
+    }
+
+    public static final class PendingRelease {
+        private volatile boolean cancelled;
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Available assets of a type in id order, straight from memory.
+     */
+    public List<PooledAsset> getAvailable(AssetType assetType) {
+        ensureLoaded();
+        return available.values().stream()
+                .filter(asset -> asset.assetType() == assetType)
+                .sorted(Comparator.comparing(PooledAsset::assetId))
+                .toList();
+    }
+
+    /**
+     * Drops queued ids that can no longer be claimed through their queue, and duplicates left
+     * by assets that went back and forth.
+     */
+    @Scheduled(fixedDelayString = "${fiberflow.assets.pool-compact-ms:600000}")
+    public void compact() {
+        if (!loaded) {
+            return;
+        }
+        byType.forEach((assetType, queue) -> {
+            Set<Long> seen = new HashSet<>();
+            queue.removeIf(assetId -> {
+                PooledAsset asset = available.get(assetId);
+                return asset == null || asset.assetType() != assetType || !seen.add(assetId);
+            });
+        });
+        byLocation.forEach((key, queue) -> {
+            Set<Long> seen = new HashSet<>();
+            queue.removeIf(assetId -> {
+                PooledAsset asset = available.get(assetId);
+                return asset == null || asset.assetType() != key.assetType() ||
+                        !Objects.equals(asset.location(), key.location()) || !seen.add(assetId);
+            });
+        });
+    }
+
+    /**
+     * Re-offers available rows the pool does not hold, e.g. ones whose change event was lost.
+     * A row is only re-offered when the previous pass missed it too, so an asset claimed by an
+     * allocation that has not committed yet is not handed out twice.
+     */
+    @Scheduled(fixedDelayString = "${fiberflow.assets.pool-reconcile-ms:600000}",
+            initialDelayString = "${fiberflow.assets.pool-reconcile-ms:600000}")
+    public void reconcile() {
+        if (!loaded) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>();
+        int reoffered = 0;
+        for (AssetPoolRow row : assetRepository.findAvailablePoolRows()) {
+            if (!available.containsKey(row.getAssetId())) {
+                missing.add(row.getAssetId());
+                if (missingLastPass.contains(row.getAssetId())) {
+                    offer(toPooled(row));
+                    reoffered++;
+                }
+            }
+        }
+        missingLastPass = missing;
+        if (reoffered > 0) {
+            log.info("Re-offered {} available assets missing from the pool", reoffered);
+        }
+    }
+
+    private static PooledAsset toPooled(AssetPoolRow row) {
+        return new PooledAsset(row.getAssetId(), row.getAssetType(), row.getSerialNumber(), row.getModel(),
+                row.getLocation());
+    }
+
+    // Queues the asset unless the pool already holds it unchanged
+    private void offer(PooledAsset asset) {
+        PooledAsset previous = available.put(asset.assetId(), asset);
+        if (asset.equals(previous)) {
+            return;
+        }
+        byType.computeIfAbsent(asset.assetType(), k -> new ConcurrentLinkedQueue<>()).offer(asset.assetId());
+        if (asset.location() != null) {
+            byLocation.computeIfAbsent(new LocationKey(asset.assetType(), asset.location()),
+                    k -> new ConcurrentLinkedQueue<>()).offer(asset.assetId());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.fiberflow_backup.topology;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of FDH and splitter capacity taken from the topology graph at one version.
+ * Scenarios read it concurrently and keep their own changes on the side.
+ * <p>
+ * FDHs and splitters are addressed by dense index; {@code splitterFdh} refers to an FDH index
+ * or -1. The per-FDH totals are precomputed so a scenario only has to add its own delta.
+ */
+public final class CapacityModel {
+
+    final long version;
+
+    final long[] fdhIds;
+    final String[] fdhNames;
+    final String[] fdhRegions;
+    final int[] fdhMaxPorts;
+    final int[] fdhSplitterCount;
+    final int[] fdhTotalPorts;
+    final int[] fdhUsedPorts;
+
+    final long[] splitterIds;
+    final int[] splitterFdh;
+    final int[] splitterCapacity;
+    final int[] splitterUsed;
+
+    final Map<Long, Integer> fdhIndex;
+    final Map<String, int[]> neighborhoodSplitters;
+
+    CapacityModel(long version, long[] fdhIds, String[] fdhNames, String[] fdhRegions, int[] fdhMaxPorts,
+                  long[] splitterIds, int[] splitterFdh, int[] splitterCapacity, int[] splitterUsed) {
+        this.version = version;
+        this.fdhIds = fdhIds;
+        this.fdhNames = fdhNames;
+        this.fdhRegions = fdhRegions;
+        this.fdhMaxPorts = fdhMaxPorts;
+        this.splitterIds = splitterIds;
+        this.splitterFdh = splitterFdh;
+        this.splitterCapacity = splitterCapacity;
+        this.splitterUsed = splitterUsed;
+        this.neighborhoodSplitters = Map.of();
+
+        this.fdhIndex = new HashMap<>(fdhIds.length * 2);
+        for (int i = 0; i < fdhIds.length; i++) {
+            fdhIndex.put(fdhIds[i], i);
+        }
+        this.fdhSplitterCount = new int[fdhIds.length];
+        this.fdhTotalPorts = new int[fdhIds.length];
+        this.fdhUsedPorts = new int[fdhIds.length];
+        for (int i = 0; i < splitterIds.length; i++) {
+            int fdh = splitterFdh[i];
+            if (fdh >= 0) {
+                fdhSplitterCount[fdh]++;
+                fdhTotalPorts[fdh] += splitterCapacity[i];
+                fdhUsedPorts[fdh] += splitterUsed[i];
+            }
+        }
+    }
+
+    private CapacityModel(CapacityModel base, Map<String, int[]> neighborhoodSplitters) {
+        this.version = base.version;
+        this.fdhIds = base.fdhIds;
+        this.fdhNames = base.fdhNames;
+        this.fdhRegions = base.fdhRegions;
+        this.fdhMaxPorts = base.fdhMaxPorts;
+        this.fdhSplitterCount = base.fdhSplitterCount;
+        this.fdhTotalPorts = base.fdhTotalPorts;
+        this.fdhUsedPorts = base.fdhUsedPorts;
+        this.splitterIds = base.splitterIds;
+        this.splitterFdh = base.splitterFdh;
+        this.splitterCapacity = base.splitterCapacity;
+        this.splitterUsed = base.splitterUsed;
+        this.fdhIndex = base.fdhIndex;
+        this.neighborhoodSplitters = neighborhoodSplitters;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Same capacity, plus which splitters currently serve each neighborhood. New customers of a
+     * neighborhood are placed on those splitters first.
+     */
+    public CapacityModel withNeighborhoods(Map<String, List<Long>> splitterIdsByNeighborhood) {
+        Map<Long, Integer> splitterIndex = new HashMap<>(splitterIds.length * 2);
+        for (int i = 0; i < splitterIds.length; i++) {
+            splitterIndex.put(splitterIds[i], i);
+        }
+        Map<String, int[]> neighborhoods = new HashMap<>();
+        splitterIdsByNeighborhood.forEach((neighborhood, ids) -> neighborhoods.put(neighborhood, ids.stream()
+                .map(splitterIndex::get)
+                .filter(index -> index != null)
+                .mapToInt(Integer::intValue)
+                .toArray()));
+        return new CapacityModel(this, neighborhoods);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.PlannerDashboardResponse.FDHCapacityData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One what-if run over a shared {@link CapacityModel}. The model is never modified: the
+ * used-port array is copied on the first placement, and hypothetical FDHs and splitters live in
+ * side arrays indexed after the model's own. Not thread-safe; use one scenario per thread.
+ */
+public final class CapacityScenario {
+
+    private final CapacityModel model;
+    private final int baseFdhs;
+    private final int baseSplitters;
+
+    // Copy-on-write view of the model's used ports
+    private int[] splitterUsed;
+    private boolean usedCopied;
+
+    // Hypothetical FDHs (index baseFdhs + i)
+    private final List<String> newFdhNames = new ArrayList<>();
+    private final List<String> newFdhRegions = new ArrayList<>();
+    private final List<Integer> newFdhMaxPorts = new ArrayList<>();
+
+    // Hypothetical splitters (index baseSplitters + i)
+    private int[] newSplitterFdh = new int[8];
+    private int[] newSplitterCapacity = new int[8];
+    private int newSplitters;
+    private final Map<String, List<Integer>> newNeighborhoodSplitters = new HashMap<>();
+
+    private final BitSet touchedFdhs = new BitSet();
+
+    public CapacityScenario(CapacityModel model) {
+        this.model = model;
+        this.baseFdhs = model.fdhIds.length;
+        this.baseSplitters = model.splitterIds.length;
+        this.splitterUsed = model.splitterUsed;
+    }
+
+    /** Index of an existing FDH, or -1 when it is not in the model. */
+    public int fdhIndex(Long fdhId) {
+        Integer index = model.fdhIndex.get(fdhId);
+        return index != null ? index : -1;
+    }
+
+    public int addFdh(String name, String region, int maxPorts) {
+        newFdhNames.add(name);
+        newFdhRegions.add(region);
+        newFdhMaxPorts.add(maxPorts);
+        int index = baseFdhs + newFdhNames.size() - 1;
+        touchedFdhs.set(index);
+        return index;
+    }
+
+    public void addSplitter(int fdhIndex, int portCapacity, String neighborhood) {
+        if (newSplitters == newSplitterFdh.length) {
+            newSplitterFdh = Arrays.copyOf(newSplitterFdh, newSplitters * 2);
+            newSplitterCapacity = Arrays.copyOf(newSplitterCapacity, newSplitters * 2);
+        }
+        newSplitterFdh[newSplitters] = fdhIndex;
+        newSplitterCapacity[newSplitters] = portCapacity;
+        if (neighborhood != null) {
+            newNeighborhoodSplitters.computeIfAbsent(neighborhood, k -> new ArrayList<>())
+                    .add(baseSplitters + newSplitters);
+        }
+        newSplitters++;
+        touchedFdhs.set(fdhIndex);
+    }
+
+    /**
+     * Places new customers on free ports of the splitters serving the neighborhood, existing
+     * splitters first and then the scenario's own. Returns how many could be placed.
+     */
+    public int addCustomers(String neighborhood, int count) {
+        int remaining = count;
+        int[] existing = model.neighborhoodSplitters.getOrDefault(neighborhood, new int[0]);
+        for (int i = 0; i < existing.length && remaining > 0; i++) {
+            remaining -= place(existing[i], remaining);
+        }
+        for (int splitter : newNeighborhoodSplitters.getOrDefault(neighborhood, List.of())) {
+            if (remaining == 0) {
+                break;
+            }
+            remaining -= place(splitter, remaining);
+        }
+        return count - remaining;
+    }
+
+    private int place(int splitter, int wanted) {
+        int free = capacityOf(splitter) - usedOf(splitter);
+        int placed = Math.max(0, Math.min(free, wanted));
+        if (placed > 0) {
+            if (!usedCopied || splitter >= splitterUsed.length) {
+                // First write copies the model's array; later growth only copies our own
+                splitterUsed = Arrays.copyOf(splitterUsed, Math.max(splitter + 1, baseSplitters + newSplitters));
+                usedCopied = true;
+            }
+            splitterUsed[splitter] += placed;
+            int fdh = fdhOf(splitter);
+            if (fdh >= 0) {
+                touchedFdhs.set(fdh);
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Resulting capacity of every FDH the scenario touched: the model's precomputed totals plus
+     * the scenario's splitters and placements.
+     */
+    public List<FDHCapacityData> getTouchedFdhCapacity() {
+        return collectTouched(false);
+    }
+
+    /**
+     * Touched FDHs whose splitters would offer more ports than the FDH's max ports.
+     */
+    public List<FDHCapacityData> getFdhsOverMaxPorts() {
+        return collectTouched(true);
+    }
+
+    private List<FDHCapacityData> collectTouched(boolean overMaxPortsOnly) {
+        int fdhCount = baseFdhs + newFdhNames.size();
+        int[] splitterDelta = new int[fdhCount];
+        int[] totalDelta = new int[fdhCount];
+        int[] usedDelta = new int[fdhCount];
+
+        if (usedCopied) {
+            for (int s = 0; s < baseSplitters; s++) {
+                int fdh = model.splitterFdh[s];
+                if (fdh >= 0) {
+                    usedDelta[fdh] += splitterUsed[s] - model.splitterUsed[s];
+                }
+            }
+        }
+        for (int i = 0; i < newSplitters; i++) {
+            int fdh = newSplitterFdh[i];
+            splitterDelta[fdh]++;
+            totalDelta[fdh] += newSplitterCapacity[i];
+            usedDelta[fdh] += usedOf(baseSplitters + i);
+        }
+
+        List<FDHCapacityData> capacity = new ArrayList<>(touchedFdhs.cardinality());
+        for (int fdh = touchedFdhs.nextSetBit(0); fdh >= 0; fdh = touchedFdhs.nextSetBit(fdh + 1)) {
+            boolean base = fdh < baseFdhs;
+            int totalPorts = (base ? model.fdhTotalPorts[fdh] : 0) + totalDelta[fdh];
+            int maxPorts = base ? model.fdhMaxPorts[fdh] : newFdhMaxPorts.get(fdh - baseFdhs);
+            if (overMaxPortsOnly && (maxPorts <= 0 || totalPorts <= maxPorts)) {
+                continue;
+            }
+            capacity.add(new FDHCapacityData(
+                    base ? model.fdhIds[fdh] : null,
+                    base ? model.fdhNames[fdh] : newFdhNames.get(fdh - baseFdhs),
+                    base ? model.fdhRegions[fdh] : newFdhRegions.get(fdh - baseFdhs),
+                    (base ? model.fdhSplitterCount[fdh] : 0) + splitterDelta[fdh],
+                    totalPorts,
+                    (base ? model.fdhUsedPorts[fdh] : 0) + usedDelta[fdh]
+            ));
+        }
+        return capacity;
+    }
+
+    private int capacityOf(int splitter) {
+        return splitter < baseSplitters ? model.splitterCapacity[splitter] : newSplitterCapacity[splitter - baseSplitters];
+    }
+
+    private int usedOf(int splitter) {
+        return splitter < splitterUsed.length ? splitterUsed[splitter] : 0;
+    }
+
+    private int fdhOf(int splitter) {
+        return splitter < baseSplitters ? model.splitterFdh[splitter] : newSplitterFdh[splitter - baseSplitters];
+    }
+}
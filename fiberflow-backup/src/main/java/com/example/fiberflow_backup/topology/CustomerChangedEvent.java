@@ -0,0 +1,31 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.enums.ConnectionType;
+import com.example.fiberflow_backup.enums.CustomerStatus;
+import com.example.fiberflow_backup.model.Customer;
+
+public record CustomerChangedEvent(
+        Long customerId,
+        Long splitterId,
+        Integer assignedPort,
+        String name,
+        String plan,
+        CustomerStatus status,
+        String neighborhood,
+        ConnectionType connectionType,
+        boolean removed
+) {
+    public static CustomerChangedEvent of(Customer customer, boolean removed) {
+        return new CustomerChangedEvent(
+                customer.getCustomerId(),
+                customer.getSplitter() != null ? customer.getSplitter().getSplitterId() : null,
+                customer.getAssignedPort(),
+                customer.getName(),
+                customer.getPlan(),
+                customer.getStatus(),
+                customer.getNeighborhood(),
+                customer.getConnectionType(),
+                removed
+        );
+    }
+}
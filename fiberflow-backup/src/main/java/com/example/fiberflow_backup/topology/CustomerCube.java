@@ -0,0 +1,366 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.CubeQueryResultDTO;
+import com.example.fiberflow_backup.dto.CubeQueryResultDTO.Cell;
+import com.example.fiberflow_backup.dto.CustomerCubeRow;
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
+import com.example.fiberflow_backup.enums.CubeDimension;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory customer analytics cube over neighborhood, plan, status, connection type and FDH.
+ * <p>
+ * Every customer has a dense slot, and every value of every dimension a compressed
+ * {@link SlotBitmap} of the slots that carry it. A filter is the intersection over dimensions of the union of the accepted
+ * values' bitmaps; a group-by intersects that result with each value bitmap of the grouped
+ * dimensions in turn. No customer rows are touched at query time. Slots of deleted customers
+ * are reused, which keeps the bitmaps dense. The cube is patched from customer and splitter
+ * change events; a missing value (e.g. no FDH yet) is grouped as {@value #NONE}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerCube {
+
+    public static final String NONE = "(none)";
+
+    // Guards against group-bys whose cartesian product explodes
+    private static final int MAX_CELLS = 10_000;
+
+    // A leaf group-by scans the matched slots when there are fewer than this many per value
+    private static final int SCAN_FACTOR = 32;
+
+    private static final CubeDimension[] DIMENSIONS = CubeDimension.values();
+
+    private final CustomerRepository customerRepository;
+    private final SplitterRepository splitterRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SlotIndex customerSlots = new SlotIndex();
+    private SlotBitmap live = new SlotBitmap();
+    private final Map<CubeDimension, Map<String, SlotBitmap>> bitmaps = new EnumMap<>(CubeDimension.class);
+    private final Map<CubeDimension, String[]> values = new EnumMap<>(CubeDimension.class);
+    private Long[] customerSplitter = new Long[0];
+
+    // Splitter -> FDH, and the customer slots on each splitter, so FDH moves re-bin customers
+    private final Map<Long, Long> fdhBySplitter = new HashMap<>();
+    private final Map<Long, SlotBitmap> slotsBySplitter = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Change events that arrived before the first load completed; guarded by the write lock
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    public void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the cube from the database. Changes committed meanwhile wait for the write lock;
+     * changes that arrived before the first load are queued and applied once it completes.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            List<SplitterTopologyRow> splitters = splitterRepository.findTopologyRows();
+            List<CustomerCubeRow> customers = customerRepository.findCubeRows();
+
+            customerSlots.clear();
+            live = new SlotBitmap();
+            fdhBySplitter.clear();
+            slotsBySplitter.clear();
+            for (CubeDimension dimension : DIMENSIONS) {
+                bitmaps.put(dimension, new HashMap<>());
+                values.put(dimension, new String[customers.size()]);
+            }
+            customerSplitter = new Long[customers.size()];
+
+            for (SplitterTopologyRow row : splitters) {
+                fdhBySplitter.put(row.getSplitterId(), row.getFdhId());
+            }
+            for (CustomerCubeRow row : customers) {
+                put(row);
+            }
+            loaded = true;
+
+            for (Object event : pendingEvents) {
+                apply(event);
+            }
+            pendingEvents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Incremental patches
+    // ---------------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        patch(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitterChanged(SplitterChangedEvent event) {
+        patch(event);
+    }
+
+    private void patch(Object event) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                apply(event);
+            } else {
+                // The load may already have read past this row; replaying the committed state is harmless
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Object event) {
+        if (event instanceof CustomerChangedEvent e) {
+            apply(e);
+        } else if (event instanceof SplitterChangedEvent e) {
+            apply(e);
+        }
+    }
+
+    private void apply(CustomerChangedEvent event) {
+        if (event.removed()) {
+            remove(event.customerId());
+        } else {
+            put(new CustomerCubeRow(event.customerId(), event.splitterId(), event.neighborhood(),
+                    event.plan(), event.status(), event.connectionType()));
+        }
+    }
+
+    private void apply(SplitterChangedEvent event) {
+        Long fdhId = event.removed() ? null : event.fdhId();
+        if (event.removed()) {
+            fdhBySplitter.remove(event.splitterId());
+        } else {
+            fdhBySplitter.put(event.splitterId(), fdhId);
+        }
+        SlotBitmap slots = slotsBySplitter.get(event.splitterId());
+        if (slots != null) {
+            String fdh = valueOf(fdhId);
+            slots.forEach(slot -> set(CubeDimension.FDH, slot, fdh));
+        }
+    }
+
+    private void put(CustomerCubeRow row) {
+        int slot = customerSlots.slotOf(row.getCustomerId());
+        if (slot == SlotIndex.NONE) {
+            slot = customerSlots.allocate(row.getCustomerId());
+            grow(slot + 1);
+            live.add(slot);
+        }
+
+        Long previousSplitter = customerSplitter[slot];
+        if (!Objects.equals(previousSplitter, row.getSplitterId())) {
+            unlinkSplitter(previousSplitter, slot);
+            if (row.getSplitterId() != null) {
+                slotsBySplitter.computeIfAbsent(row.getSplitterId(), k -> new SlotBitmap()).add(slot);
+            }
+            customerSplitter[slot] = row.getSplitterId();
+        }
+
+        set(CubeDimension.NEIGHBORHOOD, slot, valueOf(row.getNeighborhood()));
+        set(CubeDimension.PLAN, slot, valueOf(row.getPlan()));
+        set(CubeDimension.STATUS, slot, row.getStatus() != null ? row.getStatus().name() : NONE);
+        set(CubeDimension.CONNECTION_TYPE, slot,
+                row.getConnectionType() != null ? row.getConnectionType().name() : NONE);
+        set(CubeDimension.FDH, slot,
+                valueOf(row.getSplitterId() != null ? fdhBySplitter.get(row.getSplitterId()) : null));
+    }
+
+    private void remove(Long customerId) {
+        int slot = customerSlots.slotOf(customerId);
+        if (slot == SlotIndex.NONE) {
+            return;
+        }
+        for (CubeDimension dimension : DIMENSIONS) {
+            set(dimension, slot, null);
+        }
+        unlinkSplitter(customerSplitter[slot], slot);
+        customerSplitter[slot] = null;
+        live.remove(slot);
+        customerSlots.release(slot);
+    }
+
+    private void unlinkSplitter(Long splitterId, int slot) {
+        if (splitterId == null) {
+            return;
+        }
+        SlotBitmap slots = slotsBySplitter.get(splitterId);
+        if (slots != null) {
+            slots.remove(slot);
+            if (slots.isEmpty()) {
+                slotsBySplitter.remove(splitterId);
+            }
+        }
+    }
+
+    /**
+     * Moves a slot from its current value bitmap of the dimension to the new one; null just
+     * takes it out. Empty bitmaps are dropped so the dimension lists only values in use.
+     */
+    private void set(CubeDimension dimension, int slot, String value) {
+        String[] current = values.get(dimension);
+        String previous = current[slot];
+        if (Objects.equals(previous, value)) {
+            return;
+        }
+        Map<String, SlotBitmap> index = bitmaps.get(dimension);
+        if (previous != null) {
+            SlotBitmap bits = index.get(previous);
+            bits.remove(slot);
+            if (bits.isEmpty()) {
+                index.remove(previous);
+            }
+        }
+        if (value != null) {
+            index.computeIfAbsent(value, k -> new SlotBitmap()).add(slot);
+        }
+        current[slot] = value;
+    }
+
+    private void grow(int needed) {
+        if (needed <= customerSplitter.length) {
+            return;
+        }
+        int size = Math.max(needed, customerSplitter.length * 2);
+        customerSplitter = Arrays.copyOf(customerSplitter, size);
+        for (CubeDimension dimension : DIMENSIONS) {
+            values.put(dimension, Arrays.copyOf(values.get(dimension), size));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Queries
+    // ---------------------------------------------------------------------
+
+    /**
+     * Counts customers matching the filters, optionally broken down by the group-by
+     * dimensions. Cells with no customers are left out; cells come in key order.
+     */
+    public CubeQueryResultDTO query(Map<CubeDimension, List<String>> filters, List<CubeDimension> groupBy) {
+        ensureLoaded();
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            SlotBitmap matched = live;
+            for (Map.Entry<CubeDimension, List<String>> filter : filters.entrySet()) {
+                Map<String, SlotBitmap> index = bitmaps.get(filter.getKey());
+                SlotBitmap accepted = new SlotBitmap();
+                for (String value : filter.getValue()) {
+                    SlotBitmap bits = index.get(value);
+                    if (bits != null) {
+                        accepted = accepted.or(bits);
+                    }
+                }
+                matched = matched.and(accepted);
+            }
+
+            List<Cell> cells = new ArrayList<>();
+            boolean truncated = false;
+            if (!groupBy.isEmpty()) {
+                truncated = !group(matched, groupBy, 0, new LinkedHashMap<>(), cells);
+            }
+
+            List<String> groupNames = groupBy.stream().map(Enum::name).toList();
+            return new CubeQueryResultDTO(matched.cardinality(), groupNames, cells, truncated,
+                    (System.nanoTime() - started) / 1_000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Distinct values of every dimension with their customer counts.
+     */
+    public Map<String, Map<String, Integer>> getDimensionValues() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<String, Map<String, Integer>> result = new LinkedHashMap<>();
+            for (CubeDimension dimension : DIMENSIONS) {
+                Map<String, Integer> counts = new TreeMap<>();
+                bitmaps.get(dimension).forEach((value, bits) -> counts.put(value, bits.cardinality()));
+                result.put(dimension.name(), counts);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // False once MAX_CELLS is reached
+    private boolean group(SlotBitmap scope, List<CubeDimension> groupBy, int depth, Map<String, String> key,
+                          List<Cell> cells) {
+        CubeDimension dimension = groupBy.get(depth);
+        Map<String, SlotBitmap> index = bitmaps.get(dimension);
+        boolean leaf = depth + 1 == groupBy.size();
+
+        Map<String, Integer> leafCounts = null;
+        if (leaf && scope.cardinality() < index.size() * SCAN_FACTOR) {
+            // Few customers against many values: reading each slot's value is cheaper than
+            // intersecting every value bitmap
+            String[] slotValues = values.get(dimension);
+            Map<String, Integer> counts = new TreeMap<>();
+            scope.forEach(slot -> counts.merge(slotValues[slot], 1, Integer::sum));
+            leafCounts = counts;
+        }
+
+        Iterable<String> keys = leafCounts != null ? leafCounts.keySet() : new TreeMap<>(index).keySet();
+        for (String value : keys) {
+            key.put(dimension.name(), value);
+            if (!leaf) {
+                SlotBitmap cell = scope.and(index.get(value));
+                if (!cell.isEmpty() && !group(cell, groupBy, depth + 1, key, cells)) {
+                    return false;
+                }
+            } else {
+                // Leaf cells only need a count, not the intersection itself
+                int count = leafCounts != null ? leafCounts.get(value) : scope.andCardinality(index.get(value));
+                if (count > 0) {
+                    if (cells.size() >= MAX_CELLS) {
+                        return false;
+                    }
+                    cells.add(new Cell(new LinkedHashMap<>(key), count));
+                }
+            }
+            key.remove(dimension.name());
+        }
+        return true;
+    }
+
+    private static String valueOf(Object value) {
+        return value != null ? value.toString() : NONE;
+    }
+}
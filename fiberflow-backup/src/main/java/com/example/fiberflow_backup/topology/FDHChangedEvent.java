@@ -0,0 +1,25 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.model.FDH;
+
+public record FDHChangedEvent(
+        Long fdhId,
+        Long headendId,
+        String name,
+        String location,
+        String region,
+        Integer maxPorts,
+        boolean removed
+) {
+    public static FDHChangedEvent of(FDH fdh, boolean removed) {
+        return new FDHChangedEvent(
+                fdh.getFdhId(),
+                fdh.getHeadend() != null ? fdh.getHeadend().getHeadendId() : null,
+                fdh.getName(),
+                fdh.getLocation(),
+                fdh.getRegion(),
+                fdh.getMaxPorts(),
+                removed
+        );
+    }
+}
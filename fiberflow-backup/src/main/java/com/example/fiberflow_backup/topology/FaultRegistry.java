@@ -0,0 +1,356 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.FaultSourceRow;
+import com.example.fiberflow_backup.dto.FaultSummaryDTO;
+import com.example.fiberflow_backup.dto.FaultSummaryDTO.FDHFaults;
+import com.example.fiberflow_backup.dto.FaultSummaryDTO.FaultCounts;
+import com.example.fiberflow_backup.dto.FaultSummaryDTO.RegionFaults;
+import com.example.fiberflow_backup.dto.OpenTicketRow;
+import com.example.fiberflow_backup.enums.AssetStatus;
+import com.example.fiberflow_backup.enums.FaultSource;
+import com.example.fiberflow_backup.enums.LineStatus;
+import com.example.fiberflow_backup.repository.AssetRepository;
+import com.example.fiberflow_backup.repository.FiberDropLineRepository;
+import com.example.fiberflow_backup.repository.SupportTicketRepository;
+import com.example.fiberflow_backup.topology.NetworkTopologyGraph.FdhRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live network faults: disconnected drop lines, faulty assets and open high-priority tickets.
+ * <p>
+ * Each fault is attributed to the FDH of its customer's splitter, and fault counters per FDH
+ * and per region are adjusted on every change event, so reads never scan tickets, lines or
+ * assets. Faults without a customer on an FDH (e.g. a faulty asset in stock) count under the
+ * "Unassigned" region. Attribution follows customers, splitters and FDHs as they move.
+ */
+@Component
+@RequiredArgsConstructor
+public class FaultRegistry {
+
+    public static final String UNASSIGNED_REGION = "Unassigned";
+
+    private static final FaultSource[] SOURCES = FaultSource.values();
+
+    private final FiberDropLineRepository fiberDropLineRepository;
+    private final AssetRepository assetRepository;
+    private final SupportTicketRepository supportTicketRepository;
+    private final NetworkTopologyGraph topologyGraph;
+
+    private record FaultKey(FaultSource source, long id) {}
+
+    private static final class Fault {
+        private final FaultSource source;
+        private final Long customerId;
+        private Long splitterId;
+        private Long fdhId;
+        private String region;
+
+        private Fault(FaultSource source, Long customerId) {
+            this.source = source;
+            this.customerId = customerId;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<FaultKey, Fault> faults = new HashMap<>();
+    private final Map<Long, Set<FaultKey>> faultsByCustomer = new HashMap<>();
+    private final Map<Long, int[]> fdhCounts = new HashMap<>();
+    private final Map<String, int[]> regionCounts = new HashMap<>();
+    private final int[] totalCounts = new int[SOURCES.length];
+    private volatile boolean loaded;
+
+    // Change events that arrived before the first load completed; guarded by the write lock
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    public void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the registry from the database. The write lock is held across the queries, so
+     * change events committed meanwhile wait and are applied on top of the fresh counters;
+     * events that arrived before the first load are queued and applied once it completes.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            List<FaultSourceRow> lines = fiberDropLineRepository.findDisconnectedLineRows();
+            List<FaultSourceRow> assets = assetRepository.findFaultyAssetRows();
+            List<OpenTicketRow> tickets = supportTicketRepository.findOpenTicketRows();
+
+            faults.clear();
+            faultsByCustomer.clear();
+            fdhCounts.clear();
+            regionCounts.clear();
+            Arrays.fill(totalCounts, 0);
+
+            for (FaultSourceRow row : lines) {
+                add(new FaultKey(FaultSource.DropLine, row.getSourceId()), row.getCustomerId());
+            }
+            for (FaultSourceRow row : assets) {
+                add(new FaultKey(FaultSource.Asset, row.getSourceId()), row.getCustomerId());
+            }
+            for (OpenTicketRow row : tickets) {
+                if (isHighPriority(row.getPriority())) {
+                    add(new FaultKey(FaultSource.Ticket, row.getTicketId()), row.getCustomerId());
+                }
+            }
+            loaded = true;
+
+            for (Object event : pendingEvents) {
+                apply(event);
+            }
+            pendingEvents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Incremental patches
+    // ---------------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFiberDropLineChanged(FiberDropLineChangedEvent event) {
+        patch(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssetChanged(AssetChangedEvent event) {
+        patch(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSupportTicketChanged(SupportTicketChangedEvent event) {
+        patch(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        patch(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitterChanged(SplitterChangedEvent event) {
+        patch(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFDHChanged(FDHChangedEvent event) {
+        patch(event);
+    }
+
+    private void patch(Object event) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                apply(event);
+            } else {
+                // The load may already have read past this row; replaying the committed state is harmless
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Object event) {
+        if (event instanceof FiberDropLineChangedEvent e) {
+            put(new FaultKey(FaultSource.DropLine, e.lineId()), e.customerId(),
+                    !e.removed() && e.status() == LineStatus.Disconnected);
+        } else if (event instanceof AssetChangedEvent e) {
+            put(new FaultKey(FaultSource.Asset, e.assetId()), e.assignedToCustomerId(),
+                    !e.removed() && e.status() == AssetStatus.Faulty);
+        } else if (event instanceof SupportTicketChangedEvent e) {
+            put(new FaultKey(FaultSource.Ticket, e.ticketId()), e.customerId(),
+                    !e.removed() && OpenTicketIndex.isOpen(e.status()) && isHighPriority(e.priority()));
+        } else if (event instanceof CustomerChangedEvent e) {
+            apply(e);
+        } else if (event instanceof SplitterChangedEvent e) {
+            apply(e);
+        } else if (event instanceof FDHChangedEvent e) {
+            apply(e);
+        }
+    }
+
+    private void apply(CustomerChangedEvent event) {
+        Set<FaultKey> keys = faultsByCustomer.get(event.customerId());
+        if (keys == null) {
+            return;
+        }
+        Long splitterId = event.removed() ? null : event.splitterId();
+        FdhRef fdh = topologyGraph.getFdhOfSplitter(splitterId);
+        for (FaultKey key : keys) {
+            reattribute(faults.get(key), splitterId, fdh);
+        }
+    }
+
+    private void apply(SplitterChangedEvent event) {
+        FdhRef fdh = event.removed() ? null : topologyGraph.getFdh(event.fdhId());
+        for (Fault fault : faults.values()) {
+            if (event.splitterId().equals(fault.splitterId)) {
+                reattribute(fault, event.removed() ? null : fault.splitterId, fdh);
+            }
+        }
+    }
+
+    private void apply(FDHChangedEvent event) {
+        FdhRef fdh = event.removed() ? null : new FdhRef(event.fdhId(), event.name(), event.region());
+        for (Fault fault : faults.values()) {
+            if (event.fdhId().equals(fault.fdhId)) {
+                reattribute(fault, fault.splitterId, fdh);
+            }
+        }
+    }
+
+    private void put(FaultKey key, Long customerId, boolean faulty) {
+        Fault existing = faults.get(key);
+        if (existing != null && faulty && Objects.equals(existing.customerId, customerId)) {
+            return;
+        }
+        if (existing != null) {
+            remove(key);
+        }
+        if (faulty) {
+            add(key, customerId);
+        }
+    }
+
+    private void add(FaultKey key, Long customerId) {
+        Fault fault = new Fault(key.source(), customerId);
+        if (customerId != null) {
+            fault.splitterId = topologyGraph.getSplitterIdOfCustomer(customerId);
+            faultsByCustomer.computeIfAbsent(customerId, k -> new HashSet<>()).add(key);
+        }
+        FdhRef fdh = topologyGraph.getFdhOfSplitter(fault.splitterId);
+        fault.fdhId = fdh != null ? fdh.fdhId() : null;
+        fault.region = regionOf(fdh);
+        faults.put(key, fault);
+        count(fault, 1);
+    }
+
+    private void remove(FaultKey key) {
+        Fault fault = faults.remove(key);
+        count(fault, -1);
+        if (fault.customerId != null) {
+            Set<FaultKey> keys = faultsByCustomer.get(fault.customerId);
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                faultsByCustomer.remove(fault.customerId);
+            }
+        }
+    }
+
+    private void reattribute(Fault fault, Long splitterId, FdhRef fdh) {
+        count(fault, -1);
+        fault.splitterId = splitterId;
+        fault.fdhId = fdh != null ? fdh.fdhId() : null;
+        fault.region = regionOf(fdh);
+        count(fault, 1);
+    }
+
+    private void count(Fault fault, int delta) {
+        int ordinal = fault.source.ordinal();
+        totalCounts[ordinal] += delta;
+        if (fault.fdhId != null) {
+            adjust(fdhCounts, fault.fdhId, ordinal, delta);
+        }
+        adjust(regionCounts, fault.region, ordinal, delta);
+    }
+
+    private static <K> void adjust(Map<K, int[]> counters, K key, int ordinal, int delta) {
+        int[] counts = counters.computeIfAbsent(key, k -> new int[SOURCES.length]);
+        counts[ordinal] += delta;
+        if (sum(counts) == 0) {
+            counters.remove(key);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Queries
+    // ---------------------------------------------------------------------
+
+    public int getTotalFaults() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return sum(totalCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts network-wide, per FDH and per region; FDHs and regions without faults are left
+     * out, the rest come worst first.
+     */
+    public FaultSummaryDTO getSummary() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<FDHFaults> byFdh = new ArrayList<>(fdhCounts.size());
+            fdhCounts.forEach((fdhId, counts) -> {
+                FdhRef fdh = topologyGraph.getFdh(fdhId);
+                byFdh.add(new FDHFaults(fdhId, fdh != null ? fdh.name() : null, regionOf(fdh), toCounts(counts)));
+            });
+            byFdh.sort(Comparator.comparingInt((FDHFaults f) -> f.getFaults().getTotal()).reversed()
+                    .thenComparing(FDHFaults::getFdhId));
+
+            List<RegionFaults> byRegion = new ArrayList<>(regionCounts.size());
+            regionCounts.forEach((region, counts) -> byRegion.add(new RegionFaults(region, toCounts(counts))));
+            byRegion.sort(Comparator.comparingInt((RegionFaults r) -> r.getFaults().getTotal()).reversed()
+                    .thenComparing(RegionFaults::getRegion));
+
+            return new FaultSummaryDTO(toCounts(totalCounts), byFdh, byRegion);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static FaultCounts toCounts(int[] counts) {
+        return new FaultCounts(
+                sum(counts),
+                counts[FaultSource.DropLine.ordinal()],
+                counts[FaultSource.Asset.ordinal()],
+                counts[FaultSource.Ticket.ordinal()]
+        );
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static String regionOf(FdhRef fdh) {
+        return fdh != null && fdh.region() != null ? fdh.region() : UNASSIGNED_REGION;
+    }
+
+    private static boolean isHighPriority(String priority) {
+        return "High".equalsIgnoreCase(priority);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.enums.LineStatus;
+import com.example.fiberflow_backup.model.FiberDropLine;
+
+import java.math.BigDecimal;
+
+public record FiberDropLineChangedEvent(
+        Long lineId,
+        Long customerId,
+        BigDecimal lengthMeters,
+        LineStatus status,
+        boolean removed
+) {
+    public static FiberDropLineChangedEvent of(FiberDropLine line, boolean removed) {
+        return new FiberDropLineChangedEvent(
+                line.getLineId(),
+                line.getToCustomer() != null ? line.getToCustomer().getCustomerId() : null,
+                line.getLengthMeters(),
+                line.getStatus(),
+                removed
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.model.Headend;
+
+public record HeadendChangedEvent(
+        Long headendId,
+        String name,
+        String location,
+        String region,
+        boolean removed
+) {
+    public static HeadendChangedEvent of(Headend headend, boolean removed) {
+        return new HeadendChangedEvent(
+                headend.getHeadendId(),
+                headend.getName(),
+                headend.getLocation(),
+                headend.getRegion(),
+                removed
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.fiberflow_backup.topology;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive ints used for child slot lists.
+ */
+final class IntList {
+
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(4);
+    }
+
+    IntList(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    boolean remove(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int removeLast() {
+        return values[--size];
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,1270 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.*;
+import com.example.fiberflow_backup.dto.CustomerDetailDTO.SplitterInfo;
+import com.example.fiberflow_backup.enums.CustomerStatus;
+import com.example.fiberflow_backup.enums.NetworkElementType;
+import com.example.fiberflow_backup.model.Headend;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.FDHRepository;
+import com.example.fiberflow_backup.repository.HeadendRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resident, read-optimized copy of the Headend -> FDH -> Splitter -> Customer tree.
+ * <p>
+ * Each node occupies a slot in a set of parallel arrays and refers to its parent by
+ * slot index, so topology reads never go to the database. The graph is loaded once
+ * from the set-based topology queries and afterwards patched in place from the
+ * change events raised by {@link TopologyEntityListener} once their transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NetworkTopologyGraph {
+
+    private static final int NONE = SlotIndex.NONE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final CustomerStatus[] STATUSES = CustomerStatus.values();
+
+    private final HeadendRepository headendRepository;
+    private final FDHRepository fdhRepository;
+    private final SplitterRepository splitterRepository;
+    private final CustomerRepository customerRepository;
+
+    private static final int CHANGE_LOG_SIZE = 50_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TopologyChangeLog changeLog = new TopologyChangeLog(CHANGE_LOG_SIZE);
+
+    @Value("${fiberflow.topology.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${fiberflow.topology.snapshot.path:data/topology.snapshot}")
+    private String snapshotPath;
+
+    // Rows changed this long before a snapshot's marker are re-read too, covering transactions
+    // that wrote before the marker was taken but committed after
+    @Value("${fiberflow.topology.snapshot.replay-margin-ms:300000}")
+    private long replayMarginMillis;
+
+    private TopologySnapshotFile snapshotFile;
+    private volatile boolean loaded;
+
+    // Change events that arrived before the first load completed; guarded by the write lock
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    // Headends
+    private final SlotIndex headendSlots = new SlotIndex();
+    private String[] headendName = new String[0];
+    private String[] headendLocation = new String[0];
+    private String[] headendRegion = new String[0];
+
+    // FDHs
+    private final SlotIndex fdhSlots = new SlotIndex();
+    private long[] fdhHeadendId = new long[0];
+    private String[] fdhName = new String[0];
+    private String[] fdhLocation = new String[0];
+    private String[] fdhRegion = new String[0];
+    private int[] fdhMaxPorts = new int[0];
+    private int[] fdhTotalPorts = new int[0];
+    private int[] fdhUsedPorts = new int[0];
+    private int[] fdhCustomerCount = new int[0];
+    private IntList[] fdhSplitters = new IntList[0];
+
+    // Splitters
+    private final SlotIndex splitterSlots = new SlotIndex();
+    private int[] splitterFdh = new int[0];
+    private String[] splitterModel = new String[0];
+    private String[] splitterLocation = new String[0];
+    private int[] splitterCapacity = new int[0];
+    private int[] splitterUsed = new int[0];
+    private IntList[] splitterCustomers = new IntList[0];
+
+    // Customers (attached or not, so status counters stay exact)
+    private final SlotIndex customerSlots = new SlotIndex();
+    private int[] customerSplitter = new int[0];
+    private int[] customerPort = new int[0];
+    private byte[] customerStatus = new byte[0];
+    private String[] customerName = new String[0];
+    private String[] customerPlan = new String[0];
+
+    // Per-headend and per-(headend, region) rollups, each with its FDH slots for paging
+    private final Map<Long, Summary> headendSummaries = new HashMap<>();
+    private final Map<Long, Map<String, Summary>> regionSummaries = new HashMap<>();
+
+    // Network-wide totals
+    private int totalPorts;
+    private int usedPorts;
+    private int activeCustomers;
+
+    public record NetworkTotals(int fdhCount, int splitterCount, int totalPorts, int usedPorts, int activeCustomers) {}
+
+    public record FdhRef(Long fdhId, String name, String region) {}
+
+    private static final class Summary {
+        private int fdhCount;
+        private int splitterCount;
+        private int customerCount;
+        private int totalPorts;
+        private int usedPorts;
+        private final IntList fdhSlots = new IntList();
+    }
+
+    // ---------------------------------------------------------------------
+    // Loading
+    // ---------------------------------------------------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    public void ensureLoaded() {
+        if (!loaded && !warmStart()) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the graph from the database. The write lock is held across the queries, so change
+     * events committed meanwhile wait and are applied on top of the fresh state; events that
+     * arrived before the first load are queued and applied once it completes.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime changeMarker = snapshotEnabled ? changeMarker() : null;
+            clear();
+
+            for (Headend headend : headendRepository.findAll()) {
+                putHeadend(headend.getHeadendId(), headend.getName(), headend.getLocation(), headend.getRegion());
+            }
+            for (FDHTopologyRow row : fdhRepository.findTopologyRows()) {
+                putFdh(row.getFdhId(), row.getHeadendId(), row.getName(), row.getLocation(),
+                        row.getRegion(), row.getMaxPorts());
+            }
+            for (SplitterTopologyRow row : splitterRepository.findTopologyRows()) {
+                putSplitter(row.getSplitterId(), row.getFdhId(), row.getModel(), row.getPortCapacity(),
+                        row.getUsedPorts(), row.getLocation());
+            }
+            for (CustomerTopologyRow row : customerRepository.findTopologyRows()) {
+                putCustomer(row.getCustomerId(), row.getSplitterId(), row.getAssignedPort(), row.getName(),
+                        row.getPlan(), row.getStatus());
+            }
+
+            changeLog.reset();
+            loaded = true;
+            applyPendingEvents();
+
+            // The old snapshot no longer describes this state
+            saveSnapshot(changeMarker);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Snapshots
+    // ---------------------------------------------------------------------
+
+    /**
+     * Loads the graph from the memory-mapped snapshot, then re-reads every topology row the
+     * database changed after the snapshot's marker, whoever changed it. Deletions leave no
+     * changed row behind, so the result is only accepted when its node counts then match the
+     * database; otherwise the caller falls back to a full reload. Returns whether the graph is
+     * loaded.
+     */
+    private boolean warmStart() {
+        if (!snapshotEnabled) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return true;
+            }
+            TopologySnapshotFile file = snapshotFile();
+            TopologySnapshotFile.Mapped snapshot = file.map();
+            if (snapshot == null || snapshot.changeMarker() == null) {
+                return false;
+            }
+
+            clear();
+            readSnapshot(snapshot.body());
+            int replayed = replayChangesSince(snapshot.changeMarker().minusNanos(replayMarginMillis * 1_000_000));
+
+            if (headendSlots.size() != headendRepository.count() ||
+                    fdhSlots.size() != fdhRepository.count() ||
+                    splitterSlots.size() != splitterRepository.count() ||
+                    customerSlots.size() != customerRepository.count()) {
+                log.info("Topology snapshot {} is out of date, loading from the database", file.path());
+                clear();
+                return false;
+            }
+
+            changeLog.reset();
+            loaded = true;
+            applyPendingEvents();
+            log.info("Topology loaded from snapshot {} plus {} changed rows", file.path(), replayed);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load topology snapshot, loading from the database", e);
+            clear();
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int replayChangesSince(LocalDateTime since) {
+        int replayed = 0;
+        for (Headend headend : headendRepository.findByUpdatedAtAfter(since)) {
+            putHeadend(headend.getHeadendId(), headend.getName(), headend.getLocation(), headend.getRegion());
+            replayed++;
+        }
+        for (FDHTopologyRow row : fdhRepository.findTopologyRowsUpdatedAfter(since)) {
+            putFdh(row.getFdhId(), row.getHeadendId(), row.getName(), row.getLocation(),
+                    row.getRegion(), row.getMaxPorts());
+            replayed++;
+        }
+        for (SplitterTopologyRow row : splitterRepository.findTopologyRowsUpdatedAfter(since)) {
+            putSplitter(row.getSplitterId(), row.getFdhId(), row.getModel(), row.getPortCapacity(),
+                    row.getUsedPorts(), row.getLocation());
+            replayed++;
+        }
+        for (CustomerTopologyRow row : customerRepository.findTopologyRowsUpdatedAfter(since)) {
+            putCustomer(row.getCustomerId(), row.getSplitterId(), row.getAssignedPort(), row.getName(),
+                    row.getPlan(), row.getStatus());
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * Latest update time over the topology tables, or null when they are all empty.
+     */
+    private LocalDateTime changeMarker() {
+        LocalDateTime marker = null;
+        for (LocalDateTime updatedAt : Arrays.asList(
+                headendRepository.findLastUpdatedAt(),
+                fdhRepository.findLastUpdatedAt(),
+                splitterRepository.findLastUpdatedAt(),
+                customerRepository.findLastUpdatedAt())) {
+            if (updatedAt != null && (marker == null || updatedAt.isAfter(marker))) {
+                marker = updatedAt;
+            }
+        }
+        return marker;
+    }
+
+    @Scheduled(fixedDelayString = "${fiberflow.topology.snapshot.interval-ms:300000}",
+            initialDelayString = "${fiberflow.topology.snapshot.interval-ms:300000}")
+    public void writeSnapshot() {
+        if (!snapshotEnabled || !loaded) {
+            return;
+        }
+        // The read lock keeps patches out while the state is written. The marker is read first,
+        // so every change missing from the snapshot is dated after it, or within the margin.
+        lock.readLock().lock();
+        try {
+            saveSnapshot(changeMarker());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void saveSnapshot(LocalDateTime changeMarker) {
+        if (!snapshotEnabled) {
+            return;
+        }
+        try {
+            snapshotFile().write(changeMarker, this::writeSnapshotBody);
+        } catch (IOException e) {
+            log.warn("Could not write topology snapshot", e);
+        }
+    }
+
+    private TopologySnapshotFile snapshotFile() {
+        if (snapshotFile == null) {
+            snapshotFile = new TopologySnapshotFile(Path.of(snapshotPath));
+        }
+        return snapshotFile;
+    }
+
+    private void writeSnapshotBody(DataOutputStream out) throws IOException {
+        out.writeInt(headendSlots.size());
+        for (int slot = 0; slot < headendSlots.highWater(); slot++) {
+            if (headendSlots.isLive(slot)) {
+                out.writeLong(headendSlots.idAt(slot));
+                TopologySnapshotFile.writeString(out, headendName[slot]);
+                TopologySnapshotFile.writeString(out, headendLocation[slot]);
+                TopologySnapshotFile.writeString(out, headendRegion[slot]);
+            }
+        }
+
+        out.writeInt(fdhSlots.size());
+        for (int slot = 0; slot < fdhSlots.highWater(); slot++) {
+            if (fdhSlots.isLive(slot)) {
+                out.writeLong(fdhSlots.idAt(slot));
+                out.writeLong(fdhHeadendId[slot]);
+                TopologySnapshotFile.writeString(out, fdhName[slot]);
+                TopologySnapshotFile.writeString(out, fdhLocation[slot]);
+                TopologySnapshotFile.writeString(out, fdhRegion[slot]);
+                out.writeInt(fdhMaxPorts[slot]);
+            }
+        }
+
+        out.writeInt(splitterSlots.size());
+        for (int slot = 0; slot < splitterSlots.highWater(); slot++) {
+            if (splitterSlots.isLive(slot)) {
+                out.writeLong(splitterSlots.idAt(slot));
+                out.writeLong(splitterFdh[slot] != NONE ? fdhSlots.idAt(splitterFdh[slot]) : NONE);
+                TopologySnapshotFile.writeString(out, splitterModel[slot]);
+                out.writeInt(splitterCapacity[slot]);
+                out.writeInt(splitterUsed[slot]);
+                TopologySnapshotFile.writeString(out, splitterLocation[slot]);
+            }
+        }
+
+        out.writeInt(customerSlots.size());
+        for (int slot = 0; slot < customerSlots.highWater(); slot++) {
+            if (customerSlots.isLive(slot)) {
+                out.writeLong(customerSlots.idAt(slot));
+                out.writeLong(customerSplitter[slot] != NONE ? splitterSlots.idAt(customerSplitter[slot]) : NONE);
+                out.writeInt(customerPort[slot]);
+                out.writeByte(customerStatus[slot]);
+                TopologySnapshotFile.writeString(out, customerName[slot]);
+                TopologySnapshotFile.writeString(out, customerPlan[slot]);
+            }
+        }
+    }
+
+    private void readSnapshot(ByteBuffer in) {
+        for (int i = in.getInt(); i > 0; i--) {
+            putHeadend(in.getLong(), TopologySnapshotFile.readString(in), TopologySnapshotFile.readString(in),
+                    TopologySnapshotFile.readString(in));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            putFdh(in.getLong(), TopologySnapshotFile.readId(in), TopologySnapshotFile.readString(in),
+                    TopologySnapshotFile.readString(in), TopologySnapshotFile.readString(in), box(in.getInt()));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            putSplitter(in.getLong(), TopologySnapshotFile.readId(in), TopologySnapshotFile.readString(in),
+                    box(in.getInt()), box(in.getInt()), TopologySnapshotFile.readString(in));
+        }
+        for (int i = in.getInt(); i > 0; i--) {
+            long id = in.getLong();
+            Long splitterId = TopologySnapshotFile.readId(in);
+            Integer port = box(in.getInt());
+            CustomerStatus status = TopologySnapshotFile.readStatus(in);
+            putCustomer(id, splitterId, port, TopologySnapshotFile.readString(in), TopologySnapshotFile.readString(in), status);
+        }
+    }
+
+    private void clear() {
+        headendSlots.clear();
+        fdhSlots.clear();
+        splitterSlots.clear();
+        customerSlots.clear();
+        headendSummaries.clear();
+        regionSummaries.clear();
+        totalPorts = 0;
+        usedPorts = 0;
+        activeCustomers = 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // Incremental patches
+    // ---------------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHeadendChanged(HeadendChangedEvent event) {
+        patch(event);
+    }
+
+    private void apply(HeadendChangedEvent event) {
+        if (event.removed()) {
+            removeHeadend(event.headendId());
+            changeLog.append("HEADEND", "REMOVE", event.headendId(), null, null);
+        } else {
+            putHeadend(event.headendId(), event.name(), event.location(), event.region());
+            changeLog.append("HEADEND", "UPSERT", event.headendId(), null,
+                    new HeadendDTO(event.headendId(), event.name(), event.location(), event.region()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFDHChanged(FDHChangedEvent event) {
+        patch(event);
+    }
+
+    private void apply(FDHChangedEvent event) {
+        if (event.removed()) {
+            removeFdh(event.fdhId());
+            changeLog.append("FDH", "REMOVE", event.fdhId(), event.headendId(), null);
+        } else {
+            putFdh(event.fdhId(), event.headendId(), event.name(), event.location(),
+                    event.region(), event.maxPorts());
+            changeLog.append("FDH", "UPSERT", event.fdhId(), event.headendId(),
+                    toFDHSummaryDTO(fdhSlots.slotOf(event.fdhId())));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitterChanged(SplitterChangedEvent event) {
+        patch(event);
+    }
+
+    private void apply(SplitterChangedEvent event) {
+        if (event.removed()) {
+            removeSplitter(event.splitterId());
+            changeLog.append("SPLITTER", "REMOVE", event.splitterId(), event.fdhId(), null);
+        } else {
+            putSplitter(event.splitterId(), event.fdhId(), event.model(), event.portCapacity(),
+                    event.usedPorts(), event.location());
+            changeLog.append("SPLITTER", "UPSERT", event.splitterId(), event.fdhId(),
+                    toSplitterSummaryDTO(splitterSlots.slotOf(event.splitterId())));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        patch(event);
+    }
+
+    private void apply(CustomerChangedEvent event) {
+        if (event.removed()) {
+            removeCustomer(event.customerId());
+            changeLog.append("CUSTOMER", "REMOVE", event.customerId(), event.splitterId(), null);
+        } else {
+            putCustomer(event.customerId(), event.splitterId(), event.assignedPort(), event.name(),
+                    event.plan(), event.status());
+            changeLog.append("CUSTOMER", "UPSERT", event.customerId(), event.splitterId(),
+                    toCustomerDTO(customerSlots.slotOf(event.customerId())));
+        }
+    }
+
+    private void patch(Object event) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                apply(event);
+            } else {
+                // The load may already have read past this row; replaying the committed state is harmless
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyPendingEvents() {
+        for (Object event : pendingEvents) {
+            apply(event);
+        }
+        pendingEvents.clear();
+    }
+
+    private void apply(Object event) {
+        if (event instanceof HeadendChangedEvent e) {
+            apply(e);
+        } else if (event instanceof FDHChangedEvent e) {
+            apply(e);
+        } else if (event instanceof SplitterChangedEvent e) {
+            apply(e);
+        } else if (event instanceof CustomerChangedEvent e) {
+            apply(e);
+        }
+    }
+
+    private void putHeadend(Long id, String name, String location, String region) {
+        int slot = headendSlots.slotOf(id);
+        if (slot == NONE) {
+            slot = headendSlots.allocate(id);
+            growHeadends();
+        }
+        headendName[slot] = name;
+        headendLocation[slot] = location;
+        headendRegion[slot] = region;
+    }
+
+    private void removeHeadend(Long id) {
+        int slot = headendSlots.slotOf(id);
+        if (slot != NONE) {
+            headendSlots.release(slot);
+        }
+    }
+
+    private void putFdh(Long id, Long headendId, String name, String location, String region, Integer maxPorts) {
+        int slot = fdhSlots.slotOf(id);
+        boolean isNew = slot == NONE;
+        if (isNew) {
+            slot = fdhSlots.allocate(id);
+            growFdhs();
+            fdhTotalPorts[slot] = 0;
+            fdhUsedPorts[slot] = 0;
+            fdhCustomerCount[slot] = 0;
+            fdhSplitters[slot] = new IntList();
+        }
+        long newHeadendId = headendId != null ? headendId : NONE;
+        // Rollups only depend on where the FDH hangs; a rename or port change keeps its place in the paged subtree.
+        boolean placed = !isNew && fdhHeadendId[slot] == newHeadendId && Objects.equals(fdhRegion[slot], region);
+        if (!isNew && !placed) {
+            linkFdh(slot, -1);
+        }
+        fdhHeadendId[slot] = newHeadendId;
+        fdhName[slot] = name;
+        fdhLocation[slot] = location;
+        fdhRegion[slot] = region;
+        fdhMaxPorts[slot] = unbox(maxPorts);
+        if (!placed) {
+            linkFdh(slot, 1);
+        }
+    }
+
+    private void removeFdh(Long id) {
+        int slot = fdhSlots.slotOf(id);
+        if (slot == NONE) {
+            return;
+        }
+        linkFdh(slot, -1);
+        IntList splitters = fdhSplitters[slot];
+        for (int i = 0; i < splitters.size(); i++) {
+            splitterFdh[splitters.get(i)] = NONE;
+        }
+        fdhSlots.release(slot);
+    }
+
+    /** Adds (sign = 1) or retracts (sign = -1) an FDH and everything below it from its headend and region rollups. */
+    private void linkFdh(int slot, int sign) {
+        for (Summary summary : summariesOf(slot)) {
+            summary.fdhCount += sign;
+            summary.splitterCount += sign * fdhSplitters[slot].size();
+            summary.customerCount += sign * fdhCustomerCount[slot];
+            summary.totalPorts += sign * fdhTotalPorts[slot];
+            summary.usedPorts += sign * fdhUsedPorts[slot];
+            if (sign > 0) {
+                summary.fdhSlots.add(slot);
+            } else {
+                summary.fdhSlots.remove(slot);
+            }
+        }
+    }
+
+    private Summary[] summariesOf(int fdhSlot) {
+        long headendId = fdhHeadendId[fdhSlot];
+        Summary headend = headendSummaries.computeIfAbsent(headendId, k -> new Summary());
+        Summary region = regionSummaries
+                .computeIfAbsent(headendId, k -> new HashMap<>())
+                .computeIfAbsent(fdhRegion[fdhSlot], k -> new Summary());
+        return new Summary[]{headend, region};
+    }
+
+    private void putSplitter(Long id, Long fdhId, String model, Integer capacity, Integer used, String location) {
+        int slot = splitterSlots.slotOf(id);
+        if (slot == NONE) {
+            slot = splitterSlots.allocate(id);
+            growSplitters();
+            splitterFdh[slot] = NONE;
+            splitterCapacity[slot] = NULL_INT;
+            splitterUsed[slot] = NULL_INT;
+            splitterCustomers[slot] = new IntList();
+        } else {
+            linkSplitter(slot, -1);
+        }
+
+        int fdhSlot = fdhSlots.slotOf(fdhId);
+        if (splitterFdh[slot] != fdhSlot) {
+            if (splitterFdh[slot] != NONE) {
+                fdhSplitters[splitterFdh[slot]].remove(slot);
+            }
+            if (fdhSlot != NONE) {
+                fdhSplitters[fdhSlot].add(slot);
+            }
+            splitterFdh[slot] = fdhSlot;
+        }
+
+        splitterModel[slot] = model;
+        splitterLocation[slot] = location;
+        splitterCapacity[slot] = unbox(capacity);
+        splitterUsed[slot] = unbox(used);
+        linkSplitter(slot, 1);
+    }
+
+    private void removeSplitter(Long id) {
+        int slot = splitterSlots.slotOf(id);
+        if (slot == NONE) {
+            return;
+        }
+        linkSplitter(slot, -1);
+        if (splitterFdh[slot] != NONE) {
+            fdhSplitters[splitterFdh[slot]].remove(slot);
+        }
+        IntList customers = splitterCustomers[slot];
+        for (int i = 0; i < customers.size(); i++) {
+            customerSplitter[customers.get(i)] = NONE;
+        }
+        splitterSlots.release(slot);
+    }
+
+    /**
+     * Adds (sign = 1) or retracts (sign = -1) a splitter's ports and customers from the network
+     * totals, its FDH and the FDH's rollups. Child list membership is maintained by the caller.
+     */
+    private void linkSplitter(int slot, int sign) {
+        int capacity = orZero(splitterCapacity[slot]) * sign;
+        int used = orZero(splitterUsed[slot]) * sign;
+        int customers = splitterCustomers[slot].size() * sign;
+        totalPorts += capacity;
+        usedPorts += used;
+
+        int fdhSlot = splitterFdh[slot];
+        if (fdhSlot == NONE) {
+            return;
+        }
+        fdhTotalPorts[fdhSlot] += capacity;
+        fdhUsedPorts[fdhSlot] += used;
+        fdhCustomerCount[fdhSlot] += customers;
+        for (Summary summary : summariesOf(fdhSlot)) {
+            summary.splitterCount += sign;
+            summary.customerCount += customers;
+            summary.totalPorts += capacity;
+            summary.usedPorts += used;
+        }
+    }
+
+    /** Counts a customer attaching to (sign = 1) or leaving (sign = -1) a splitter against its FDH rollups. */
+    private void countCustomer(int splitterSlot, int sign) {
+        int fdhSlot = splitterFdh[splitterSlot];
+        if (fdhSlot == NONE) {
+            return;
+        }
+        fdhCustomerCount[fdhSlot] += sign;
+        for (Summary summary : summariesOf(fdhSlot)) {
+            summary.customerCount += sign;
+        }
+    }
+
+    private void putCustomer(Long id, Long splitterId, Integer port, String name, String plan, CustomerStatus status) {
+        int slot = customerSlots.slotOf(id);
+        if (slot == NONE) {
+            slot = customerSlots.allocate(id);
+            growCustomers();
+            customerSplitter[slot] = NONE;
+        } else if (customerStatus[slot] == CustomerStatus.Active.ordinal()) {
+            activeCustomers--;
+        }
+
+        int splitterSlot = splitterSlots.slotOf(splitterId);
+        if (customerSplitter[slot] != splitterSlot) {
+            if (customerSplitter[slot] != NONE) {
+                splitterCustomers[customerSplitter[slot]].remove(slot);
+                countCustomer(customerSplitter[slot], -1);
+            }
+            if (splitterSlot != NONE) {
+                splitterCustomers[splitterSlot].add(slot);
+                countCustomer(splitterSlot, 1);
+            }
+            customerSplitter[slot] = splitterSlot;
+        }
+
+        customerPort[slot] = unbox(port);
+        customerStatus[slot] = (byte) status.ordinal();
+        customerName[slot] = name;
+        customerPlan[slot] = plan;
+        if (status == CustomerStatus.Active) {
+            activeCustomers++;
+        }
+    }
+
+    private void removeCustomer(Long id) {
+        int slot = customerSlots.slotOf(id);
+        if (slot == NONE) {
+            return;
+        }
+        if (customerSplitter[slot] != NONE) {
+            splitterCustomers[customerSplitter[slot]].remove(slot);
+            countCustomer(customerSplitter[slot], -1);
+        }
+        if (customerStatus[slot] == CustomerStatus.Active.ordinal()) {
+            activeCustomers--;
+        }
+        customerSlots.release(slot);
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    /**
+     * Immutable copy of FDH and splitter capacity for what-if scenarios. Only ids, parent
+     * links and port counts are copied, so the graph lock is held for one linear pass.
+     */
+    public CapacityModel getCapacityModel() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int fdhCount = fdhSlots.size();
+            long[] fdhIds = new long[fdhCount];
+            String[] names = new String[fdhCount];
+            String[] regions = new String[fdhCount];
+            int[] maxPorts = new int[fdhCount];
+            int[] fdhIndexBySlot = new int[fdhSlots.highWater()];
+            int fdh = 0;
+            for (int slot = 0; slot < fdhSlots.highWater(); slot++) {
+                fdhIndexBySlot[slot] = NONE;
+                if (fdhSlots.isLive(slot)) {
+                    fdhIds[fdh] = fdhSlots.idAt(slot);
+                    names[fdh] = fdhName[slot];
+                    regions[fdh] = fdhRegion[slot];
+                    maxPorts[fdh] = Math.max(0, fdhMaxPorts[slot]);
+                    fdhIndexBySlot[slot] = fdh++;
+                }
+            }
+
+            int splitterCount = splitterSlots.size();
+            long[] splitterIds = new long[splitterCount];
+            int[] parents = new int[splitterCount];
+            int[] capacity = new int[splitterCount];
+            int[] used = new int[splitterCount];
+            int splitter = 0;
+            for (int slot = 0; slot < splitterSlots.highWater(); slot++) {
+                if (splitterSlots.isLive(slot)) {
+                    splitterIds[splitter] = splitterSlots.idAt(slot);
+                    parents[splitter] = splitterFdh[slot] != NONE ? fdhIndexBySlot[splitterFdh[slot]] : NONE;
+                    capacity[splitter] = Math.max(0, splitterCapacity[slot]);
+                    used[splitter] = Math.max(0, splitterUsed[slot]);
+                    splitter++;
+                }
+            }
+
+            return new CapacityModel(changeLog.version(), fdhIds, names, regions, maxPorts,
+                    splitterIds, parents, capacity, used);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return changeLog.version();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public NetworkTotals getTotals() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return new NetworkTotals(fdhSlots.size(), splitterSlots.size(), totalPorts, usedPorts, activeCustomers);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splitter the customer is attached to, or null when unattached or unknown.
+     */
+    public Long getSplitterIdOfCustomer(Long customerId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int slot = customerSlots.slotOf(customerId);
+            return slot != NONE && customerSplitter[slot] != NONE ? splitterSlots.idAt(customerSplitter[slot]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * FDH the splitter hangs off, or null when either is unknown.
+     */
+    public FdhRef getFdhOfSplitter(Long splitterId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int slot = splitterSlots.slotOf(splitterId);
+            return slot != NONE && splitterFdh[slot] != NONE ? toFdhRef(splitterFdh[slot]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FdhRef getFdh(Long fdhId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int slot = fdhSlots.slotOf(fdhId);
+            return slot != NONE ? toFdhRef(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Full topology under the lowest-id headend, or null when no headend exists.
+     */
+    public NetworkTopologyResponse getTopology() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int headendSlot = NONE;
+            for (int slot = 0; slot < headendSlots.highWater(); slot++) {
+                if (headendSlots.isLive(slot) &&
+                        (headendSlot == NONE || headendSlots.idAt(slot) < headendSlots.idAt(headendSlot))) {
+                    headendSlot = slot;
+                }
+            }
+            if (headendSlot == NONE) {
+                return null;
+            }
+
+            HeadendDTO headend = new HeadendDTO(
+                    headendSlots.idAt(headendSlot),
+                    headendName[headendSlot],
+                    headendLocation[headendSlot],
+                    headendRegion[headendSlot]
+            );
+
+            List<FDHDTO> fdhList = new ArrayList<>(fdhSlots.size());
+            for (int slot = 0; slot < fdhSlots.highWater(); slot++) {
+                if (fdhSlots.isLive(slot)) {
+                    fdhList.add(toFDHDTO(slot));
+                }
+            }
+
+            NetworkTopologyResponse.NetworkMetrics metrics = new NetworkTopologyResponse.NetworkMetrics(
+                    splitterSlots.size(), totalPorts, usedPorts, activeCustomers);
+
+            return new NetworkTopologyResponse(headend, fdhList, metrics);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splitter the customer is attached to, or null when unattached or unknown.
+     */
+    public SplitterInfo getSplitterInfo(Long customerId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int slot = customerSlots.slotOf(customerId);
+            if (slot == NONE || customerSplitter[slot] == NONE) {
+                return null;
+            }
+            int splitterSlot = customerSplitter[slot];
+            return new SplitterInfo(
+                    splitterSlots.idAt(splitterSlot),
+                    splitterModel[splitterSlot],
+                    splitterLocation[splitterSlot]
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every headend with its rolled-up counts and a per-region breakdown. Cost depends on the
+     * number of headends and regions only, never on the number of FDHs, splitters or customers.
+     */
+    public List<HeadendSummaryDTO> getHeadendSummaries() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<HeadendSummaryDTO> headends = new ArrayList<>(headendSlots.size());
+            for (int slot = 0; slot < headendSlots.highWater(); slot++) {
+                if (!headendSlots.isLive(slot)) {
+                    continue;
+                }
+                long headendId = headendSlots.idAt(slot);
+                Summary summary = headendSummaries.getOrDefault(headendId, new Summary());
+
+                List<HeadendSummaryDTO.RegionSummary> regions = new ArrayList<>();
+                regionSummaries.getOrDefault(headendId, Map.of()).forEach((region, regionSummary) -> {
+                    if (regionSummary.fdhCount > 0) {
+                        regions.add(new HeadendSummaryDTO.RegionSummary(
+                                region,
+                                regionSummary.fdhCount,
+                                regionSummary.splitterCount,
+                                regionSummary.customerCount,
+                                regionSummary.totalPorts,
+                                regionSummary.usedPorts
+                        ));
+                    }
+                });
+                regions.sort(Comparator.comparing(HeadendSummaryDTO.RegionSummary::getRegion,
+                        Comparator.nullsLast(Comparator.naturalOrder())));
+
+                headends.add(new HeadendSummaryDTO(
+                        headendId,
+                        headendName[slot],
+                        headendLocation[slot],
+                        headendRegion[slot],
+                        summary.fdhCount,
+                        summary.splitterCount,
+                        summary.customerCount,
+                        summary.totalPorts,
+                        summary.usedPorts,
+                        regions
+                ));
+            }
+            headends.sort(Comparator.comparing(HeadendSummaryDTO::getHeadendId));
+            return headends;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the FDHs under a headend, optionally restricted to a region.
+     */
+    public PagedResponse<FDHSummaryDTO> getFDHPage(Long headendId, String region, int page, int size) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            if (headendSlots.slotOf(headendId) == NONE) {
+                throw new RuntimeException("Headend not found with id: " + headendId);
+            }
+            Summary summary = region == null
+                    ? headendSummaries.get(headendId)
+                    : regionSummaries.getOrDefault(headendId, Map.of()).get(region);
+            IntList fdhs = summary != null ? summary.fdhSlots : new IntList();
+
+            List<FDHSummaryDTO> content = new ArrayList<>();
+            int end = pageEnd(fdhs.size(), page, size);
+            for (int i = pageStart(fdhs.size(), page, size); i < end; i++) {
+                content.add(toFDHSummaryDTO(fdhs.get(i)));
+            }
+            return toPage(content, page, size, fdhs.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the splitters under an FDH.
+     */
+    public PagedResponse<SplitterSummaryDTO> getSplitterPage(Long fdhId, int page, int size) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int fdhSlot = fdhSlots.slotOf(fdhId);
+            if (fdhSlot == NONE) {
+                throw new RuntimeException("FDH not found with id: " + fdhId);
+            }
+            IntList splitters = fdhSplitters[fdhSlot];
+
+            List<SplitterSummaryDTO> content = new ArrayList<>();
+            int end = pageEnd(splitters.size(), page, size);
+            for (int i = pageStart(splitters.size(), page, size); i < end; i++) {
+                content.add(toSplitterSummaryDTO(splitters.get(i)));
+            }
+            return toPage(content, page, size, splitters.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of the customers attached to a splitter.
+     */
+    public PagedResponse<CustomerInTopologyDTO> getCustomerPage(Long splitterId, int page, int size) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int splitterSlot = splitterSlots.slotOf(splitterId);
+            if (splitterSlot == NONE) {
+                throw new RuntimeException("Splitter not found with id: " + splitterId);
+            }
+            IntList customers = splitterCustomers[splitterSlot];
+
+            List<CustomerInTopologyDTO> content = new ArrayList<>();
+            int end = pageEnd(customers.size(), page, size);
+            for (int i = pageStart(customers.size(), page, size); i < end; i++) {
+                content.add(toCustomerDTO(customers.get(i)));
+            }
+            return toPage(content, page, size, customers.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Everything downstream of a headend, FDH or splitter, found by walking the child lists.
+     * Ticket fields are left empty for the caller to fill in.
+     */
+    public OutageImpactDTO getImpact(NetworkElementType type, Long elementId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            OutageImpactDTO impact = new OutageImpactDTO();
+            impact.setElementType(type.name());
+            impact.setElementId(elementId);
+            impact.setCustomers(new ArrayList<>());
+
+            switch (type) {
+                case HEADEND -> {
+                    int slot = headendSlots.slotOf(elementId);
+                    if (slot == NONE) {
+                        throw new RuntimeException("Headend not found with id: " + elementId);
+                    }
+                    impact.setElementName(headendName[slot]);
+                    Summary summary = headendSummaries.get(elementId);
+                    if (summary != null) {
+                        for (int i = 0; i < summary.fdhSlots.size(); i++) {
+                            collectFdh(summary.fdhSlots.get(i), impact);
+                        }
+                    }
+                }
+                case FDH -> {
+                    int slot = fdhSlots.slotOf(elementId);
+                    if (slot == NONE) {
+                        throw new RuntimeException("FDH not found with id: " + elementId);
+                    }
+                    impact.setElementName(fdhName[slot]);
+                    collectFdh(slot, impact);
+                }
+                case SPLITTER -> {
+                    int slot = splitterSlots.slotOf(elementId);
+                    if (slot == NONE) {
+                        throw new RuntimeException("Splitter not found with id: " + elementId);
+                    }
+                    impact.setElementName(splitterModel[slot]);
+                    collectSplitter(slot, impact);
+                }
+            }
+            impact.setAffectedCustomers(impact.getCustomers().size());
+            return impact;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectFdh(int slot, OutageImpactDTO impact) {
+        impact.setAffectedFdhs(impact.getAffectedFdhs() + 1);
+        IntList splitters = fdhSplitters[slot];
+        for (int i = 0; i < splitters.size(); i++) {
+            collectSplitter(splitters.get(i), impact);
+        }
+    }
+
+    private void collectSplitter(int slot, OutageImpactDTO impact) {
+        impact.setAffectedSplitters(impact.getAffectedSplitters() + 1);
+        Long splitterId = splitterSlots.idAt(slot);
+        IntList customers = splitterCustomers[slot];
+        for (int i = 0; i < customers.size(); i++) {
+            int customer = customers.get(i);
+            if (customerStatus[customer] == CustomerStatus.Active.ordinal()) {
+                impact.setActiveCustomers(impact.getActiveCustomers() + 1);
+            }
+            impact.getCustomers().add(new ImpactedCustomerDTO(
+                    customerSlots.idAt(customer),
+                    customerName[customer],
+                    STATUSES[customerStatus[customer]].name(),
+                    splitterId,
+                    box(customerPort[customer]),
+                    List.of()
+            ));
+        }
+    }
+
+    /**
+     * Changes committed after the given version, or a full snapshot when the client is too far
+     * behind (or has no version yet) for the bounded change log to bring it up to date.
+     */
+    public TopologyChangesResponse getChangesSince(Long since) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            long version = changeLog.version();
+            // Versions from before a restart, from the future or beyond the ring get a snapshot
+            if (since == null || !changeLog.covers(since)) {
+                return new TopologyChangesResponse(since != null ? since : 0, version, true, List.of(), getTopology());
+            }
+            return new TopologyChangesResponse(since, version, false, changeLog.since(since), null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int pageStart(int total, int page, int size) {
+        return (int) Math.min(total, (long) page * size);
+    }
+
+    private static int pageEnd(int total, int page, int size) {
+        return (int) Math.min(total, (long) page * size + size);
+    }
+
+    private static <T> PagedResponse<T> toPage(List<T> content, int page, int size, int total) {
+        int totalPages = (total + size - 1) / size;
+        return new PagedResponse<>(content, page, size, total, totalPages);
+    }
+
+    private FDHDTO toFDHDTO(int slot) {
+        IntList splitters = fdhSplitters[slot];
+        List<SplitterDTO> splitterList = new ArrayList<>(splitters.size());
+        for (int i = 0; i < splitters.size(); i++) {
+            splitterList.add(toSplitterDTO(splitters.get(i)));
+        }
+        return new FDHDTO(
+                fdhSlots.idAt(slot),
+                fdhName[slot],
+                fdhLocation[slot],
+                fdhRegion[slot],
+                box(fdhMaxPorts[slot]),
+                splitterList
+        );
+    }
+
+    private SplitterDTO toSplitterDTO(int slot) {
+        IntList customers = splitterCustomers[slot];
+        List<CustomerInTopologyDTO> customerList = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            customerList.add(toCustomerDTO(customers.get(i)));
+        }
+        return new SplitterDTO(
+                splitterSlots.idAt(slot),
+                splitterModel[slot],
+                box(splitterCapacity[slot]),
+                box(splitterUsed[slot]),
+                splitterLocation[slot],
+                customerList
+        );
+    }
+
+    private FdhRef toFdhRef(int slot) {
+        return new FdhRef(fdhSlots.idAt(slot), fdhName[slot], fdhRegion[slot]);
+    }
+
+    private FDHSummaryDTO toFDHSummaryDTO(int slot) {
+        return new FDHSummaryDTO(
+                fdhSlots.idAt(slot),
+                fdhName[slot],
+                fdhLocation[slot],
+                fdhRegion[slot],
+                box(fdhMaxPorts[slot]),
+                fdhSplitters[slot].size(),
+                fdhCustomerCount[slot],
+                fdhTotalPorts[slot],
+                fdhUsedPorts[slot]
+        );
+    }
+
+    private SplitterSummaryDTO toSplitterSummaryDTO(int slot) {
+        return new SplitterSummaryDTO(
+                splitterSlots.idAt(slot),
+                splitterModel[slot],
+                box(splitterCapacity[slot]),
+                box(splitterUsed[slot]),
+                splitterLocation[slot],
+                splitterCustomers[slot].size()
+        );
+    }
+
+    private CustomerInTopologyDTO toCustomerDTO(int slot) {
+        return new CustomerInTopologyDTO(
+                customerSlots.idAt(slot),
+                customerName[slot],
+                customerPlan[slot],
+                box(customerPort[slot]),
+                STATUSES[customerStatus[slot]].name()
+        );
+    }
+
+    // ---------------------------------------------------------------------
+    // Array management
+    // ---------------------------------------------------------------------
+
+    private void growHeadends() {
+        int needed = headendSlots.highWater();
+        if (needed > headendName.length) {
+            int size = newSize(needed);
+            headendName = Arrays.copyOf(headendName, size);
+            headendLocation = Arrays.copyOf(headendLocation, size);
+            headendRegion = Arrays.copyOf(headendRegion, size);
+        }
+    }
+
+    private void growFdhs() {
+        int needed = fdhSlots.highWater();
+        if (needed > fdhName.length) {
+            int size = newSize(needed);
+            fdhHeadendId = Arrays.copyOf(fdhHeadendId, size);
+            fdhName = Arrays.copyOf(fdhName, size);
+            fdhLocation = Arrays.copyOf(fdhLocation, size);
+            fdhRegion = Arrays.copyOf(fdhRegion, size);
+            fdhMaxPorts = Arrays.copyOf(fdhMaxPorts, size);
+            fdhTotalPorts = Arrays.copyOf(fdhTotalPorts, size);
+            fdhUsedPorts = Arrays.copyOf(fdhUsedPorts, size);
+            fdhCustomerCount = Arrays.copyOf(fdhCustomerCount, size);
+            fdhSplitters = Arrays.copyOf(fdhSplitters, size);
+        }
+    }
+
+    private void growSplitters() {
+        int needed = splitterSlots.highWater();
+        if (needed > splitterModel.length) {
+            int size = newSize(needed);
+            splitterFdh = Arrays.copyOf(splitterFdh, size);
+            splitterModel = Arrays.copyOf(splitterModel, size);
+            splitterLocation = Arrays.copyOf(splitterLocation, size);
+            splitterCapacity = Arrays.copyOf(splitterCapacity, size);
+            splitterUsed = Arrays.copyOf(splitterUsed, size);
+            splitterCustomers = Arrays.copyOf(splitterCustomers, size);
+        }
+    }
+
+    private void growCustomers() {
+        int needed = customerSlots.highWater();
+        if (needed > customerName.length) {
+            int size = newSize(needed);
+            customerSplitter = Arrays.copyOf(customerSplitter, size);
+            customerPort = Arrays.copyOf(customerPort, size);
+            customerStatus = Arrays.copyOf(customerStatus, size);
+            customerName = Arrays.copyOf(customerName, size);
+            customerPlan = Arrays.copyOf(customerPlan, size);
+        }
+    }
+
+    private static int newSize(int needed) {
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private static int unbox(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static Integer box(int value) {
+        return value != NULL_INT ? value : null;
+    }
+
+    private static int orZero(int value) {
+        return value != NULL_INT ? value : 0;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.OpenTicketRow;
+import com.example.fiberflow_backup.repository.SupportTicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Open support tickets grouped by customer, kept current from ticket change events.
+ * A ticket counts as open until its status becomes Resolved or Closed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OpenTicketIndex {
+
+    private final SupportTicketRepository supportTicketRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<OpenTicketRow>> ticketsByCustomer = new HashMap<>();
+    private final Map<Long, Long> customerByTicket = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Ticket changes that arrived before the first load completed; guarded by the write lock
+    private final List<SupportTicketChangedEvent> pendingEvents = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    public void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the database. Ticket changes committed meanwhile wait for the write
+     * lock; changes that arrived before the first load are queued and applied once it completes.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            ticketsByCustomer.clear();
+            customerByTicket.clear();
+            for (OpenTicketRow row : supportTicketRepository.findOpenTicketRows()) {
+                add(row);
+            }
+            loaded = true;
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSupportTicketChanged(SupportTicketChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                apply(event);
+            } else {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(SupportTicketChangedEvent event) {
+        remove(event.ticketId());
+        if (!event.removed() && event.customerId() != null && isOpen(event.status())) {
+            add(new OpenTicketRow(event.ticketId(), event.customerId(), event.issue(),
+                    event.priority(), event.status(), event.createdAt()));
+        }
+    }
+
+    /**
+     * Open tickets of each requested customer; customers without any are left out of the result.
+     */
+    public Map<Long, List<OpenTicketRow>> getOpenTickets(long[] customerIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Map<Long, List<OpenTicketRow>> result = new HashMap<>();
+            for (long customerId : customerIds) {
+                List<OpenTicketRow> tickets = ticketsByCustomer.get(customerId);
+                if (tickets != null) {
+                    result.put(customerId, new ArrayList<>(tickets));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean isOpen(String status) {
+        return !"Resolved".equals(status) && !"Closed".equals(status);
+    }
+
+    private void add(OpenTicketRow row) {
+        ticketsByCustomer.computeIfAbsent(row.getCustomerId(), k -> new ArrayList<>(1)).add(row);
+        customerByTicket.put(row.getTicketId(), row.getCustomerId());
+    }
+
+    private void remove(Long ticketId) {
+        Long customerId = customerByTicket.remove(ticketId);
+        if (customerId == null) {
+            return;
+        }
+        List<OpenTicketRow> tickets = ticketsByCustomer.get(customerId);
+        tickets.removeIf(ticket -> ticket.getTicketId().equals(ticketId));
+        if (tickets.isEmpty()) {
+            ticketsByCustomer.remove(customerId);
+        }
+    }
+}
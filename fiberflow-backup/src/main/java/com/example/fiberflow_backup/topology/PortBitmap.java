@@ -0,0 +1,147 @@
+package com.example.fiberflow_backup.topology;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Used/free state of a splitter's ports, one bit per port (bit 0 = port 1).
+ * <p>
+ * Splitters have at most a few dozen ports, so the whole map usually fits in a single
+ * word and finding the lowest free port is one {@link Long#numberOfTrailingZeros} call.
+ * A hint to the first word that may still have a free bit keeps larger splitters O(1)
+ * amortized as well.
+ */
+public class PortBitmap {
+
+    private final int capacity;
+    private final long[] words;
+    private int used;
+    private int firstFreeWord;
+
+    public PortBitmap(int capacity) {
+        this.capacity = Math.max(capacity, 0);
+        this.words = new long[(this.capacity + 63) / 64];
+    }
+
+    public static PortBitmap fromPorts(int capacity, Collection<Integer> ports) {
+        PortBitmap bitmap = new PortBitmap(capacity);
+        for (Integer port : ports) {
+            if (port != null) {
+                bitmap.claim(port);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Decodes the persisted form, or returns null when it does not fit the capacity.
+     */
+    public static PortBitmap fromBytes(int capacity, byte[] bytes) {
+        PortBitmap bitmap = new PortBitmap(capacity);
+        if (bytes == null || bytes.length != byteLength(bitmap.capacity)) {
+            return null;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            bitmap.words[i / 8] |= (bytes[i] & 0xFFL) << ((i % 8) * 8);
+        }
+        for (int w = 0; w < bitmap.words.length; w++) {
+            bitmap.words[w] &= bitmap.mask(w);
+            bitmap.used += Long.bitCount(bitmap.words[w]);
+        }
+        return bitmap;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int used() {
+        return used;
+    }
+
+    public synchronized int free() {
+        return capacity - used;
+    }
+
+    public synchronized boolean isUsed(int port) {
+        if (port < 1 || port > capacity) {
+            return false;
+        }
+        int index = port - 1;
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Marks the lowest free port as used and returns it, or -1 when the splitter is full.
+     */
+    public synchronized int claimLowest() {
+        for (int w = firstFreeWord; w < words.length; w++) {
+            long free = ~words[w] & mask(w);
+            if (free != 0) {
+                int bit = Long.numberOfTrailingZeros(free);
+                words[w] |= 1L << bit;
+                used++;
+                firstFreeWord = w;
+                return w * 64 + bit + 1;
+            }
+        }
+        firstFreeWord = words.length;
+        return -1;
+    }
+
+    /**
+     * Marks a specific port as used; false when it is out of range or already taken.
+     */
+    public synchronized boolean claim(int port) {
+        if (port < 1 || port > capacity) {
+            return false;
+        }
+        int index = port - 1;
+        long bit = 1L << index;
+        if ((words[index >>> 6] & bit) != 0) {
+            return false;
+        }
+        words[index >>> 6] |= bit;
+        used++;
+        return true;
+    }
+
+    public synchronized boolean release(int port) {
+        if (port < 1 || port > capacity) {
+            return false;
+        }
+        int index = port - 1;
+        long bit = 1L << index;
+        if ((words[index >>> 6] & bit) == 0) {
+            return false;
+        }
+        words[index >>> 6] &= ~bit;
+        used--;
+        firstFreeWord = Math.min(firstFreeWord, index >>> 6);
+        return true;
+    }
+
+    /**
+     * Little-endian encoding, one bit per port, as stored in {@code splitter.port_bitmap}.
+     */
+    public synchronized byte[] toBytes() {
+        byte[] bytes = new byte[byteLength(capacity)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i / 8] >>> ((i % 8) * 8));
+        }
+        return bytes;
+    }
+
+    public boolean matches(byte[] bytes) {
+        return Arrays.equals(toBytes(), bytes);
+    }
+
+    private long mask(int word) {
+        int bits = capacity - word * 64;
+        return bits >= 64 ? -1L : (1L << bits) - 1;
+    }
+
+    private static int byteLength(int capacity) {
+        return (capacity + 7) / 8;
+    }
+}
@@ -0,0 +1,483 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.CustomerTopologyRow;
+import com.example.fiberflow_backup.dto.DropLineRow;
+import com.example.fiberflow_backup.dto.PowerBudgetDTO;
+import com.example.fiberflow_backup.dto.SplitterSwapImpactDTO;
+import com.example.fiberflow_backup.dto.SplitterTopologyRow;
+import com.example.fiberflow_backup.enums.LineStatus;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import com.example.fiberflow_backup.repository.FiberDropLineRepository;
+import com.example.fiberflow_backup.repository.SplitterRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.example.fiberflow_backup.topology.SlotIndex.NONE;
+
+/**
+ * End-to-end optical loss for every customer path:
+ * feeder and connector losses, plus the splitter's insertion loss, plus drop fiber attenuation.
+ * <p>
+ * Inputs live in parallel primitive arrays that are patched from change events. Every change
+ * only marks the margins stale; they are recomputed for the whole network in one pass over the
+ * arrays before the next read.
+ */
+@Component
+public class PowerBudgetEngine {
+
+    // "1x32", "1:16", "2x64" - the last number is the output count
+    private static final Pattern SPLIT_RATIO = Pattern.compile("(\\d+)\\s*[xX:]\\s*(\\d+)");
+
+    private final CustomerRepository customerRepository;
+    private final SplitterRepository splitterRepository;
+    private final FiberDropLineRepository fiberDropLineRepository;
+
+    private final double lossBudgetDb;
+    private final double minMarginDb;
+    private final double fixedLossDb;
+    private final double attenuationDbPerMeter;
+    private final double splitterExcessLossDb;
+    private final double defaultDropLengthMeters;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    private volatile boolean stale;
+    private boolean relink;
+
+    // Changes that arrived before the first load completed; guarded by the write lock
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+
+    // Splitters
+    private final SlotIndex splitterSlots = new SlotIndex();
+    private String[] splitterModel = new String[0];
+    private int[] splitterRatio = new int[0];
+    private double[] splitterLoss = new double[0];
+
+    // Customers
+    private final SlotIndex customerSlots = new SlotIndex();
+    private long[] customerSplitterId = new long[0];
+    private int[] customerSplitter = new int[0];
+    private long[] dropLineId = new long[0];
+    private double[] dropMeters = new double[0];
+    private double[] totalLoss = new double[0];
+
+    public PowerBudgetEngine(CustomerRepository customerRepository,
+                             SplitterRepository splitterRepository,
+                             FiberDropLineRepository fiberDropLineRepository,
+                             @Value("${fiberflow.optical.loss-budget-db:28.0}") double lossBudgetDb,
+                             @Value("${fiberflow.optical.min-margin-db:3.0}") double minMarginDb,
+                             @Value("${fiberflow.optical.feeder-loss-db:5.0}") double feederLossDb,
+                             @Value("${fiberflow.optical.connector-loss-db:0.5}") double connectorLossDb,
+                             @Value("${fiberflow.optical.connector-count:4}") int connectorCount,
+                             @Value("${fiberflow.optical.fiber-attenuation-db-per-km:0.35}") double attenuationDbPerKm,
+                             @Value("${fiberflow.optical.splitter-excess-loss-db:0.3}") double splitterExcessLossDb,
+                             @Value("${fiberflow.optical.default-drop-length-m:100}") double defaultDropLengthMeters) {
+        this.customerRepository = customerRepository;
+        this.splitterRepository = splitterRepository;
+        this.fiberDropLineRepository = fiberDropLineRepository;
+        this.lossBudgetDb = lossBudgetDb;
+        this.minMarginDb = minMarginDb;
+        this.fixedLossDb = feederLossDb + connectorLossDb * connectorCount;
+        this.attenuationDbPerMeter = attenuationDbPerKm / 1000.0;
+        this.splitterExcessLossDb = splitterExcessLossDb;
+        this.defaultDropLengthMeters = defaultDropLengthMeters;
+    }
+
+    public double getMinMarginDb() {
+        return minMarginDb;
+    }
+
+    // ---------------------------------------------------------------------
+    // Loading
+    // ---------------------------------------------------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    public void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the budgets from the database. Changes committed meanwhile wait for the write lock;
+     * changes that arrived before the first load are queued and applied once it completes.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            splitterSlots.clear();
+            customerSlots.clear();
+
+            for (SplitterTopologyRow row : splitterRepository.findTopologyRows()) {
+                putSplitter(row.getSplitterId(), row.getModel(), row.getPortCapacity());
+            }
+            for (CustomerTopologyRow row : customerRepository.findTopologyRows()) {
+                putCustomer(row.getCustomerId(), row.getSplitterId());
+            }
+            for (DropLineRow row : fiberDropLineRepository.findActiveDropLineRows()) {
+                putDropLine(row.getLineId(), row.getCustomerId(), row.getLengthMeters());
+            }
+
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges.clear();
+
+            stale = true;
+            relink = true;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Incremental patches
+    // ---------------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitterChanged(SplitterChangedEvent event) {
+        patch(() -> {
+            int slot = splitterSlots.slotOf(event.splitterId());
+            if (event.removed()) {
+                if (slot != NONE) {
+                    splitterSlots.release(slot);
+                    relink = true;
+                }
+            } else {
+                // Usage updates keep the slot, so customers stay linked
+                relink |= slot == NONE;
+                putSplitter(event.splitterId(), event.model(), event.portCapacity());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        patch(() -> {
+            if (event.removed()) {
+                int slot = customerSlots.slotOf(event.customerId());
+                if (slot != NONE) {
+                    customerSlots.release(slot);
+                }
+            } else {
+                int slot = putCustomer(event.customerId(), event.splitterId());
+                customerSplitter[slot] = splitterSlots.slotOf(event.splitterId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFiberDropLineChanged(FiberDropLineChangedEvent event) {
+        patch(() -> {
+            if (event.removed() || event.status() != LineStatus.Active) {
+                // Only forget the length if this line is the one the customer is currently measured by
+                int slot = customerSlots.slotOf(event.customerId());
+                if (slot != NONE && dropLineId[slot] == event.lineId()) {
+                    dropLineId[slot] = 0;
+                    dropMeters[slot] = Double.NaN;
+                }
+            } else {
+                putDropLine(event.lineId(), event.customerId(), event.lengthMeters());
+            }
+        });
+    }
+
+    private void patch(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                // The load may already have read past this row; replaying the committed state is harmless
+                pendingChanges.add(change);
+                return;
+            }
+            change.run();
+            stale = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putSplitter(Long id, String model, Integer portCapacity) {
+        int slot = splitterSlots.slotOf(id);
+        if (slot == NONE) {
+            slot = splitterSlots.allocate(id);
+            growSplitters();
+        }
+        splitterModel[slot] = model;
+        splitterRatio[slot] = splitRatio(model, portCapacity);
+        splitterLoss[slot] = splitterLossDb(splitterRatio[slot]);
+    }
+
+    private int putCustomer(Long id, Long splitterId) {
+        int slot = customerSlots.slotOf(id);
+        if (slot == NONE) {
+            slot = customerSlots.allocate(id);
+            growCustomers();
+            dropLineId[slot] = 0;
+            dropMeters[slot] = Double.NaN;
+        }
+        customerSplitterId[slot] = splitterId != null ? splitterId : NONE;
+        customerSplitter[slot] = NONE;
+        return slot;
+    }
+
+    private void putDropLine(Long lineId, Long customerId, BigDecimal lengthMeters) {
+        int slot = customerSlots.slotOf(customerId);
+        if (slot == NONE) {
+            return;
+        }
+        dropLineId[slot] = lineId;
+        dropMeters[slot] = lengthMeters != null ? lengthMeters.doubleValue() : Double.NaN;
+    }
+
+    // ---------------------------------------------------------------------
+    // Batch computation
+    // ---------------------------------------------------------------------
+
+    /**
+     * Recomputes the loss of every customer path. Splitter slots are re-resolved only after
+     * splitters were added or removed; otherwise the pass touches primitive arrays only.
+     */
+    private void recompute() {
+        int highWater = customerSlots.highWater();
+        if (relink) {
+            for (int slot = 0; slot < highWater; slot++) {
+                long splitterId = customerSplitterId[slot];
+                customerSplitter[slot] = splitterId != NONE ? splitterSlots.slotOf(splitterId) : NONE;
+            }
+            relink = false;
+        }
+        for (int slot = 0; slot < highWater; slot++) {
+            int splitter = customerSplitter[slot];
+            totalLoss[slot] = splitter == NONE
+                    ? Double.NaN
+                    : pathLoss(splitterLoss[splitter], dropMeters[slot]);
+        }
+        stale = false;
+    }
+
+    private double pathLoss(double splitterLossDb, double dropLength) {
+        double meters = Double.isNaN(dropLength) ? defaultDropLengthMeters : dropLength;
+        return fixedLossDb + splitterLossDb + meters * attenuationDbPerMeter;
+    }
+
+    /**
+     * Takes the read lock after bringing the margins up to date.
+     */
+    private void lockForRead() {
+        ensureLoaded();
+        if (stale) {
+            lock.writeLock().lock();
+            try {
+                if (stale) {
+                    recompute();
+                }
+                // Downgrade: acquire the read lock before giving up the write lock
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else {
+            lock.readLock().lock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    public PowerBudgetDTO getCustomerBudget(Long customerId) {
+        lockForRead();
+        try {
+            int slot = customerSlots.slotOf(customerId);
+            if (slot == NONE) {
+                throw new RuntimeException("Customer not found with id: " + customerId);
+            }
+            if (customerSplitter[slot] == NONE) {
+                throw new RuntimeException("Customer " + customerId + " is not connected to a splitter");
+            }
+            return toDTO(slot, customerSplitter[slot], splitterLoss[customerSplitter[slot]], totalLoss[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Connected customers whose margin is below the threshold, worst first.
+     */
+    public List<PowerBudgetDTO> getCustomersBelowThreshold(double thresholdDb, int limit) {
+        lockForRead();
+        try {
+            double maxLoss = lossBudgetDb - thresholdDb;
+            int highWater = customerSlots.highWater();
+            int[] matches = new int[16];
+            int count = 0;
+            for (int slot = 0; slot < highWater; slot++) {
+                // NaN (no splitter) never compares greater
+                if (totalLoss[slot] > maxLoss && customerSlots.isLive(slot)) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = slot;
+                }
+            }
+
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = matches[i];
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(totalLoss[b], totalLoss[a]));
+
+            List<PowerBudgetDTO> result = new ArrayList<>(Math.min(count, limit));
+            for (int i = 0; i < count && i < limit; i++) {
+                int slot = order[i];
+                int splitter = customerSplitter[slot];
+                result.add(toDTO(slot, splitter, splitterLoss[splitter], totalLoss[slot]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Margins of every customer on a splitter if it were replaced by the given model,
+     * computed without touching the stored network.
+     */
+    public SplitterSwapImpactDTO simulateSplitterSwap(Long splitterId, String model, Integer portCapacity) {
+        lockForRead();
+        try {
+            int splitter = splitterSlots.slotOf(splitterId);
+            if (splitter == NONE) {
+                throw new RuntimeException("Splitter not found with id: " + splitterId);
+            }
+            int proposedRatio = splitRatio(model, portCapacity);
+            if (proposedRatio <= 0) {
+                throw new RuntimeException("Split ratio cannot be derived from model or port capacity");
+            }
+            double proposedLoss = splitterLossDb(proposedRatio);
+            double maxLoss = lossBudgetDb - minMarginDb;
+
+            List<PowerBudgetDTO> customers = new ArrayList<>();
+            int belowBefore = 0;
+            int belowAfter = 0;
+            for (int slot = 0; slot < customerSlots.highWater(); slot++) {
+                if (customerSplitter[slot] != splitter || !customerSlots.isLive(slot)) {
+                    continue;
+                }
+                double after = pathLoss(proposedLoss, dropMeters[slot]);
+                if (totalLoss[slot] > maxLoss) {
+                    belowBefore++;
+                }
+                if (after > maxLoss) {
+                    belowAfter++;
+                }
+                PowerBudgetDTO budget = toDTO(slot, splitter, proposedLoss, after);
+                budget.setSplitterModel(model);
+                budget.setSplitRatio(proposedRatio);
+                customers.add(budget);
+            }
+
+            return new SplitterSwapImpactDTO(
+                    splitterId,
+                    splitterModel[splitter],
+                    model,
+                    round(splitterLoss[splitter]),
+                    round(proposedLoss),
+                    customers.size(),
+                    belowBefore,
+                    belowAfter,
+                    customers
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PowerBudgetDTO toDTO(int slot, int splitter, double splitterLossDb, double loss) {
+        boolean estimated = Double.isNaN(dropMeters[slot]);
+        double meters = estimated ? defaultDropLengthMeters : dropMeters[slot];
+        double margin = lossBudgetDb - loss;
+        return new PowerBudgetDTO(
+                customerSlots.idAt(slot),
+                splitterSlots.idAt(splitter),
+                splitterModel[splitter],
+                splitterRatio[splitter] > 0 ? splitterRatio[splitter] : null,
+                round(splitterLossDb),
+                round(meters),
+                estimated,
+                round(meters * attenuationDbPerMeter),
+                round(fixedLossDb),
+                round(loss),
+                round(margin),
+                margin < minMarginDb
+        );
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    /** Output count parsed from the model name, falling back to the port capacity; 0 when unknown. */
+    static int splitRatio(String model, Integer portCapacity) {
+        if (model != null) {
+            Matcher matcher = SPLIT_RATIO.matcher(model);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(2));
+            }
+        }
+        return portCapacity != null && portCapacity > 0 ? portCapacity : 0;
+    }
+
+    /** Ideal 1:N split loss plus excess loss for each 1x2 stage; NaN when the ratio is unknown. */
+    private double splitterLossDb(int ratio) {
+        if (ratio <= 0) {
+            return Double.NaN;
+        }
+        return 10 * Math.log10(ratio) + splitterExcessLossDb * (Math.log(ratio) / Math.log(2));
+    }
+
+    private static Double round(double value) {
+        return Double.isNaN(value) ? null : Math.round(value * 100) / 100.0;
+    }
+
+    private void growSplitters() {
+        int needed = splitterSlots.highWater();
+        if (needed > splitterModel.length) {
+            int size = newSize(needed);
+            splitterModel = Arrays.copyOf(splitterModel, size);
+            splitterRatio = Arrays.copyOf(splitterRatio, size);
+            splitterLoss = Arrays.copyOf(splitterLoss, size);
+        }
+    }
+
+    private void growCustomers() {
+        int needed = customerSlots.highWater();
+        if (needed > customerSplitterId.length) {
+            int size = newSize(needed);
+            customerSplitterId = Arrays.copyOf(customerSplitterId, size);
+            customerSplitter = Arrays.copyOf(customerSplitter, size);
+            dropLineId = Arrays.copyOf(dropLineId, size);
+            dropMeters = Arrays.copyOf(dropMeters, size);
+            totalLoss = Arrays.copyOf(totalLoss, size);
+        }
+    }
+
+    private static int newSize(int needed) {
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+}
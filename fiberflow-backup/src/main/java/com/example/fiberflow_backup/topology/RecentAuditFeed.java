@@ -0,0 +1,205 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.AuditLogDTO;
+import com.example.fiberflow_backup.enums.AuditCategory;
+import com.example.fiberflow_backup.repository.AuditLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Latest audit entries of the whole log and of each {@link AuditCategory}, kept in fixed-size
+ * ring buffers so dashboards read their recent activity without querying or filtering the log.
+ * Buffers are filled from the database at startup and appended to as entries are committed.
+ */
+@Component
+public class RecentAuditFeed {
+
+    private final AuditLogRepository auditLogRepository;
+    private final int capacity;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Ring all;
+    private final Map<AuditCategory, Ring> byCategory = new EnumMap<>(AuditCategory.class);
+    private volatile boolean loaded;
+
+    // Entries logged before the first load completed; guarded by the write lock
+    private final List<AuditLoggedEvent> pendingEvents = new ArrayList<>();
+
+    public RecentAuditFeed(AuditLogRepository auditLogRepository,
+                           @Value("${fiberflow.audit.recent-size:50}") int capacity) {
+        this.auditLogRepository = auditLogRepository;
+        this.capacity = Math.max(1, capacity);
+        this.all = new Ring(this.capacity);
+        for (AuditCategory category : AuditCategory.values()) {
+            byCategory.put(category, new Ring(this.capacity));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureLoaded();
+    }
+
+    public void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    /**
+     * Refills the buffers from the database. The write lock is held across the queries, so
+     * entries committed meanwhile wait and are appended afterwards; entries logged before the
+     * first load are queued and appended once it completes. An entry the queries already read
+     * is not appended twice.
+     */
+    public void reload() {
+        backfillCategories();
+
+        lock.writeLock().lock();
+        try {
+            PageRequest latest = PageRequest.of(0, capacity);
+            List<AuditLogDTO> entries = auditLogRepository.findLatestEntries(latest);
+            Map<AuditCategory, List<AuditLogDTO>> entriesByCategory = new EnumMap<>(AuditCategory.class);
+            for (AuditCategory category : AuditCategory.values()) {
+                entriesByCategory.put(category, auditLogRepository.findLatestEntries(category, latest));
+            }
+
+            // Queries return newest first; rings are filled oldest first
+            all.clear();
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                all.add(entries.get(i));
+            }
+            entriesByCategory.forEach((category, categoryEntries) -> {
+                Ring ring = byCategory.get(category);
+                ring.clear();
+                for (int i = categoryEntries.size() - 1; i >= 0; i--) {
+                    ring.add(categoryEntries.get(i));
+                }
+            });
+            loaded = true;
+
+            pendingEvents.forEach(this::append);
+            pendingEvents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Categorizes entries written before the category column existed, with the same
+    // first-match order as AuditCategory.of
+    private void backfillCategories() {
+        for (AuditCategory category : AuditCategory.values()) {
+            for (String keyword : category.getActionKeywords()) {
+                auditLogRepository.assignMissingCategory(category, keyword);
+            }
+        }
+        auditLogRepository.assignMissingCategory(AuditCategory.General, null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuditLogged(AuditLoggedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                append(event);
+            } else {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(AuditLoggedEvent event) {
+        // A load that ran after the entry committed has read it already
+        if (all.contains(event.logId())) {
+            return;
+        }
+        AuditLogDTO entry = new AuditLogDTO(event.logId(), event.username(), event.actionType(),
+                event.description(), event.timestamp());
+        all.add(entry);
+        byCategory.get(event.category()).add(entry);
+    }
+
+    /**
+     * Up to {@code limit} latest entries of the whole log, newest first.
+     */
+    public List<AuditLogDTO> getLatest(int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return all.latest(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} latest entries of one category, newest first.
+     */
+    public List<AuditLogDTO> getLatest(AuditCategory category, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return byCategory.get(category).latest(limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fixed-capacity buffer that overwrites its oldest entry once full.
+     */
+    private static final class Ring {
+        private final AuditLogDTO[] entries;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            entries = new AuditLogDTO[capacity];
+        }
+
+        void add(AuditLogDTO entry) {
+            entries[next] = entry;
+            next = (next + 1) % entries.length;
+            if (size < entries.length) {
+                size++;
+            }
+        }
+
+        boolean contains(Long logId) {
+            for (AuditLogDTO entry : entries) {
+                if (entry != null && entry.getLogId().equals(logId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void clear() {
+            Arrays.fill(entries, null);
+            next = 0;
+            size = 0;
+        }
+
+        List<AuditLogDTO> latest(int limit) {
+            int count = Math.min(Math.max(limit, 0), size);
+            List<AuditLogDTO> result = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                result.add(entries[(next - i + entries.length) % entries.length]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.fiberflow_backup.topology;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints laid out like a Roaring bitmap.
+ * <p>
+ * The int space is cut into chunks of 65536 values keyed by the high 16 bits. A chunk holding
+ * at most {@value #ARRAY_MAX} values stores their low 16 bits as a sorted {@code char[]};
+ * a denser chunk switches to a plain 1024-word bitmap. Sparse sets therefore cost two bytes
+ * per value and dense ones one bit, and intersections work chunk by chunk. Not thread-safe.
+ */
+final class SlotBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    /**
+     * One chunk: either {@code array} (first {@code cardinality} entries used) or {@code bits}.
+     */
+    private static final class Container {
+        private char[] array;
+        private long[] bits;
+        private int cardinality;
+
+        static Container ofArray(char[] values, int cardinality) {
+            Container container = new Container();
+            container.array = values;
+            container.cardinality = cardinality;
+            return container;
+        }
+
+        static Container ofBits(long[] words, int cardinality) {
+            Container container = new Container();
+            container.bits = words;
+            container.cardinality = cardinality;
+            // Keep sparse results compact
+            return cardinality <= ARRAY_MAX ? container.toArrayContainer() : container;
+        }
+
+        boolean add(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) != 0) {
+                    return false;
+                }
+                bits[value >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, value);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                toBitsContainer();
+                return add(value);
+            }
+            index = -index - 1;
+            if (cardinality == array.length) {
+                array = Arrays.copyOf(array, Math.min(Math.max(4, cardinality * 2), ARRAY_MAX));
+            }
+            System.arraycopy(array, index, array, index + 1, cardinality - index);
+            array[index] = value;
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) == 0) {
+                    return false;
+                }
+                bits[value >>> 6] &= ~mask;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX) {
+                    Container array = toArrayContainer();
+                    this.array = array.array;
+                    this.bits = null;
+                }
+                return true;
+            }
+            int index = Arrays.binarySearch(array, 0, cardinality, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(array, index + 1, array, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        boolean contains(char value) {
+            if (bits != null) {
+                return (bits[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(array, 0, cardinality, value) >= 0;
+        }
+
+        Container and(Container other) {
+            if (bits != null && other.bits != null) {
+                long[] words = new long[WORDS];
+                int cardinality = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    words[i] = bits[i] & other.bits[i];
+                    cardinality += Long.bitCount(words[i]);
+                }
+                return ofBits(words, cardinality);
+            }
+            if (bits != null) {
+                return other.and(this);
+            }
+            char[] values = new char[cardinality];
+            int n = 0;
+            if (other.bits != null) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(array[i])) {
+                        values[n++] = array[i];
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    if (array[i] < other.array[j]) {
+                        i++;
+                    } else if (array[i] > other.array[j]) {
+                        j++;
+                    } else {
+                        values[n++] = array[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return ofArray(values, n);
+        }
+
+        int andCardinality(Container other) {
+            if (bits != null && other.bits != null) {
+                int cardinality = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    cardinality += Long.bitCount(bits[i] & other.bits[i]);
+                }
+                return cardinality;
+            }
+            if (bits != null) {
+                return other.andCardinality(this);
+            }
+            int n = 0;
+            if (other.bits != null) {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(array[i])) {
+                        n++;
+                    }
+                }
+                return n;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < other.cardinality) {
+                if (array[i] < other.array[j]) {
+                    i++;
+                } else if (array[i] > other.array[j]) {
+                    j++;
+                } else {
+                    n++;
+                    i++;
+                    j++;
+                }
+            }
+            return n;
+        }
+
+        Container or(Container other) {
+            if (bits == null && other.bits == null && cardinality + other.cardinality <= ARRAY_MAX) {
+                char[] values = new char[cardinality + other.cardinality];
+                int n = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    if (j == other.cardinality || (i < cardinality && array[i] < other.array[j])) {
+                        values[n++] = array[i++];
+                    } else if (i == cardinality || array[i] > other.array[j]) {
+                        values[n++] = other.array[j++];
+                    } else {
+                        values[n++] = array[i];
+                        i++;
+                        j++;
+                    }
+                }
+                return ofArray(values, n);
+            }
+            long[] words = toWords();
+            int cardinality = 0;
+            long[] otherWords = other.bits;
+            if (otherWords != null) {
+                for (int w = 0; w < WORDS; w++) {
+                    words[w] |= otherWords[w];
+                }
+            } else {
+                for (int k = 0; k < other.cardinality; k++) {
+                    char value = other.array[k];
+                    words[value >>> 6] |= 1L << value;
+                }
+            }
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            return ofBits(words, cardinality);
+        }
+
+        void forEach(int high, IntConsumer action) {
+            if (bits != null) {
+                for (int w = 0; w < WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    action.accept(high | array[i]);
+                }
+            }
+        }
+
+        Container copy() {
+            Container copy = new Container();
+            copy.array = array != null ? Arrays.copyOf(array, cardinality) : null;
+            copy.bits = bits != null ? bits.clone() : null;
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        private long[] toWords() {
+            if (bits != null) {
+                return bits.clone();
+            }
+            long[] words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[array[i] >>> 6] |= 1L << array[i];
+            }
+            return words;
+        }
+
+        private void toBitsContainer() {
+            bits = toWords();
+            array = null;
+        }
+
+        private Container toArrayContainer() {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return ofArray(values, n);
+        }
+    }
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    void add(int value) {
+        char high = (char) (value >>> 16);
+        int index = Arrays.binarySearch(keys, 0, size, high);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, high, Container.ofArray(new char[4], 0));
+        }
+        containers[index].add((char) value);
+    }
+
+    void remove(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index];
+        container.remove((char) value);
+        if (container.cardinality == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        }
+    }
+
+    boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    SlotBitmap and(SlotBitmap other) {
+        SlotBitmap result = new SlotBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality > 0) {
+                    result.insert(result.size, keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Size of the intersection without building it.
+     */
+    int andCardinality(SlotBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    SlotBitmap or(SlotBitmap other) {
+        SlotBitmap result = new SlotBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.insert(result.size, keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.insert(result.size, other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.insert(result.size, keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    SlotBitmap copy() {
+        SlotBitmap copy = new SlotBitmap();
+        copy.keys = Arrays.copyOf(keys, size);
+        copy.containers = new Container[size];
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    private void insert(int index, char key, Container container) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.fiberflow_backup.topology;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps database ids to dense array slots, recycling slots of removed rows.
+ */
+final class SlotIndex {
+
+    static final int NONE = -1;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final IntList freeSlots = new IntList();
+    private long[] ids = new long[16];
+    private int highWater;
+
+    int slotOf(Long id) {
+        if (id == null) {
+            return NONE;
+        }
+        Integer slot = slotById.get(id);
+        return slot != null ? slot : NONE;
+    }
+
+    int allocate(long id) {
+        int slot = freeSlots.size() > 0 ? freeSlots.removeLast() : highWater++;
+        if (slot >= ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[slot] = id;
+        slotById.put(id, slot);
+        return slot;
+    }
+
+    void release(int slot) {
+        slotById.remove(ids[slot]);
+        freeSlots.add(slot);
+    }
+
+    long idAt(int slot) {
+        return ids[slot];
+    }
+
+    boolean isLive(int slot) {
+        Integer current = slotById.get(ids[slot]);
+        return current != null && current == slot;
+    }
+
+    /** Upper bound (exclusive) of slots handed out so far; parallel arrays must be at least this long. */
+    int highWater() {
+        return highWater;
+    }
+
+    int size() {
+        return slotById.size();
+    }
+
+    void clear() {
+        slotById.clear();
+        freeSlots.clear();
+        highWater = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.model.Splitter;
+
+public record SplitterChangedEvent(
+        Long splitterId,
+        Long fdhId,
+        String model,
+        Integer portCapacity,
+        Integer usedPorts,
+        String location,
+        boolean removed
+) {
+    public static SplitterChangedEvent of(Splitter splitter, boolean removed) {
+        return new SplitterChangedEvent(
+                splitter.getSplitterId(),
+                splitter.getFdh() != null ? splitter.getFdh().getFdhId() : null,
+                splitter.getModel(),
+                splitter.getPortCapacity(),
+                splitter.getUsedPorts(),
+                splitter.getLocation(),
+                removed
+        );
+    }
+}
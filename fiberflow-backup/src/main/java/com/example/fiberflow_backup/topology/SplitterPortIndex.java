@@ -0,0 +1,51 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.model.Splitter;
+import com.example.fiberflow_backup.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory free-port bitmaps per splitter, backed by {@code splitter.port_bitmap}.
+ * <p>
+ * Callers must hold the splitter row lock. The cached bitmap is checked against the
+ * persisted bytes of the locked row on every access, so a bitmap left dirty by a rolled
+ * back transaction, or a row written by another node, is simply reloaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class SplitterPortIndex {
+
+    private final CustomerRepository customerRepository;
+    private final Map<Long, PortBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    public PortBitmap forLockedSplitter(Splitter splitter) {
+        int capacity = splitter.getPortCapacity() != null ? splitter.getPortCapacity() : 0;
+        byte[] persisted = splitter.getPortBitmap();
+
+        PortBitmap cached = bitmaps.get(splitter.getSplitterId());
+        if (cached != null && cached.capacity() == capacity && cached.matches(persisted)) {
+            return cached;
+        }
+
+        PortBitmap bitmap = PortBitmap.fromBytes(capacity, persisted);
+        if (bitmap == null) {
+            // Legacy row or capacity change: rebuild from the customers' assigned ports
+            bitmap = PortBitmap.fromPorts(capacity,
+                    customerRepository.findAssignedPorts(splitter.getSplitterId()));
+        }
+        bitmaps.put(splitter.getSplitterId(), bitmap);
+        return bitmap;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitterChanged(SplitterChangedEvent event) {
+        if (event.removed()) {
+            bitmaps.remove(event.splitterId());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.model.SupportTicket;
+
+import java.time.LocalDateTime;
+
+public record SupportTicketChangedEvent(
+        Long ticketId,
+        Long customerId,
+        String issue,
+        String priority,
+        String status,
+        LocalDateTime createdAt,
+        boolean removed
+) {
+    public static SupportTicketChangedEvent of(SupportTicket ticket, boolean removed) {
+        return new SupportTicketChangedEvent(
+                ticket.getTicketId(),
+                ticket.getCustomer() != null ? ticket.getCustomer().getCustomerId() : null,
+                ticket.getIssue(),
+                ticket.getPriority(),
+                ticket.getStatus(),
+                ticket.getCreatedAt(),
+                removed
+        );
+    }
+}
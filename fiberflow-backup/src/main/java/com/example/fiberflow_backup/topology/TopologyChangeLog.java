@@ -0,0 +1,88 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.dto.TopologyChangeDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded ring of the most recent topology changes, numbered by a version that only ever grows
+ * within one process.
+ * <p>
+ * A version carries a random per-process epoch in its high bits above a 32-bit sequence, so a
+ * version handed out before a restart is recognised as foreign rather than mistaken for a
+ * position in the new sequence. Versions stay below 2^53 so JavaScript clients read them
+ * exactly. Not thread-safe; the graph guards it with its own lock.
+ */
+final class TopologyChangeLog {
+
+    private static final int SEQUENCE_BITS = 32;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int EPOCH_BITS = 20;
+
+    private final TopologyChangeDTO[] ring;
+    private long epoch = newEpoch(0);
+    private long sequence;
+    // Changes at or below this sequence are not in the ring (before the last reload)
+    private long floor;
+
+    TopologyChangeLog(int capacity) {
+        this.ring = new TopologyChangeDTO[capacity];
+    }
+
+    long version() {
+        return epoch | sequence;
+    }
+
+    void append(String elementType, String action, Long elementId, Long parentId, Object element) {
+        advance();
+        ring[(int) ((sequence - 1) % ring.length)] =
+                new TopologyChangeDTO(version(), elementType, action, elementId, parentId, element);
+    }
+
+    /** Forgets all changes and starts a new version, so every existing client takes a snapshot. */
+    void reset() {
+        advance();
+        floor = sequence;
+    }
+
+    private void advance() {
+        if (sequence == SEQUENCE_MASK) {
+            // Sequence exhausted: start a new epoch, which sends every client to a snapshot
+            epoch = newEpoch(epoch);
+            sequence = 0;
+            floor = 0;
+        }
+        sequence++;
+    }
+
+    /**
+     * Whether a client at this version can be brought up to date from the ring: it must come
+     * from this process, not be ahead of it, and not be older than the ring reaches back.
+     */
+    boolean covers(long version) {
+        if ((version & ~SEQUENCE_MASK) != epoch) {
+            return false;
+        }
+        long since = version & SEQUENCE_MASK;
+        return since <= sequence && since >= Math.max(floor, sequence - ring.length);
+    }
+
+    private static long newEpoch(long previous) {
+        long epoch;
+        do {
+            epoch = ThreadLocalRandom.current().nextLong(1, 1L << EPOCH_BITS) << SEQUENCE_BITS;
+        } while (epoch == previous);
+        return epoch;
+    }
+
+    List<TopologyChangeDTO> since(long version) {
+        long since = version & SEQUENCE_MASK;
+        List<TopologyChangeDTO> changes = new ArrayList<>((int) (sequence - since));
+        for (long v = since + 1; v <= sequence; v++) {
+            changes.add(ring[(int) ((v - 1) % ring.length)]);
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.model.Asset;
+import com.example.fiberflow_backup.model.AuditLog;
+import com.example.fiberflow_backup.model.Customer;
+import com.example.fiberflow_backup.model.FDH;
+import com.example.fiberflow_backup.model.FiberDropLine;
+import com.example.fiberflow_backup.model.Headend;
+import com.example.fiberflow_backup.model.Splitter;
+import com.example.fiberflow_backup.model.SupportTicket;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener attached to the topology entities, drop lines, support
+ * tickets and assets. It turns every insert, update and delete into a change
+ * event so in-memory views can patch themselves instead of reloading from the
+ * database. Audit log entries are append-only, so only their inserts are
+ * published.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopologyEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        publish(entity, false);
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        publish(entity, true);
+    }
+
+    private void publish(Object entity, boolean removed) {
+        if (entity instanceof Customer customer) {
+            eventPublisher.publishEvent(CustomerChangedEvent.of(customer, removed));
+        } else if (entity instanceof Splitter splitter) {
+            eventPublisher.publishEvent(SplitterChangedEvent.of(splitter, removed));
+        } else if (entity instanceof FDH fdh) {
+            eventPublisher.publishEvent(FDHChangedEvent.of(fdh, removed));
+        } else if (entity instanceof Headend headend) {
+            eventPublisher.publishEvent(HeadendChangedEvent.of(headend, removed));
+        } else if (entity instanceof FiberDropLine line) {
+            eventPublisher.publishEvent(FiberDropLineChangedEvent.of(line, removed));
+        } else if (entity instanceof SupportTicket ticket) {
+            eventPublisher.publishEvent(SupportTicketChangedEvent.of(ticket, removed));
+        } else if (entity instanceof Asset asset) {
+            eventPublisher.publishEvent(AssetChangedEvent.of(asset, removed));
+        } else if (entity instanceof AuditLog log && !removed) {
+            eventPublisher.publishEvent(AuditLoggedEvent.of(log));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.fiberflow_backup.topology;
+
+import com.example.fiberflow_backup.enums.CustomerStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * On-disk form of the topology graph: a binary snapshot stamped with the database change
+ * marker (the latest {@code updated_at} over the topology tables) read before it was taken.
+ * <p>
+ * Strings are length-prefixed UTF-8 (length -1 for null); ids that may be absent are written
+ * as -1. Not thread-safe; the graph guards it with its own lock.
+ */
+final class TopologySnapshotFile {
+
+    static final int MAGIC = 0x46465450; // "FFTP"
+    static final int FORMAT_VERSION = 3;
+
+    private static final CustomerStatus[] STATUSES = CustomerStatus.values();
+
+    /**
+     * A mapped snapshot: its change marker (null for an empty database) and the body,
+     * positioned after the header.
+     */
+    record Mapped(LocalDateTime changeMarker, ByteBuffer body) {}
+
+    @FunctionalInterface
+    interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final Path snapshot;
+
+    TopologySnapshotFile(Path snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    Path path() {
+        return snapshot;
+    }
+
+    // ---------------------------------------------------------------------
+    // Snapshot
+    // ---------------------------------------------------------------------
+
+    /**
+     * Writes a new snapshot next to the old one and swaps it in atomically.
+     */
+    void write(LocalDateTime changeMarker, Body body) throws IOException {
+        Files.createDirectories(snapshot.toAbsolutePath().getParent());
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            writeString(out, changeMarker != null ? changeMarker.toString() : null);
+            body.write(out);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the snapshot read-only, or returns null when there is no usable snapshot.
+     */
+    Mapped map() throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return null;
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 16 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        buffer.getLong(); // written at
+        String changeMarker = readString(buffer);
+        return new Mapped(changeMarker != null ? LocalDateTime.parse(changeMarker) : null, buffer);
+    }
+
+    // ---------------------------------------------------------------------
+    // Field encoding, shared with the graph's snapshot body
+    // ---------------------------------------------------------------------
+
+    static Long readId(ByteBuffer in) {
+        long id = in.getLong();
+        return id != -1 ? id : null;
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static CustomerStatus readStatus(ByteBuffer in) {
+        byte ordinal = in.get();
+        return ordinal >= 0 ? STATUSES[ordinal] : null;
+    }
+}
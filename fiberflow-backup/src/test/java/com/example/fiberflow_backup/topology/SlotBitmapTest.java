@@ -0,0 +1,224 @@
+package com.example.fiberflow_backup.topology;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitmapTest {
+
+	private static final int CHUNK = 1 << 16;
+	private static final int ARRAY_MAX = 4096;
+
+	@Test
+	void chunkSwitchesToBitsAboveArrayMaxAndBack() {
+		SlotBitmap bitmap = new SlotBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		for (int i = 0; i < ARRAY_MAX; i++) {
+			bitmap.add(i * 3);
+			expected.add(i * 3);
+		}
+		assertMatches(expected, bitmap);
+
+		// One more value converts the chunk; a duplicate must not
+		bitmap.add(ARRAY_MAX * 3);
+		bitmap.add(ARRAY_MAX * 3);
+		expected.add(ARRAY_MAX * 3);
+		assertMatches(expected, bitmap);
+
+		// Dropping back to the threshold converts it back, and it keeps accepting values
+		bitmap.remove(0);
+		expected.remove(0);
+		assertMatches(expected, bitmap);
+		bitmap.add(1);
+		expected.add(1);
+		bitmap.remove(1);
+		expected.remove(1);
+		bitmap.remove(2);
+		assertMatches(expected, bitmap);
+
+		for (int value : new ArrayList<>(expected)) {
+			bitmap.remove(value);
+		}
+		assertTrue(bitmap.isEmpty());
+		assertEquals(0, bitmap.cardinality());
+	}
+
+	@Test
+	void valuesAroundChunkBoundariesStayInTheirChunks() {
+		SlotBitmap bitmap = new SlotBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		int[] values = {0, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK - 1, 2 * CHUNK, 5 * CHUNK + 7};
+		for (int i = values.length - 1; i >= 0; i--) {
+			bitmap.add(values[i]);
+			expected.add(values[i]);
+		}
+		assertMatches(expected, bitmap);
+		assertFalse(bitmap.contains(3 * CHUNK));
+
+		// Emptying a middle chunk removes it without disturbing its neighbours
+		bitmap.remove(CHUNK);
+		bitmap.remove(CHUNK + 1);
+		bitmap.remove(2 * CHUNK - 1);
+		expected.remove(CHUNK);
+		expected.remove(CHUNK + 1);
+		expected.remove(2 * CHUNK - 1);
+		assertMatches(expected, bitmap);
+		bitmap.add(CHUNK + 2);
+		expected.add(CHUNK + 2);
+		assertMatches(expected, bitmap);
+	}
+
+	@Test
+	void setOperationsMatchAcrossContainerKinds() {
+		// Chunk 0: dense vs dense, chunk 1: dense vs sparse, chunk 2: sparse vs sparse,
+		// chunk 3: only in the left set, chunk 4: only in the right set
+		Random random = new Random(17);
+		SlotBitmap left = new SlotBitmap();
+		SlotBitmap right = new SlotBitmap();
+		TreeSet<Integer> leftValues = new TreeSet<>();
+		TreeSet<Integer> rightValues = new TreeSet<>();
+		fill(random, left, leftValues, 0, 30_000);
+		fill(random, right, rightValues, 0, 30_000);
+		fill(random, left, leftValues, CHUNK, 20_000);
+		fill(random, right, rightValues, CHUNK, 1_000);
+		fill(random, left, leftValues, 2 * CHUNK, 2_000);
+		fill(random, right, rightValues, 2 * CHUNK, 2_500);
+		fill(random, left, leftValues, 3 * CHUNK, 500);
+		fill(random, right, rightValues, 4 * CHUNK, 500);
+
+		TreeSet<Integer> intersection = new TreeSet<>(leftValues);
+		intersection.retainAll(rightValues);
+		TreeSet<Integer> union = new TreeSet<>(leftValues);
+		union.addAll(rightValues);
+
+		assertMatches(intersection, left.and(right));
+		assertMatches(intersection, right.and(left));
+		assertEquals(intersection.size(), left.andCardinality(right));
+		assertEquals(intersection.size(), right.andCardinality(left));
+		assertMatches(union, left.or(right));
+		assertMatches(union, right.or(left));
+
+		// The operands are left untouched
+		assertMatches(leftValues, left);
+		assertMatches(rightValues, right);
+	}
+
+	@Test
+	void sparseIntersectionOfDenseChunksIsSmall() {
+		SlotBitmap evens = new SlotBitmap();
+		SlotBitmap odds = new SlotBitmap();
+		TreeSet<Integer> shared = new TreeSet<>();
+		for (int i = 0; i < 2 * ARRAY_MAX; i++) {
+			evens.add(2 * i);
+			odds.add(2 * i + 1);
+		}
+		for (int i = 0; i < 10; i++) {
+			evens.add(2 * i + 1);
+			shared.add(2 * i + 1);
+		}
+
+		SlotBitmap result = evens.and(odds);
+		assertMatches(shared, result);
+		// A result converted down to an array must still grow past the threshold
+		for (int i = 0; i < ARRAY_MAX; i++) {
+			result.add(CHUNK - 1 - i);
+			shared.add(CHUNK - 1 - i);
+		}
+		assertMatches(shared, result);
+		assertTrue(evens.and(new SlotBitmap()).isEmpty());
+		assertEquals(0, odds.andCardinality(new SlotBitmap()));
+	}
+
+	@Test
+	void unionOfArraysOverflowingThresholdDeduplicates() {
+		SlotBitmap left = new SlotBitmap();
+		SlotBitmap right = new SlotBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		for (int i = 0; i < 3_000; i++) {
+			left.add(i);
+			right.add(i + 1_500);
+			expected.add(i);
+			expected.add(i + 1_500);
+		}
+		// 6000 inputs, 4500 distinct values
+		assertMatches(expected, left.or(right));
+
+		SlotBitmap small = new SlotBitmap();
+		small.add(5);
+		small.add(7);
+		assertMatches(new TreeSet<>(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)), small.or(range(10)));
+	}
+
+	@Test
+	void copyIsIndependent() {
+		SlotBitmap original = range(ARRAY_MAX + 10);
+		original.add(3 * CHUNK);
+		SlotBitmap copy = original.copy();
+
+		copy.remove(0);
+		copy.add(3 * CHUNK + 1);
+		copy.add(ARRAY_MAX + 20);
+		assertTrue(original.contains(0));
+		assertFalse(original.contains(3 * CHUNK + 1));
+		assertFalse(original.contains(ARRAY_MAX + 20));
+		assertEquals(ARRAY_MAX + 11, original.cardinality());
+		assertEquals(ARRAY_MAX + 12, copy.cardinality());
+	}
+
+	@Test
+	void randomOperationsMatchTreeSet() {
+		Random random = new Random(42);
+		SlotBitmap bitmap = new SlotBitmap();
+		TreeSet<Integer> expected = new TreeSet<>();
+		// Values crowd into two chunks so containers repeatedly cross the threshold
+		for (int step = 0; step < 200_000; step++) {
+			int value = random.nextInt(2) * CHUNK + random.nextInt(9_000);
+			boolean add = expected.size() < 6_000 ? random.nextInt(4) != 0 : random.nextInt(4) == 0;
+			if (add) {
+				bitmap.add(value);
+				expected.add(value);
+			} else {
+				bitmap.remove(value);
+				expected.remove(value);
+			}
+			if (step % 20_000 == 0) {
+				assertMatches(expected, bitmap);
+			}
+		}
+		assertMatches(expected, bitmap);
+	}
+
+	private static SlotBitmap range(int count) {
+		SlotBitmap bitmap = new SlotBitmap();
+		for (int i = 0; i < count; i++) {
+			bitmap.add(i);
+		}
+		return bitmap;
+	}
+
+	private static void fill(Random random, SlotBitmap bitmap, TreeSet<Integer> values, int base, int count) {
+		for (int i = 0; i < count; i++) {
+			int value = base + random.nextInt(CHUNK);
+			bitmap.add(value);
+			values.add(value);
+		}
+	}
+
+	private static void assertMatches(TreeSet<Integer> expected, SlotBitmap bitmap) {
+		List<Integer> actual = new ArrayList<>();
+		bitmap.forEach(actual::add);
+		assertEquals(new ArrayList<>(expected), actual);
+		assertEquals(expected.size(), bitmap.cardinality());
+		assertEquals(expected.isEmpty(), bitmap.isEmpty());
+		for (int value : expected) {
+			assertTrue(bitmap.contains(value));
+		}
+	}
+}
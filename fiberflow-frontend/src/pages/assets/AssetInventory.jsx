@@ -2,15 +2,21 @@ import { useState, useEffect } from 'react';
 import api from '../../services/api';
 import LoadingSpinner from '../../components/common/LoadingSpinner';
 
+const PAGE_SIZE = 50;
+
 const AssetInventory = () => {
   const [loading, setLoading] = useState(true);
   const [assets, setAssets] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [nextSerialCursor, setNextSerialCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [assetStats, setAssetStats] = useState({});
   
   const [filters, setFilters] = useState({
     type: '',
     status: '',
-    search: ''
+    location: '',
+    serialPrefix: ''
   });
 
   const [showAddModal, setShowAddModal] = useState(false);
@@ -28,21 +34,40 @@ const AssetInventory = () => {
   const [errors, setErrors] = useState({});
 
   useEffect(() => {
-    fetchAssets();
     fetchAssetStats();
   }, []);
 
-  const fetchAssets = async () => {
+  useEffect(() => {
+    fetchAssets();
+  }, [filters]);
+
+  // Reads the first page, or appends the page after the given cursors
+  const fetchAssets = async (after = null, afterSerial = null) => {
     try {
-      const response = await api.get('/assets');
-      setAssets(response.data);
-      setLoading(false);
+      const params = { size: PAGE_SIZE };
+      if (filters.type) params.type = filters.type;
+      if (filters.status) params.status = filters.status;
+      if (filters.location) params.location = filters.location;
+      if (filters.serialPrefix) params.serialPrefix = filters.serialPrefix;
+      if (after !== null) params.after = after;
+      if (afterSerial !== null) params.afterSerial = afterSerial;
+      const response = await api.get('/assets', { params });
+      setAssets(prev => after !== null ? [...prev, ...response.data.content] : response.data.content);
+      setNextCursor(response.data.nextCursor);
+      setNextSerialCursor(response.data.nextSerialCursor);
     } catch (error) {
       console.error('Error fetching assets:', error);
+    } finally {
       setLoading(false);
+      setLoadingMore(false);
     }
   };
 
+  const loadMore = () => {
+    setLoadingMore(true);
+    fetchAssets(nextCursor, nextSerialCursor);
+  };
+
   const fetchAssetStats = async () => {
     try {
       const response = await api.get('/assets/stats');
@@ -52,10 +77,14 @@ const AssetInventory = () => {
     }
   };
 
-  const handleFilterChange = (e) => {
+  const handleFilterSubmit = (e) => {
+    e.preventDefault();
+    const form = new FormData(e.target);
     setFilters({
-      ...filters,
-      [e.target.name]: e.target.value
+      type: form.get('type'),
+      status: form.get('status'),
+      location: form.get('location').trim(),
+      serialPrefix: form.get('serialPrefix').trim()
     });
   };
 
@@ -142,16 +171,6 @@ const AssetInventory = () => {
     setShowEditModal(true);
   };
 
-  const filteredAssets = assets.filter(asset => {
-    const matchesType = !filters.type || asset.assetType === filters.type;
-    const matchesStatus = !filters.status || asset.status === filters.status;
-    const matchesSearch = !filters.search || 
-      asset.serialNumber?.toLowerCase().includes(filters.search.toLowerCase()) ||
-      asset.model?.toLowerCase().includes(filters.search.toLowerCase()) ||
-      asset.location?.toLowerCase().includes(filters.search.toLowerCase());
-    return matchesType && matchesStatus && matchesSearch;
-  });
-
   const getStatusBadge = (status) => {
     const badges = {
       'Available': 'success',
@@ -238,14 +257,13 @@ const AssetInventory = () => {
       {/* Filters */}
       <div className="card mb-4 border-0">
         <div className="card-body">
-          <div className="row g-3">
-            <div className="col-md-3">
+          <form className="row g-3 align-items-end" onSubmit={handleFilterSubmit}>
+            <div className="col-md-2">
               <label className="form-label fw-semibold small">Asset Type</label>
               <select 
                 className="form-select" 
                 name="type"
-                value={filters.type}
-                onChange={handleFilterChange}
+                defaultValue={filters.type}
               >
                 <option value="">All Types</option>
                 <option value="ONT">ONT</option>
@@ -257,13 +275,12 @@ const AssetInventory = () => {
                 <option value="FiberRoll">Fiber Roll</option>
               </select>
             </div>
-            <div className="col-md-3">
+            <div className="col-md-2">
               <label className="form-label fw-semibold small">Status</label>
               <select 
                 className="form-select"
                 name="status"
-                value={filters.status}
-                onChange={handleFilterChange}
+                defaultValue={filters.status}
               >
                 <option value="">All Status</option>
                 <option value="Available">Available</option>
@@ -272,18 +289,33 @@ const AssetInventory = () => {
                 <option value="Retired">Retired</option>
               </select>
             </div>
-            <div className="col-md-6">
-              <label className="form-label fw-semibold small">Search</label>
+            <div className="col-md-3">
+              <label className="form-label fw-semibold small">Location</label>
               <input
                 type="text"
                 className="form-control"
-                placeholder="Search by serial number, model, or location..."
-                name="search"
-                value={filters.search}
-                onChange={handleFilterChange}
+                placeholder="Exact location, e.g. Warehouse"
+                name="location"
+                defaultValue={filters.location}
               />
             </div>
-          </div>
+            <div className="col-md-3">
+              <label className="form-label fw-semibold small">Serial Number</label>
+              <input
+                type="text"
+                className="form-control"
+                placeholder="Starts with..."
+                name="serialPrefix"
+                defaultValue={filters.serialPrefix}
+              />
+            </div>
+            <div className="col-md-2">
+              <button type="submit" className="btn btn-outline-primary w-100">
+                <i className="bi bi-funnel me-2"></i>
+                Apply
+              </button>
+            </div>
+          </form>
         </div>
       </div>
 
@@ -292,7 +324,7 @@ const AssetInventory = () => {
         <div className="card-header bg-white border-0 py-3">
           <h5 className="mb-0 fw-bold">
             <i className="bi bi-table me-2 text-primary"></i>
-            Asset List ({filteredAssets.length} items)
+            Asset List ({assets.length}{nextCursor !== null ? '+' : ''} items)
           </h5>
         </div>
         <div className="card-body p-0">
@@ -310,8 +342,8 @@ const AssetInventory = () => {
                 </tr>
               </thead>
               <tbody>
-                {filteredAssets.length > 0 ? (
-                  filteredAssets.map((asset) => (
+                {assets.length > 0 ? (
+                  assets.map((asset) => (
                     <tr key={asset.assetId}>
                       <td className="ps-4">
                         <div className="d-flex align-items-center">
@@ -371,6 +403,17 @@ const AssetInventory = () => {
             </table>
           </div>
         </div>
+        {nextCursor !== null && (
+          <div className="card-footer bg-white border-0 py-3 text-center">
+            <button
+              className="btn btn-sm btn-outline-secondary"
+              disabled={loadingMore}
+              onClick={loadMore}
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
 
       {/* Add Asset Modal */}
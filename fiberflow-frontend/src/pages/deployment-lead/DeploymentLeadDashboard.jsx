@@ -2,9 +2,15 @@ import { useState, useEffect } from 'react';
 import api from '../../services/api';
 import LoadingSpinner from '../../components/common/LoadingSpinner';
 
+const PAGE_SIZE = 50;
+
 const DeploymentLeadDashboard = () => {
   const [loading, setLoading] = useState(true);
   const [customers, setCustomers] = useState([]);
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalElements, setTotalElements] = useState(0);
+  const [filters, setFilters] = useState({ neighborhood: '', status: '' });
   const [availableAssets, setAvailableAssets] = useState([]);
   const [stats, setStats] = useState({
     totalCustomers: 0,
@@ -25,12 +31,17 @@ const DeploymentLeadDashboard = () => {
 
   useEffect(() => {
     fetchDashboardData();
-  }, []);
+  }, [page, filters]);
 
   const fetchDashboardData = async () => {
     try {
-      const response = await api.get('/deployment-lead/dashboard');
-      setCustomers(response.data.customers);
+      const params = { page, size: PAGE_SIZE };
+      if (filters.neighborhood) params.neighborhood = filters.neighborhood;
+      if (filters.status) params.status = filters.status;
+      const response = await api.get('/deployment-lead/dashboard', { params });
+      setCustomers(response.data.customers.content);
+      setTotalPages(response.data.customers.totalPages);
+      setTotalElements(response.data.customers.totalElements);
       setStats(response.data.stats);
       setLoading(false);
     } catch (error) {
@@ -48,6 +59,16 @@ const DeploymentLeadDashboard = () => {
     }
   };
 
+  const handleFilterSubmit = (e) => {
+    e.preventDefault();
+    const form = new FormData(e.target);
+    setPage(0);
+    setFilters({
+      neighborhood: form.get('neighborhood').trim(),
+      status: form.get('status')
+    });
+  };
+
   const openAllocateModal = (customer) => {
     setSelectedCustomer(customer);
     setAllocateForm({
@@ -236,11 +257,28 @@ const DeploymentLeadDashboard = () => {
       <div className="row">
         <div className="col-12">
           <div className="card border-0">
-            <div className="card-header bg-white border-0 py-3">
+            <div className="card-header bg-white border-0 py-3 d-flex flex-wrap justify-content-between align-items-center gap-2">
               <h5 className="mb-0 fw-bold">
                 <i className="bi bi-diagram-2-fill me-2 text-primary"></i>
                 Customer Asset Management
               </h5>
+              <form className="d-flex gap-2" onSubmit={handleFilterSubmit}>
+                <input
+                  name="neighborhood"
+                  className="form-control form-control-sm"
+                  placeholder="Neighborhood"
+                  defaultValue={filters.neighborhood}
+                />
+                <select name="status" className="form-select form-select-sm" defaultValue={filters.status}>
+                  <option value="">All statuses</option>
+                  <option value="Active">Active</option>
+                  <option value="Pending">Pending</option>
+                  <option value="Inactive">Inactive</option>
+                </select>
+                <button type="submit" className="btn btn-sm btn-outline-primary">
+                  <i className="bi bi-funnel"></i>
+                </button>
+              </form>
             </div>
             <div className="card-body p-0">
               {customers.length > 0 ? (
@@ -320,6 +358,29 @@ const DeploymentLeadDashboard = () => {
                 </div>
               )}
             </div>
+            {totalPages > 1 && (
+              <div className="card-footer bg-white border-0 py-3 d-flex justify-content-between align-items-center">
+                <small className="text-muted">
+                  Page {page + 1} of {totalPages} ({totalElements} customers)
+                </small>
+                <div className="btn-group">
+                  <button
+                    className="btn btn-sm btn-outline-secondary"
+                    disabled={page === 0}
+                    onClick={() => setPage(page - 1)}
+                  >
+                    <i className="bi bi-chevron-left"></i>
+                  </button>
+                  <button
+                    className="btn btn-sm btn-outline-secondary"
+                    disabled={page + 1 >= totalPages}
+                    onClick={() => setPage(page + 1)}
+                  >
+                    <i className="bi bi-chevron-right"></i>
+                  </button>
+                </div>
+              </div>
+            )}
           </div>
         </div>
       </div>